@@ -0,0 +1,59 @@
+package com.bi1kbu.pluginschedule.archive;
+
+import com.bi1kbu.pluginschedule.benchmark.SyntheticData;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 日志的关键字与日期过滤（归档浏览时逐条判断的路径）。
+ */
+@State(Scope.Benchmark)
+public class ArchiveFilterBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private List<ScheduleLog> logs;
+    private ArchiveFilter keywordFilter;
+    private ArchiveFilter dateFilter;
+    private ArchiveFilter combinedFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        logs = SyntheticData.logs(size);
+        keywordFilter = new ArchiveFilter(null, null, "tag-42", null, null);
+        dateFilter = new ArchiveFilter(null, null, null, "2024-03-01", "2024-04-01");
+        combinedFilter = new ArchiveFilter("update", null, "地点", "2024-03-01", "2024-04-01");
+    }
+
+    @Benchmark
+    public int keyword() {
+        return count(keywordFilter);
+    }
+
+    @Benchmark
+    public int date() {
+        return count(dateFilter);
+    }
+
+    @Benchmark
+    public int combined() {
+        return count(combinedFilter);
+    }
+
+    private int count(ArchiveFilter filter) {
+        int matched = 0;
+        for (ScheduleLog log : logs) {
+            if (filter.matches(log)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
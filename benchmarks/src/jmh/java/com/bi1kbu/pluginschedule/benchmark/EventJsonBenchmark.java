@@ -0,0 +1,55 @@
+package com.bi1kbu.pluginschedule.benchmark;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import run.halo.app.infra.utils.JsonUtils;
+
+/**
+ * 事件列表的 JSON 序列化，使用与 Halo 相同配置的 ObjectMapper。
+ * 输出写入只计数的流，不把 1M 规模的结果整体留在内存里。
+ */
+@State(Scope.Benchmark)
+public class EventJsonBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private final ObjectMapper mapper = JsonUtils.mapper();
+    private List<ScheduleEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = SyntheticData.events(size);
+    }
+
+    @Benchmark
+    public long serialize() throws IOException {
+        var sink = new CountingOutputStream();
+        mapper.writeValue(sink, events);
+        return sink.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.bi1kbu.pluginschedule.benchmark;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.ics.IcsText;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import run.halo.app.extension.Metadata;
+
+/**
+ * 基准测试用的合成数据，固定随机种子，同一规模每次生成的数据完全相同。
+ * <p>
+ * 事件分布在 {@link #RANGE_START} 起的三年内，混合 UTC 与 +08:00 写法、全天事件、
+ * 无结束时间事件和少量有限次数的每周重复系列，大致对应真实日历的构成。
+ */
+public final class SyntheticData {
+
+    public static final Instant RANGE_START = Instant.parse("2024-01-01T00:00:00Z");
+    public static final Duration RANGE = Duration.ofDays(3 * 365);
+    public static final String CALENDAR_NAME = "benchmark-calendar";
+
+    private static final long SEED = 20240101L;
+    private static final DateTimeFormatter OFFSET_FORMAT =
+        DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneOffset.ofHours(8));
+    private static final String[] ACTION_TYPES = {"create", "update", "delete", "import"};
+
+    private SyntheticData() {
+    }
+
+    public static List<ScheduleEvent> events(int size) {
+        var random = new SplittableRandom(SEED);
+        var events = new ArrayList<ScheduleEvent>(size);
+        for (int i = 0; i < size; i++) {
+            events.add(event(i, random));
+        }
+        return events;
+    }
+
+    public static List<ScheduleLog> logs(int size) {
+        var random = new SplittableRandom(SEED);
+        var logs = new ArrayList<ScheduleLog>(size);
+        long rangeSeconds = Duration.ofDays(365).toSeconds();
+        for (int i = 0; i < size; i++) {
+            var spec = new ScheduleLog.Spec();
+            spec.setActionType(ACTION_TYPES[random.nextInt(ACTION_TYPES.length)]);
+            spec.setOperator("user-" + random.nextInt(50));
+            spec.setActionAt(IcsText.SPEC_INSTANT.format(
+                RANGE_START.plusSeconds(random.nextLong(rangeSeconds))));
+            spec.setCalendarName(CALENDAR_NAME);
+            spec.setEventName("event-" + random.nextInt(size));
+            spec.setEventTitle("活动 " + random.nextInt(size));
+            spec.setKeyword("tag-" + random.nextInt(200));
+            spec.setSummary("修改了开始时间与地点，备注 " + i);
+            var log = new ScheduleLog();
+            log.setMetadata(metadataOf("log-" + i));
+            log.setSpec(spec);
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    private static ScheduleEvent event(int index, SplittableRandom random) {
+        Instant start = RANGE_START.plusSeconds(random.nextLong(RANGE.toSeconds()) / 60 * 60);
+        var spec = new ScheduleEvent.Spec();
+        spec.setCalendarName(CALENDAR_NAME);
+        spec.setTitle("活动 " + index);
+        spec.setSummary("第 " + index + " 场活动的简介");
+        spec.setStatus(random.nextInt(20) == 0 ? "cancelled" : "published");
+
+        int shape = random.nextInt(100);
+        if (shape < 20) {
+            spec.setAllDay(true);
+            spec.setTimezone("Asia/Shanghai");
+            spec.setStartAt(format(start, random));
+            spec.setEndAt(format(start.plus(Duration.ofDays(random.nextInt(3))), random));
+        } else if (shape < 30) {
+            spec.setStartAt(format(start, random));
+        } else {
+            spec.setStartAt(format(start, random));
+            spec.setEndAt(format(start.plus(Duration.ofMinutes(30L + random.nextInt(150))),
+                random));
+        }
+        if (shape == 99) {
+            var recurrence = new ScheduleEvent.Recurrence();
+            recurrence.setFrequency("weekly");
+            recurrence.setCount(12);
+            spec.setRecurrence(recurrence);
+        }
+
+        var event = new ScheduleEvent();
+        event.setMetadata(metadataOf("event-" + index));
+        event.setSpec(spec);
+        return event;
+    }
+
+    private static String format(Instant instant, SplittableRandom random) {
+        return random.nextInt(5) == 0 ? OFFSET_FORMAT.format(instant)
+            : IcsText.SPEC_INSTANT.format(instant);
+    }
+
+    private static Metadata metadataOf(String name) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        metadata.setVersion(1L);
+        metadata.setCreationTimestamp(RANGE_START);
+        return metadata;
+    }
+}
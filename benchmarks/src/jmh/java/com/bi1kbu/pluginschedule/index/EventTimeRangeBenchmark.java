@@ -0,0 +1,73 @@
+package com.bi1kbu.pluginschedule.index;
+
+import com.bi1kbu.pluginschedule.benchmark.SyntheticData;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 按时间窗口过滤事件：区间树查询、逐个判断重叠的线性扫描（两者结果一致），以及区间树的重建开销。
+ * 每次调用轮换使用预先生成的月视图窗口，避免总是命中同一段数据。
+ */
+@State(Scope.Benchmark)
+public class EventTimeRangeBenchmark {
+
+    private static final int WINDOW_COUNT = 64;
+    private static final long WINDOW_MILLIS = Duration.ofDays(42).toMillis();
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private List<ScheduleEvent> events;
+    private EventIntervalTree tree;
+    private final long[] windowStarts = new long[WINDOW_COUNT];
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = SyntheticData.events(size);
+        tree = EventIntervalTree.build(events);
+        var random = new SplittableRandom(size);
+        long rangeMillis = SyntheticData.RANGE.toMillis() - WINDOW_MILLIS;
+        for (int i = 0; i < WINDOW_COUNT; i++) {
+            windowStarts[i] = SyntheticData.RANGE_START.toEpochMilli()
+                + random.nextLong(rangeMillis);
+        }
+    }
+
+    @Benchmark
+    public List<ScheduleEvent> intervalTree() {
+        long from = nextWindow();
+        return tree.overlapping(from, from + WINDOW_MILLIS);
+    }
+
+    @Benchmark
+    public List<ScheduleEvent> linearScan() {
+        long from = nextWindow();
+        long to = from + WINDOW_MILLIS;
+        var result = new ArrayList<ScheduleEvent>();
+        for (ScheduleEvent event : events) {
+            if (ScheduleEventIndex.overlaps(event, from, to)) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public EventIntervalTree buildTree() {
+        return EventIntervalTree.build(events);
+    }
+
+    private long nextWindow() {
+        return windowStarts[cursor++ & (WINDOW_COUNT - 1)];
+    }
+}
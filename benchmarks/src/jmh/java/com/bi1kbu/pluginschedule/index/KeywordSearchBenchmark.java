@@ -0,0 +1,86 @@
+package com.bi1kbu.pluginschedule.index;
+
+import com.bi1kbu.pluginschedule.benchmark.SyntheticData;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 日志关键字检索：n-gram 倒排索引与逐条 contains 的线性扫描（两者结果一致）。
+ * 关键字覆盖单字（几乎命中全部日志，候选集最大）、短词与较长的词组。
+ */
+@State(Scope.Benchmark)
+public class KeywordSearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"改", "tag-42", "开始时间与地点", "备注 12345"})
+    String keyword;
+
+    private ScheduleLogKeywordIndex index;
+    private List<String> haystacks;
+    private String needle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ScheduleLog> logs = SyntheticData.logs(size);
+        index = new ScheduleLogKeywordIndex(listing(logs));
+        index.awaitReady().block();
+        haystacks = new ArrayList<>(logs.size());
+        for (ScheduleLog log : logs) {
+            var spec = log.getSpec();
+            haystacks.add(Stream.of(spec.getActionType(), spec.getOperator(),
+                    spec.getEventTitle(), spec.getSummary(), spec.getKeyword())
+                .filter(StringUtils::isNotBlank)
+                .map(value -> value.toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("\n")));
+        }
+        needle = keyword.toLowerCase(Locale.ROOT);
+    }
+
+    @Benchmark
+    public Set<String> invertedIndex() {
+        return index.search(keyword).block();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int matched = 0;
+        for (String haystack : haystacks) {
+            if (haystack.contains(needle)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 只实现 listAll 的客户端，供索引启动时全量加载合成日志。
+     */
+    private static ReactiveExtensionClient listing(List<ScheduleLog> logs) {
+        return (ReactiveExtensionClient) Proxy.newProxyInstance(
+            ReactiveExtensionClient.class.getClassLoader(),
+            new Class<?>[] {ReactiveExtensionClient.class},
+            (proxy, method, args) -> {
+                if ("listAll".equals(method.getName())) {
+                    return Flux.fromIterable(logs);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,37 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import com.bi1kbu.pluginschedule.benchmark.SyntheticData;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 全量重算日历统计（refresh-stats 与调和时使用的折叠过程）。
+ */
+@State(Scope.Benchmark)
+public class CalendarStatsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private List<ScheduleEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = SyntheticData.events(size);
+    }
+
+    @Benchmark
+    public CalendarStats accumulate() {
+        var accumulator = new CalendarStatsAccumulator();
+        for (ScheduleEvent event : events) {
+            accumulator.accept(event);
+        }
+        return accumulator.toStats();
+    }
+}
@@ -3,6 +3,12 @@ package com.bi1kbu.pluginschedule;
 import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
 import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
 import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.index.ScheduleLogKeywordIndex;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleLogRetentionJob;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleLogWriteBuffer;
 import java.util.Optional;
 import org.springframework.stereotype.Component;
 import run.halo.app.extension.Scheme;
@@ -15,10 +21,23 @@ import run.halo.app.plugin.PluginContext;
 public class PluginSchedulePlugin extends BasePlugin {
 
     private final SchemeManager schemeManager;
+    private final ScheduleEventIndex scheduleEventIndex;
+    private final ScheduleLogKeywordIndex scheduleLogKeywordIndex;
+    private final ScheduleLogWriteBuffer scheduleLogWriteBuffer;
+    private final ScheduleLogRetentionJob scheduleLogRetentionJob;
+    private final ScheduleMetrics scheduleMetrics;
 
-    public PluginSchedulePlugin(PluginContext pluginContext, SchemeManager schemeManager) {
+    public PluginSchedulePlugin(PluginContext pluginContext, SchemeManager schemeManager,
+        ScheduleEventIndex scheduleEventIndex, ScheduleLogKeywordIndex scheduleLogKeywordIndex,
+        ScheduleLogWriteBuffer scheduleLogWriteBuffer,
+        ScheduleLogRetentionJob scheduleLogRetentionJob, ScheduleMetrics scheduleMetrics) {
         super(pluginContext);
         this.schemeManager = schemeManager;
+        this.scheduleEventIndex = scheduleEventIndex;
+        this.scheduleLogKeywordIndex = scheduleLogKeywordIndex;
+        this.scheduleLogWriteBuffer = scheduleLogWriteBuffer;
+        this.scheduleLogRetentionJob = scheduleLogRetentionJob;
+        this.scheduleMetrics = scheduleMetrics;
     }
 
     @Override
@@ -39,6 +58,13 @@ public class PluginSchedulePlugin extends BasePlugin {
                 .indexFunc(event -> Optional.ofNullable(event.getSpec())
                     .map(ScheduleEvent.Spec::getStartAt)
                     .orElse(null)));
+            // 由 spec 直接换算，与返回结果中 status 的值一致；status 不写回存储
+            indexSpecs.add(IndexSpecs.<ScheduleEvent, Long>single("status.startAtEpochMillis",
+                    Long.class)
+                .indexFunc(event -> EventTimes.startOf(event.getSpec())));
+            indexSpecs.add(IndexSpecs.<ScheduleEvent, Long>single(
+                    "status.effectiveEndAtEpochMillis", Long.class)
+                .indexFunc(event -> EventTimes.effectiveEndOf(event.getSpec())));
             indexSpecs.add(IndexSpecs.<ScheduleEvent, String>single("spec.status", String.class)
                 .indexFunc(event -> Optional.ofNullable(event.getSpec())
                     .map(ScheduleEvent.Spec::getStatus)
@@ -63,10 +89,17 @@ public class PluginSchedulePlugin extends BasePlugin {
                     .map(ScheduleLog.Spec::getActionAt)
                     .orElse(null)));
         });
+
+        scheduleEventIndex.warmUp();
+        scheduleLogKeywordIndex.warmUp();
+        scheduleLogRetentionJob.start();
     }
 
     @Override
     public void stop() {
+        scheduleLogRetentionJob.stop();
+        scheduleLogWriteBuffer.flush();
+        scheduleMetrics.close();
         Scheme calendarScheme = schemeManager.get(ScheduleCalendar.class);
         Scheme eventScheme = schemeManager.get(ScheduleEvent.class);
         Scheme logScheme = schemeManager.get(ScheduleLog.class);
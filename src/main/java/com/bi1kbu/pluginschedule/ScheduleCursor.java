@@ -0,0 +1,75 @@
+package com.bi1kbu.pluginschedule;
+
+import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
+
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.apache.commons.lang3.StringUtils;
+import org.springdoc.core.fn.builders.operation.Builder;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * 游标分页的续读位置：上一页最后一条的排序键与 metadata.name。
+ * <p>
+ * 对外是不透明的 base64url 字符串；下一页从严格排在该位置之后的记录开始，
+ * 因此每页的代价与翻到多深无关，翻页期间新写入的记录也不会让后续页错位。
+ */
+public record ScheduleCursor(String key, String name) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 500;
+
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        byte[] bytes = (key + SEPARATOR + name).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 解析请求中的 cursor 参数，为空表示从第一页开始；格式不对时报 400。
+     */
+    @Nullable
+    public static ScheduleCursor decode(@Nullable String token) {
+        if (StringUtils.isBlank(token)) {
+            return null;
+        }
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException("cursor is invalid");
+        }
+        int separator = text.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == text.length() - 1) {
+            throw new ServerWebInputException("cursor is invalid");
+        }
+        return new ScheduleCursor(text.substring(0, separator), text.substring(separator + 1));
+    }
+
+    /**
+     * 游标分页的每页条数：未指定时取默认值，并限制在 {@link #MAX_SIZE} 以内。
+     */
+    public static int sizeOf(int requested) {
+        return requested <= 0 ? DEFAULT_SIZE : Math.min(requested, MAX_SIZE);
+    }
+
+    public static void buildParameters(Builder builder) {
+        builder.parameter(parameterBuilder()
+            .in(ParameterIn.QUERY)
+            .name("cursor")
+            .description("上一页返回的 nextCursor，为空时从第一页开始")
+            .implementation(String.class)
+            .required(false));
+    }
+
+    public long longKey() {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("cursor is invalid");
+        }
+    }
+}
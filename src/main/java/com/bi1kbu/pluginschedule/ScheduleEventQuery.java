@@ -2,15 +2,22 @@ package com.bi1kbu.pluginschedule;
 
 import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
 import static run.halo.app.extension.index.query.Queries.equal;
+import static run.halo.app.extension.index.query.Queries.greaterThanOrEqual;
+import static run.halo.app.extension.index.query.Queries.isNull;
+import static run.halo.app.extension.index.query.Queries.lessThanOrEqual;
 import static run.halo.app.extension.router.QueryParamBuildUtil.sortParameter;
 
+import com.bi1kbu.pluginschedule.index.EventTimes;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 import org.springdoc.core.fn.builders.operation.Builder;
+import org.springframework.data.domain.Sort;
 import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.router.IListRequest;
 import run.halo.app.extension.router.SortableRequest;
@@ -21,9 +28,13 @@ public class ScheduleEventQuery extends SortableRequest {
         super(exchange);
     }
 
+    /**
+     * 去掉首尾空白，保证查询条件、内存索引与查询缓存使用同一个日历名。
+     */
+    @Nullable
     @Schema(description = "按日历名称过滤")
     public String getCalendar() {
-        return queryParams.getFirst("calendar");
+        return StringUtils.trimToNull(queryParams.getFirst("calendar"));
     }
 
     @Nullable
@@ -44,21 +55,81 @@ public class ScheduleEventQuery extends SortableRequest {
         return queryParams.getFirst("status");
     }
 
+    /**
+     * 游标分页的续读位置，仅 -/scroll 路由使用，格式不对时报 400。
+     */
+    @Nullable
+    @Schema(description = "上一页返回的 nextCursor")
+    public ScheduleCursor getCursor() {
+        return ScheduleCursor.decode(queryParams.getFirst("cursor"));
+    }
+
+    /**
+     * from 换算为 UTC 毫秒；不带偏移的值按 UTC 解释，无法解析时报 400。
+     */
+    @Nullable
+    public Long getFromEpochMillis() {
+        return parseTime("from", getFrom());
+    }
+
+    @Nullable
+    public Long getToEpochMillis() {
+        return parseTime("to", getTo());
+    }
+
+    /**
+     * 是否带了 labelSelector 或 fieldSelector；内存索引不解析选择器，这类查询走存储。
+     */
+    public boolean hasSelectors() {
+        return !CollectionUtils.isEmpty(getLabelSelector())
+            || !CollectionUtils.isEmpty(getFieldSelector());
+    }
+
+    /**
+     * 把按 spec.startAt 的排序换成数值索引，保证不同偏移写法的时间也按真实先后排序。
+     */
+    public Sort getCanonicalSort() {
+        return Sort.by(getSort().stream()
+            .map(order -> "spec.startAt".equals(order.getProperty())
+                ? order.withProperty("status.startAtEpochMillis")
+                : order)
+            .toList());
+    }
+
     @Override
     public ListOptions toListOptions() {
-        var builder = ListOptions.builder(super.toListOptions());
+        var builder = ListOptions.builder(super.toListOptions())
+            .andQuery(isNull("metadata.deletionTimestamp"));
 
         Optional.ofNullable(getCalendar())
-            .filter(StringUtils::isNotBlank)
             .ifPresent(calendar -> builder.andQuery(equal("spec.calendarName", calendar)));
 
         Optional.ofNullable(getStatus())
             .filter(StringUtils::isNotBlank)
             .ifPresent(status -> builder.andQuery(equal("spec.status", status)));
 
+        Optional.ofNullable(getFromEpochMillis())
+            .ifPresent(from -> builder.andQuery(
+                greaterThanOrEqual("status.effectiveEndAtEpochMillis", from)));
+
+        Optional.ofNullable(getToEpochMillis())
+            .ifPresent(to -> builder.andQuery(lessThanOrEqual("status.startAtEpochMillis", to)));
+
         return builder.build();
     }
 
+    @Nullable
+    private static Long parseTime(String name, @Nullable String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        Long epochMillis = EventTimes.toEpochMillis(value, null);
+        if (epochMillis == null) {
+            throw new ServerWebInputException(name + " must be an ISO-8601 date or date-time");
+        }
+        return epochMillis;
+    }
+
     public static void buildParameters(Builder builder) {
         IListRequest.buildParameters(builder);
         builder.parameter(sortParameter())
@@ -2,15 +2,21 @@ package com.bi1kbu.pluginschedule;
 
 import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
 import static run.halo.app.extension.index.query.Queries.equal;
+import static run.halo.app.extension.index.query.Queries.greaterThanOrEqual;
+import static run.halo.app.extension.index.query.Queries.isNull;
+import static run.halo.app.extension.index.query.Queries.lessThan;
 import static run.halo.app.extension.router.QueryParamBuildUtil.sortParameter;
 
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 import org.springdoc.core.fn.builders.operation.Builder;
 import org.springframework.lang.Nullable;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.router.IListRequest;
 import run.halo.app.extension.router.SortableRequest;
@@ -51,18 +57,47 @@ public class ScheduleLogQuery extends SortableRequest {
         return queryParams.getFirst("toDate");
     }
 
+    /**
+     * 游标分页的续读位置，仅 -/scroll 路由使用，格式不对时报 400。
+     */
+    @Nullable
+    @Schema(description = "上一页返回的 nextCursor")
+    public ScheduleCursor getCursor() {
+        return ScheduleCursor.decode(queryParams.getFirst("cursor"));
+    }
+
     @Override
     public ListOptions toListOptions() {
-        var builder = ListOptions.builder(super.toListOptions());
+        var builder = ListOptions.builder(super.toListOptions())
+            .andQuery(isNull("metadata.deletionTimestamp"));
         Optional.ofNullable(getActionType())
             .filter(StringUtils::isNotBlank)
             .ifPresent(actionType -> builder.andQuery(equal("spec.actionType", actionType)));
         Optional.ofNullable(getOperator())
             .filter(StringUtils::isNotBlank)
             .ifPresent(operator -> builder.andQuery(equal("spec.operator", operator)));
+        // actionAt 为 UTC ISO-8601 字符串，按日期前缀比较即可落在索引上
+        Optional.ofNullable(getFromDate())
+            .filter(StringUtils::isNotBlank)
+            .map(fromDate -> parseDate("fromDate", fromDate))
+            .ifPresent(fromDate -> builder.andQuery(
+                greaterThanOrEqual("spec.actionAt", fromDate.toString())));
+        Optional.ofNullable(getToDate())
+            .filter(StringUtils::isNotBlank)
+            .map(toDate -> parseDate("toDate", toDate))
+            .ifPresent(toDate -> builder.andQuery(
+                lessThan("spec.actionAt", toDate.plusDays(1).toString())));
         return builder.build();
     }
 
+    private static LocalDate parseDate(String name, String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ServerWebInputException(name + " must be a date in YYYY-MM-DD format");
+        }
+    }
+
     public static void buildParameters(Builder builder) {
         IListRequest.buildParameters(builder);
         builder.parameter(sortParameter())
@@ -0,0 +1,76 @@
+package com.bi1kbu.pluginschedule.archive;
+
+import com.bi1kbu.pluginschedule.ScheduleLogQuery;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * 归档日志的过滤条件，语义与 {@link ScheduleLogQuery} 对线上日志的过滤一致。
+ */
+public record ArchiveFilter(@Nullable String actionType, @Nullable String operator,
+                            @Nullable String keyword, @Nullable String fromActionAt,
+                            @Nullable String toActionAtExclusive) {
+
+    public static ArchiveFilter of(ScheduleLogQuery query) {
+        String fromDate = StringUtils.trimToNull(query.getFromDate());
+        String toDate = StringUtils.trimToNull(query.getToDate());
+        return new ArchiveFilter(
+            StringUtils.trimToNull(query.getActionType()),
+            StringUtils.trimToNull(query.getOperator()),
+            StringUtils.isBlank(query.getKeyword())
+                ? null : query.getKeyword().trim().toLowerCase(Locale.ROOT),
+            fromDate == null ? null : LocalDate.parse(fromDate).toString(),
+            toDate == null ? null : LocalDate.parse(toDate).plusDays(1).toString());
+    }
+
+    /**
+     * 块的 actionAt 范围与查询日期范围是否可能相交，用于跳过整块解压。
+     */
+    boolean mayContain(String firstActionAt, String lastActionAt) {
+        if (fromActionAt != null && lastActionAt.compareTo(fromActionAt) < 0) {
+            return false;
+        }
+        return toActionAtExclusive == null || firstActionAt.compareTo(toActionAtExclusive) < 0;
+    }
+
+    /**
+     * 块内每条日志是否都必然匹配：只有日期条件且块的 actionAt 范围完全落在查询范围内。
+     */
+    boolean covers(String firstActionAt, String lastActionAt) {
+        if (actionType != null || operator != null || keyword != null) {
+            return false;
+        }
+        if (fromActionAt != null && firstActionAt.compareTo(fromActionAt) < 0) {
+            return false;
+        }
+        return toActionAtExclusive == null || lastActionAt.compareTo(toActionAtExclusive) < 0;
+    }
+
+    boolean matches(ScheduleLog log) {
+        var spec = log.getSpec();
+        if (spec == null || StringUtils.isBlank(spec.getActionAt())) {
+            return false;
+        }
+        String actionAt = spec.getActionAt();
+        if (fromActionAt != null && actionAt.compareTo(fromActionAt) < 0) {
+            return false;
+        }
+        if (toActionAtExclusive != null && actionAt.compareTo(toActionAtExclusive) >= 0) {
+            return false;
+        }
+        if (actionType != null && !actionType.equals(spec.getActionType())) {
+            return false;
+        }
+        if (operator != null && !operator.equals(spec.getOperator())) {
+            return false;
+        }
+        return keyword == null || Stream.of(spec.getActionType(), spec.getOperator(),
+                spec.getEventTitle(), spec.getSummary(), spec.getKeyword())
+            .filter(StringUtils::isNotBlank)
+            .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains(keyword));
+    }
+}
@@ -0,0 +1,192 @@
+package com.bi1kbu.pluginschedule.archive;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.lang.Nullable;
+
+/**
+ * 单个月份的归档段：只追加的压缩数据文件（.seg）加稀疏索引文件（.idx）。
+ * <p>
+ * .seg 由若干块组成，每块为 12 字节头（压缩长度、原始长度、条数）加 Deflate 压缩的
+ * 换行分隔 JSON；.idx 每行记录一块的偏移、压缩长度、条数与首末 actionAt。
+ * 先写数据并落盘再追加索引行，写到一半的块不会被读到。
+ */
+final class ArchiveSegment {
+
+    private static final int HEADER_BYTES = 12;
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final ObjectMapper mapper;
+    private final List<Block> blocks = new ArrayList<>();
+
+    private MappedByteBuffer mapped;
+    private long mappedSize = -1;
+
+    ArchiveSegment(Path directory, String month, ObjectMapper mapper) {
+        this.dataFile = directory.resolve("logs-" + month + ".seg");
+        this.indexFile = directory.resolve("logs-" + month + ".idx");
+        this.mapper = mapper;
+    }
+
+    synchronized List<Block> blocks() {
+        return List.copyOf(blocks);
+    }
+
+    synchronized long count() {
+        return blocks.stream().mapToLong(Block::count).sum();
+    }
+
+    synchronized void load() throws IOException {
+        blocks.clear();
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        long dataSize = Files.exists(dataFile) ? Files.size(dataFile) : 0;
+        for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+            Block block = Block.parse(line);
+            if (block != null && block.offset() + HEADER_BYTES + block.length() <= dataSize) {
+                blocks.add(block);
+            }
+        }
+    }
+
+    /**
+     * 追加一块，logs 须已按 actionAt 升序排列。
+     */
+    synchronized void append(List<ScheduleLog> logs) throws IOException {
+        var raw = new ByteArrayOutputStream();
+        for (ScheduleLog scheduleLog : logs) {
+            raw.write(mapper.writeValueAsBytes(scheduleLog));
+            raw.write('\n');
+        }
+        byte[] rawBytes = raw.toByteArray();
+        byte[] compressed = deflate(rawBytes);
+
+        long offset;
+        try (var channel = FileChannel.open(dataFile, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            offset = channel.size();
+            var buffer = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+            buffer.putInt(compressed.length).putInt(rawBytes.length).putInt(logs.size());
+            buffer.put(compressed).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        var block = new Block(offset, compressed.length, logs.size(),
+            logs.get(0).getSpec().getActionAt(),
+            logs.get(logs.size() - 1).getSpec().getActionAt());
+        Files.writeString(indexFile, block.format() + "\n", StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        blocks.add(block);
+    }
+
+    /**
+     * 通过内存映射读取并解压一块，按写入顺序返回。
+     */
+    List<ScheduleLog> read(Block block) throws IOException {
+        ByteBuffer view = mappedView().duplicate();
+        view.position((int) block.offset());
+        int compressedLength = view.getInt();
+        int rawLength = view.getInt();
+        view.getInt();
+        byte[] compressed = new byte[compressedLength];
+        view.get(compressed);
+        byte[] raw = inflate(compressed, rawLength);
+
+        List<ScheduleLog> logs = new ArrayList<>(block.count());
+        int start = 0;
+        for (int i = 0; i < raw.length; i++) {
+            if (raw[i] == '\n') {
+                logs.add(mapper.readValue(raw, start, i - start, ScheduleLog.class));
+                start = i + 1;
+            }
+        }
+        return Collections.unmodifiableList(logs);
+    }
+
+    private synchronized MappedByteBuffer mappedView() throws IOException {
+        long size = Files.size(dataFile);
+        if (mapped == null || mappedSize != size) {
+            try (var channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                mappedSize = size;
+            }
+        }
+        return mapped;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                read += inflater.inflate(raw, read, rawLength - read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupted archive block", e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    record Block(long offset, int length, int count, String firstActionAt,
+                 String lastActionAt) {
+
+        String format() {
+            return offset + "\t" + length + "\t" + count + "\t" + firstActionAt + "\t"
+                + lastActionAt;
+        }
+
+        @Nullable
+        static Block parse(String line) {
+            String[] parts = line.split("\t");
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Block(Long.parseLong(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]), parts[3], parts[4]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.bi1kbu.pluginschedule.archive;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import run.halo.app.infra.utils.JsonUtils;
+
+/**
+ * 历史日志归档：按月份写入工作目录下的压缩段文件，并支持按查询条件倒序分页读取。
+ * <p>
+ * 由日志保留任务在删除前写入；归档内容只追加，不会修改。
+ * <p>
+ * 保留任务按 (actionAt, name) 升序逐批写入并删除，某批删除失败时下次运行会重新写入同一批日志。
+ * 因此记下最近一次写入的日志名并落盘，再次写入时跳过这些日志，避免归档出现重复。
+ */
+@Slf4j
+@Component
+public class ScheduleLogArchive {
+
+    static final int BLOCK_SIZE = 256;
+    private static final String LAST_APPENDED_FILE = "last-append.names";
+
+    private final Path directory;
+    private final ObjectMapper mapper = JsonUtils.mapper();
+    private final Map<String, ArchiveSegment> segments = new ConcurrentSkipListMap<>();
+
+    private volatile boolean loaded;
+    private volatile Set<String> lastAppended = Set.of();
+
+    public ScheduleLogArchive(Environment environment) {
+        String workDir = environment.getProperty("halo.work-dir",
+            Paths.get(System.getProperty("user.home"), ".halo2").toString());
+        this.directory = Paths.get(workDir, "plugin-schedule", "log-archive");
+    }
+
+    /**
+     * 归档中是否没有任何日志。首次调用需要列出并读取段索引文件，放在 boundedElastic 上执行，
+     * 之后只读内存中的块头。
+     */
+    public Mono<Boolean> isEmpty() {
+        if (loaded) {
+            return Mono.fromSupplier(this::hasNoLogs);
+        }
+        return Mono.fromCallable(() -> {
+            ensureLoaded();
+            return hasNoLogs();
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private boolean hasNoLogs() {
+        return segments.values().stream().allMatch(segment -> segment.count() == 0);
+    }
+
+    /**
+     * 追加一批日志，按月份分段、按 actionAt 升序写入；上一次已写入的日志会被跳过。
+     */
+    public Mono<Void> append(List<ScheduleLog> logs) {
+        return Mono.<Void>fromRunnable(() -> {
+            ensureLoaded();
+            Set<String> skipped = lastAppended;
+            Map<String, List<ScheduleLog>> byMonth = logs.stream()
+                .filter(scheduleLog -> scheduleLog.getSpec() != null
+                    && StringUtils.length(scheduleLog.getSpec().getActionAt()) >= 7)
+                .filter(scheduleLog -> !skipped.contains(nameOf(scheduleLog)))
+                .sorted(Comparator.comparing(scheduleLog -> scheduleLog.getSpec().getActionAt()))
+                .collect(Collectors.groupingBy(
+                    scheduleLog -> scheduleLog.getSpec().getActionAt().substring(0, 7),
+                    TreeMap::new, Collectors.toList()));
+            try {
+                Files.createDirectories(directory);
+                for (var entry : byMonth.entrySet()) {
+                    var segment = segments.computeIfAbsent(entry.getKey(),
+                        month -> new ArchiveSegment(directory, month, mapper));
+                    List<ScheduleLog> monthLogs = entry.getValue();
+                    for (int i = 0; i < monthLogs.size(); i += BLOCK_SIZE) {
+                        segment.append(monthLogs.subList(i,
+                            Math.min(i + BLOCK_SIZE, monthLogs.size())));
+                    }
+                }
+                // 数据落盘后再记录，记录失败最多导致重复，不会漏写
+                rememberAppended(logs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 删除失败后重跑的批次一定包含上一批未删除的日志（它们仍是最早的），
+     * 所以只需记住最近一批的全部日志名。
+     */
+    private synchronized void rememberAppended(List<ScheduleLog> logs) throws IOException {
+        Set<String> names = logs.stream()
+            .map(ScheduleLogArchive::nameOf)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Path file = directory.resolve(LAST_APPENDED_FILE);
+        Path temp = directory.resolve(LAST_APPENDED_FILE + ".tmp");
+        Files.write(temp, names, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        lastAppended = Set.copyOf(names);
+    }
+
+    @Nullable
+    private static String nameOf(ScheduleLog scheduleLog) {
+        return scheduleLog.getMetadata() == null ? null : scheduleLog.getMetadata().getName();
+    }
+
+    /**
+     * 按 actionAt 倒序跳过 offset 条后取至多 limit 条，同时返回匹配总数。
+     * <p>
+     * 总数的求法与 {@link #count} 相同：整块匹配的块累加块头条数，只解压范围两端或带其他条件的块；
+     * 整块匹配的块只有与请求的页相交时才解压，取满 limit 条后不再为取数据解压。
+     */
+    public Mono<ArchivePage> find(ArchiveFilter filter, long offset, int limit) {
+        return Mono.fromCallable(() -> {
+            ensureLoaded();
+            List<ScheduleLog> items = new ArrayList<>();
+            long total = 0;
+            List<ArchiveSegment> newestFirst = new ArrayList<>(segments.values());
+            for (int s = newestFirst.size() - 1; s >= 0; s--) {
+                ArchiveSegment segment = newestFirst.get(s);
+                List<ArchiveSegment.Block> blocks = segment.blocks();
+                for (int b = blocks.size() - 1; b >= 0; b--) {
+                    var block = blocks.get(b);
+                    if (!filter.mayContain(block.firstActionAt(), block.lastActionAt())) {
+                        continue;
+                    }
+                    if (filter.covers(block.firstActionAt(), block.lastActionAt())) {
+                        if (items.size() < limit && total + block.count() > offset) {
+                            List<ScheduleLog> logs = segment.read(block);
+                            long skip = Math.max(0, offset - total);
+                            for (int i = logs.size() - 1 - (int) skip;
+                                 i >= 0 && items.size() < limit; i--) {
+                                items.add(logs.get(i));
+                            }
+                        }
+                        total += block.count();
+                        continue;
+                    }
+                    List<ScheduleLog> logs = segment.read(block);
+                    for (int i = logs.size() - 1; i >= 0; i--) {
+                        ScheduleLog scheduleLog = logs.get(i);
+                        if (!filter.matches(scheduleLog)) {
+                            continue;
+                        }
+                        if (total >= offset && items.size() < limit) {
+                            items.add(scheduleLog);
+                        }
+                        total++;
+                    }
+                }
+            }
+            return new ArchivePage(total, items);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 匹配条数。只按日期过滤时，整块落在日期范围内的块直接累加块头记录的条数，
+     * 只需解压范围两端的块；带其他条件时逐条判断。
+     */
+    public Mono<Long> count(ArchiveFilter filter) {
+        return Mono.fromCallable(() -> {
+            ensureLoaded();
+            long total = 0;
+            for (ArchiveSegment segment : segments.values()) {
+                for (ArchiveSegment.Block block : segment.blocks()) {
+                    if (!filter.mayContain(block.firstActionAt(), block.lastActionAt())) {
+                        continue;
+                    }
+                    if (filter.covers(block.firstActionAt(), block.lastActionAt())) {
+                        total += block.count();
+                        continue;
+                    }
+                    total += segment.read(block).stream().filter(filter::matches).count();
+                }
+            }
+            return total;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            if (Files.isDirectory(directory)) {
+                try (Stream<Path> files = Files.list(directory)) {
+                    files.map(path -> path.getFileName().toString())
+                        .filter(name -> name.startsWith("logs-") && name.endsWith(".idx"))
+                        .map(name -> name.substring("logs-".length(), name.length() - 4))
+                        .forEach(month -> segments.put(month,
+                            new ArchiveSegment(directory, month, mapper)));
+                    for (ArchiveSegment segment : segments.values()) {
+                        segment.load();
+                    }
+                    Path lastAppendedFile = directory.resolve(LAST_APPENDED_FILE);
+                    if (Files.exists(lastAppendedFile)) {
+                        lastAppended = Set.copyOf(
+                            Files.readAllLines(lastAppendedFile, StandardCharsets.UTF_8));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            log.debug("Loaded {} schedule log archive segments from {}", segments.size(),
+                directory);
+            loaded = true;
+        }
+    }
+
+    public record ArchivePage(long total, List<ScheduleLog> items) {
+    }
+}
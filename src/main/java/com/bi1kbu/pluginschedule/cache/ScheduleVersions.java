@@ -0,0 +1,149 @@
+package com.bi1kbu.pluginschedule.cache;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.index.ScheduleEventListener;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 维护每个日历的数据版本，用于生成强 ETag。
+ * <p>
+ * 事件部分由各事件 metadata.name 与 resourceVersion 的异或指纹组成，增删改均为 O(1)；
+ * 日历与关联文章的变更通过进程内计数器体现，并带上启动标识，重启后旧 ETag 自然失效。
+ * 同时记录每个日历最后一次变化的时间作为 Last-Modified，不早于启动时间。
+ */
+@Component
+public class ScheduleVersions implements ScheduleEventListener {
+
+    private final String bootId = UUID.randomUUID().toString();
+    private final Instant bootedAt = now();
+    private final ScheduleEventIndex scheduleEventIndex;
+
+    private final Map<String, EventFingerprint> eventFingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Long> calendarGenerations = new ConcurrentHashMap<>();
+    private final AtomicLong calendarsGeneration = new AtomicLong();
+    private final AtomicLong postsGeneration = new AtomicLong();
+    private final Map<String, Instant> calendarModifiedAt = new ConcurrentHashMap<>();
+    private volatile Instant postsModifiedAt;
+
+    public ScheduleVersions(ScheduleEventIndex scheduleEventIndex) {
+        this.scheduleEventIndex = scheduleEventIndex;
+    }
+
+    @Override
+    public void onEventChanged(@Nullable ScheduleEvent previous, @Nullable ScheduleEvent current) {
+        if (previous != null) {
+            calendarOf(previous).ifPresent(calendar -> {
+                eventFingerprints.compute(calendar,
+                    (key, fingerprint) -> orEmpty(fingerprint).remove(previous));
+                touch(calendar);
+            });
+        }
+        if (current != null) {
+            calendarOf(current).ifPresent(calendar -> {
+                eventFingerprints.compute(calendar,
+                    (key, fingerprint) -> orEmpty(fingerprint).add(current));
+                touch(calendar);
+            });
+        }
+    }
+
+    public void calendarChanged(String calendarName) {
+        calendarGenerations.merge(calendarName, 1L, Long::sum);
+        calendarsGeneration.incrementAndGet();
+        touch(calendarName);
+    }
+
+    public void postChanged() {
+        postsGeneration.incrementAndGet();
+        postsModifiedAt = now();
+    }
+
+    /**
+     * 日历的事件、日历本身或关联文章最后一次变化的时间（秒级），与 {@link #eventsEtag} 同步变化。
+     * 只记录本次启动以来观察到的变化，因此不早于启动时间，重启后不会给出比实际更早的时间。
+     */
+    public Instant lastModified(String calendarName) {
+        Instant modifiedAt = calendarModifiedAt.getOrDefault(calendarName, bootedAt);
+        Instant posts = postsModifiedAt;
+        return posts != null && posts.isAfter(modifiedAt) ? posts : modifiedAt;
+    }
+
+    /**
+     * 单个日历事件查询的 ETag，事件索引尚未加载完成时返回空。
+     */
+    public Optional<String> eventsEtag(String calendarName, String discriminator) {
+        if (!scheduleEventIndex.isReady()) {
+            return Optional.empty();
+        }
+        var fingerprint = orEmpty(eventFingerprints.get(calendarName));
+        return Optional.of(etag("events", calendarName,
+            calendarGenerations.getOrDefault(calendarName, 0L),
+            Long.toHexString(fingerprint.hash()),
+            fingerprint.count(),
+            postsGeneration.get(),
+            discriminator));
+    }
+
+    public String calendarsEtag(String discriminator) {
+        return etag("calendars", calendarsGeneration.get(), discriminator);
+    }
+
+    private void touch(String calendarName) {
+        Instant changedAt = now();
+        calendarModifiedAt.merge(calendarName, changedAt,
+            (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private String etag(Object... parts) {
+        var joined = new StringBuilder(bootId);
+        for (Object part : parts) {
+            joined.append(':').append(part);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(joined.toString().getBytes(StandardCharsets.UTF_8))
+            + "\"";
+    }
+
+    private static EventFingerprint orEmpty(@Nullable EventFingerprint fingerprint) {
+        return fingerprint == null ? EventFingerprint.EMPTY : fingerprint;
+    }
+
+    private Optional<String> calendarOf(ScheduleEvent event) {
+        return Optional.ofNullable(event.getSpec())
+            .map(ScheduleEvent.Spec::getCalendarName)
+            .map(StringUtils::trimToNull);
+    }
+
+    private record EventFingerprint(long hash, int count) {
+        static final EventFingerprint EMPTY = new EventFingerprint(0L, 0);
+
+        EventFingerprint add(ScheduleEvent event) {
+            return new EventFingerprint(hash ^ termOf(event), count + 1);
+        }
+
+        EventFingerprint remove(ScheduleEvent event) {
+            return new EventFingerprint(hash ^ termOf(event), Math.max(0, count - 1));
+        }
+
+        private static long termOf(ScheduleEvent event) {
+            var metadata = event.getMetadata();
+            return Objects.hash(metadata.getName(), metadata.getVersion()) * 0x9E3779B97F4A7C15L;
+        }
+    }
+}
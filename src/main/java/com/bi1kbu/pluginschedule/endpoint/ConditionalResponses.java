@@ -0,0 +1,79 @@
+package com.bi1kbu.pluginschedule.endpoint;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * 条件 GET 支持：命中 If-None-Match 时直接返回 304，不再访问存储。
+ */
+final class ConditionalResponses {
+
+    static final CacheControl REVALIDATE = CacheControl.maxAge(Duration.ZERO)
+        .cachePublic()
+        .mustRevalidate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * 以路径与排序后的查询参数区分同一版本下的不同响应体。
+     */
+    static String discriminator(ServerRequest request) {
+        Map<String, Object> params = new TreeMap<>(request.queryParams());
+        return request.path() + "?" + params;
+    }
+
+    static <T> Mono<ServerResponse> respond(ServerRequest request, Optional<String> etag,
+        Supplier<Mono<T>> body) {
+        if (etag.isEmpty()) {
+            return body.get().flatMap(value -> ServerResponse.ok().bodyValue(value));
+        }
+        String tag = etag.get();
+        if (matches(request, tag)) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                .eTag(tag)
+                .cacheControl(REVALIDATE)
+                .build();
+        }
+        return body.get().flatMap(value -> ServerResponse.ok()
+            .eTag(tag)
+            .cacheControl(REVALIDATE)
+            .bodyValue(value));
+    }
+
+    /**
+     * 优先按 If-None-Match 判断；未携带时再比较 If-Modified-Since（秒级精度）。
+     */
+    static boolean notModified(ServerRequest request, String etag, Instant lastModified) {
+        if (!request.headers().header(HttpHeaders.IF_NONE_MATCH).isEmpty()) {
+            return matches(request, etag);
+        }
+        long since = request.headers().asHttpHeaders().getIfModifiedSince();
+        return since >= 0 && lastModified.getEpochSecond() <= since / 1000;
+    }
+
+    private static boolean matches(ServerRequest request, String etag) {
+        for (String header : request.headers().header(HttpHeaders.IF_NONE_MATCH)) {
+            for (String candidate : header.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if ("*".equals(value) || etag.equals(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,16 +1,36 @@
 package com.bi1kbu.pluginschedule.endpoint;
 
 import static org.springdoc.core.fn.builders.apiresponse.Builder.responseBuilder;
+import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
 import static org.springdoc.webflux.core.fn.SpringdocRouteBuilder.route;
 
 import com.bi1kbu.pluginschedule.ScheduleCalendarQuery;
+import com.bi1kbu.pluginschedule.cache.ScheduleVersions;
 import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
 import com.bi1kbu.pluginschedule.service.ScheduleCalendarService;
+import com.bi1kbu.pluginschedule.service.ScheduleFeedService;
+import com.bi1kbu.pluginschedule.service.ScheduleImportService;
+import com.bi1kbu.pluginschedule.vo.CalendarCatalogItem;
+import com.bi1kbu.pluginschedule.vo.CalendarMonthDensity;
+import com.bi1kbu.pluginschedule.vo.ScheduleImportResult;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 import run.halo.app.core.extension.endpoint.CustomEndpoint;
 import run.halo.app.extension.GroupVersion;
@@ -20,7 +40,14 @@ import run.halo.app.extension.ListResult;
 @RequiredArgsConstructor
 public class ScheduleCalendarEndpoint implements CustomEndpoint {
 
+    private static final MediaType TEXT_CALENDAR =
+        new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
     private final ScheduleCalendarService scheduleCalendarService;
+    private final ScheduleVersions scheduleVersions;
+    private final ScheduleImportService scheduleImportService;
+    private final ScheduleFeedService scheduleFeedService;
+    private final ScheduleMetrics scheduleMetrics;
 
     @Override
     public RouterFunction<ServerResponse> endpoint() {
@@ -34,12 +61,92 @@ public class ScheduleCalendarEndpoint implements CustomEndpoint {
                         ListResult.generateGenericClass(ScheduleCalendar.class)));
                 ScheduleCalendarQuery.buildParameters(builder);
             })
+            .GET("schedulecalendars/-/catalog", this::listPublicCatalog, builder -> {
+                builder.operationId("ListPublicScheduleCalendarCatalog")
+                    .description("List visible schedule calendars with compact fields")
+                    .tag(tag)
+                    .response(responseBuilder().implementationArray(CalendarCatalogItem.class));
+            })
+            .GET("schedulecalendars/{name}", this::getCalendar, builder -> {
+                builder.operationId("GetScheduleCalendar")
+                    .description("Get schedule calendar by name")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("name")
+                        .in(ParameterIn.PATH)
+                        .description("Calendar metadata name")
+                        .required(true)
+                        .implementation(String.class))
+                    .response(responseBuilder().implementation(ScheduleCalendar.class));
+            })
+            .GET("schedulecalendars/{name}/feed.ics", this::getFeed, builder -> {
+                builder.operationId("GetScheduleCalendarFeed")
+                    .description("Subscribe to a visible calendar as an iCalendar feed; "
+                        + "supports If-None-Match and If-Modified-Since")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("name")
+                        .in(ParameterIn.PATH)
+                        .description("Calendar metadata name")
+                        .required(true)
+                        .implementation(String.class))
+                    .response(responseBuilder().implementation(String.class));
+            })
+            .GET("schedulecalendars/{name}/density", this::getMonthDensity, builder -> {
+                builder.operationId("GetScheduleCalendarMonthDensity")
+                    .description("Get per-month event counts of a calendar and the nearest "
+                        + "non-empty months before and after the range")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("name")
+                        .in(ParameterIn.PATH)
+                        .description("Calendar metadata name")
+                        .required(true)
+                        .implementation(String.class))
+                    .parameter(parameterBuilder()
+                        .name("from")
+                        .in(ParameterIn.QUERY)
+                        .description("First month (YYYY-MM), unbounded when omitted")
+                        .required(false)
+                        .implementation(String.class))
+                    .parameter(parameterBuilder()
+                        .name("to")
+                        .in(ParameterIn.QUERY)
+                        .description("Last month (YYYY-MM), unbounded when omitted")
+                        .required(false)
+                        .implementation(String.class))
+                    .parameter(parameterBuilder()
+                        .name("days")
+                        .in(ParameterIn.QUERY)
+                        .description("Include a per-day occupancy bitmask for each month")
+                        .required(false)
+                        .implementation(Boolean.class))
+                    .response(responseBuilder().implementation(CalendarMonthDensity.class));
+            })
+            // 统计平时由 CalendarStatsTracker 增量维护；保留全量重算入口，供增量状态存疑时
+            // （如插件升级前写入的旧统计、写回失败被放弃）由管理员手动修复
             .POST("schedulecalendars/{name}/refresh-stats", this::refreshCalendarStats, builder -> {
                 builder.operationId("RefreshScheduleCalendarStats")
-                    .description("Refresh schedule calendar statistics")
+                    .description("Rescan all events of the calendar and rewrite its statistics. "
+                        + "Statistics are normally maintained incrementally; this is a manual "
+                        + "repair for when the stored values are suspected to be stale")
                     .tag(tag)
                     .response(responseBuilder().implementation(ScheduleCalendar.class));
             })
+            .POST("schedulecalendars/{name}/import", this::importIcs, builder -> {
+                builder.operationId("ImportScheduleCalendarIcs")
+                    .description("Import VEVENTs from an iCalendar (.ics) request body; "
+                        + "events are matched by UID so re-importing updates them in place")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("name")
+                        .in(ParameterIn.PATH)
+                        .description("Calendar metadata name")
+                        .required(true)
+                        .implementation(String.class))
+                    .response(responseBuilder().implementation(ScheduleImportResult.class));
+            })
+            .filter(scheduleMetrics.requestTimer())
             .build();
     }
 
@@ -50,8 +157,78 @@ public class ScheduleCalendarEndpoint implements CustomEndpoint {
 
     private Mono<ServerResponse> listCalendars(ServerRequest request) {
         ScheduleCalendarQuery query = new ScheduleCalendarQuery(request.exchange());
-        return scheduleCalendarService.listCalendars(query)
-            .flatMap(calendars -> ServerResponse.ok().bodyValue(calendars));
+        return ConditionalResponses.respond(request, calendarsEtag(request),
+            () -> scheduleCalendarService.listCalendars(query));
+    }
+
+    private Mono<ServerResponse> getCalendar(ServerRequest request) {
+        String name = request.pathVariable("name");
+        return ConditionalResponses.respond(request, calendarsEtag(request),
+                () -> scheduleCalendarService.getCalendar(name))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private Mono<ServerResponse> listPublicCatalog(ServerRequest request) {
+        return ConditionalResponses.respond(request, calendarsEtag(request),
+            scheduleCalendarService::listPublicCatalog);
+    }
+
+    private Optional<String> calendarsEtag(ServerRequest request) {
+        return Optional.of(
+            scheduleVersions.calendarsEtag(ConditionalResponses.discriminator(request)));
+    }
+
+    private Mono<ServerResponse> getFeed(ServerRequest request) {
+        String name = request.pathVariable("name");
+        return scheduleFeedService.getFeed(name)
+            .flatMap(feed -> {
+                if (feed.etag() == null) {
+                    return ServerResponse.ok()
+                        .contentType(TEXT_CALENDAR)
+                        .body(BodyInserters.fromDataBuffers(feed.body()));
+                }
+                if (ConditionalResponses.notModified(request, feed.etag(), feed.lastModified())) {
+                    return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(feed.etag())
+                        .lastModified(feed.lastModified())
+                        .cacheControl(ConditionalResponses.REVALIDATE)
+                        .build();
+                }
+                return ServerResponse.ok()
+                    .contentType(TEXT_CALENDAR)
+                    .eTag(feed.etag())
+                    .lastModified(feed.lastModified())
+                    .cacheControl(ConditionalResponses.REVALIDATE)
+                    .body(BodyInserters.fromDataBuffers(feed.body()));
+            })
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private Mono<ServerResponse> getMonthDensity(ServerRequest request) {
+        String name = request.pathVariable("name");
+        YearMonth from = parseMonth("from", request.queryParam("from").orElse(null));
+        YearMonth to = parseMonth("to", request.queryParam("to").orElse(null));
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ServerWebInputException("from must not be after to");
+        }
+        boolean days = request.queryParam("days").map(Boolean::parseBoolean).orElse(false);
+        Optional<String> etag = scheduleVersions.eventsEtag(name.trim(),
+            ConditionalResponses.discriminator(request));
+        return ConditionalResponses.respond(request, etag,
+                () -> scheduleCalendarService.getMonthDensity(name, from, to, days))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    @Nullable
+    private static YearMonth parseMonth(String name, @Nullable String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ServerWebInputException(name + " must be a month in YYYY-MM format");
+        }
     }
 
     private Mono<ServerResponse> refreshCalendarStats(ServerRequest request) {
@@ -60,4 +237,11 @@ public class ScheduleCalendarEndpoint implements CustomEndpoint {
             .flatMap(calendar -> ServerResponse.ok().bodyValue(calendar))
             .switchIfEmpty(ServerResponse.notFound().build());
     }
+
+    private Mono<ServerResponse> importIcs(ServerRequest request) {
+        String name = request.pathVariable("name");
+        return scheduleImportService.importIcs(name, request.bodyToFlux(DataBuffer.class))
+            .flatMap(result -> ServerResponse.ok().bodyValue(result))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
 }
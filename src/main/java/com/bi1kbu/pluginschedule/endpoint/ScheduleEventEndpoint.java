@@ -4,10 +4,19 @@ import static org.springdoc.core.fn.builders.apiresponse.Builder.responseBuilder
 import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
 import static org.springdoc.webflux.core.fn.SpringdocRouteBuilder.route;
 
+import com.bi1kbu.pluginschedule.ScheduleCursor;
 import com.bi1kbu.pluginschedule.ScheduleEventQuery;
+import com.bi1kbu.pluginschedule.cache.ScheduleVersions;
 import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
 import com.bi1kbu.pluginschedule.service.ScheduleEventService;
+import com.bi1kbu.pluginschedule.service.impl.RelatedPostSnapshotCache;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleEventQueryCache;
+import com.bi1kbu.pluginschedule.vo.QueryCacheStats;
+import com.bi1kbu.pluginschedule.vo.ScheduleCount;
+import com.bi1kbu.pluginschedule.vo.ScheduleScrollResult;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
@@ -15,7 +24,6 @@ import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ServerWebInputException;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import run.halo.app.core.extension.endpoint.CustomEndpoint;
 import run.halo.app.extension.GroupVersion;
@@ -26,6 +34,10 @@ import run.halo.app.extension.ListResult;
 public class ScheduleEventEndpoint implements CustomEndpoint {
 
     private final ScheduleEventService scheduleEventService;
+    private final RelatedPostSnapshotCache relatedPostSnapshotCache;
+    private final ScheduleVersions scheduleVersions;
+    private final ScheduleEventQueryCache scheduleEventQueryCache;
+    private final ScheduleMetrics scheduleMetrics;
 
     @Override
     public RouterFunction<ServerResponse> endpoint() {
@@ -33,7 +45,10 @@ public class ScheduleEventEndpoint implements CustomEndpoint {
         return route()
             .GET("scheduleevents", this::listEvents, builder -> {
                 builder.operationId("ListScheduleEvents")
-                    .description("List schedule events")
+                    .description("List schedule events. With calendar and from/to and no "
+                        + "selectors, recurring series are expanded into occurrences before "
+                        + "sorting; otherwise stored events are returned and series are not "
+                        + "expanded")
                     .tag(tag)
                     .response(responseBuilder().implementation(
                         ListResult.generateGenericClass(ScheduleEvent.class)));
@@ -64,6 +79,32 @@ public class ScheduleEventEndpoint implements CustomEndpoint {
                     .response(responseBuilder().implementation(
                         ListResult.generateGenericClass(ScheduleEvent.class)));
             })
+            .GET("scheduleevents/-/scroll", this::scrollEvents, builder -> {
+                builder.operationId("ScrollScheduleEvents")
+                    .description("List schedule events with a continuation cursor, ordered by "
+                        + "start time and name; page and sort are ignored")
+                    .tag(tag)
+                    .response(responseBuilder().implementation(ScheduleScrollResult.class));
+                ScheduleEventQuery.buildParameters(builder);
+                ScheduleCursor.buildParameters(builder);
+            })
+            .GET("scheduleevents/-/count", this::countEvents, builder -> {
+                builder.operationId("CountScheduleEvents")
+                    .description("Count stored schedule events matching the same filters as "
+                        + "the list endpoint. A recurring series counts once; with from/to it "
+                        + "counts when at least one occurrence falls in the window. Answered "
+                        + "from in-memory counters and indexes")
+                    .tag(tag)
+                    .response(responseBuilder().implementation(ScheduleCount.class));
+                ScheduleEventQuery.buildParameters(builder);
+            })
+            .GET("scheduleevents/-/cache-stats", this::getCacheStats, builder -> {
+                builder.operationId("GetScheduleEventQueryCacheStats")
+                    .description("Get hit/miss/eviction counters of the event query cache")
+                    .tag(tag)
+                    .response(responseBuilder().implementation(QueryCacheStats.class));
+            })
+            .filter(scheduleMetrics.requestTimer())
             .build();
     }
 
@@ -73,17 +114,13 @@ public class ScheduleEventEndpoint implements CustomEndpoint {
     }
 
     private Mono<ServerResponse> listEvents(ServerRequest request) {
-        String from = request.queryParam("from").orElse("");
-        String to = request.queryParam("to").orElse("");
         ScheduleEventQuery query = new ScheduleEventQuery(request.exchange());
-        return scheduleEventService.listEvents(query)
-            .flatMap(events -> Flux.fromStream(events.get())
-                .filter(this::notDeleting)
-                .filter(event -> inTimeRange(event, from, to))
-                .collectList()
-                .flatMap(items -> ServerResponse.ok().bodyValue(
-                    new ListResult<>(events.getPage(), events.getSize(), (long) items.size(), items)
-                )));
+        requireTimeRange(query);
+        Optional<String> etag = Optional.ofNullable(query.getCalendar())
+            .flatMap(calendar -> scheduleVersions.eventsEtag(calendar,
+                ConditionalResponses.discriminator(request)));
+        return ConditionalResponses.respond(request, etag,
+            () -> scheduleEventService.listEvents(query).flatMap(this::fillPermalinks));
     }
 
     private Mono<ServerResponse> listUpcoming(ServerRequest request) {
@@ -96,35 +133,47 @@ public class ScheduleEventEndpoint implements CustomEndpoint {
         }
 
         ScheduleEventQuery query = new ScheduleEventQuery(request.exchange());
-        return scheduleEventService.listEvents(query)
-            .flatMap(events -> Flux.fromStream(events.get())
-                .filter(this::notDeleting)
-                .filter(event -> inTimeRange(event, from, to))
-                .collectList()
-                .flatMap(items -> ServerResponse.ok().bodyValue(
-                    new ListResult<>(events.getPage(), events.getSize(), (long) items.size(), items)
-                )));
+        requireTimeRange(query);
+        Optional<String> etag = scheduleVersions.eventsEtag(calendar.trim(),
+            ConditionalResponses.discriminator(request));
+        return ConditionalResponses.respond(request, etag,
+            () -> scheduleEventService.listEvents(query).flatMap(this::fillPermalinks));
     }
 
-    private boolean notDeleting(ScheduleEvent event) {
-        return event.getMetadata() == null || event.getMetadata().getDeletionTimestamp() == null;
+    private Mono<ServerResponse> scrollEvents(ServerRequest request) {
+        ScheduleEventQuery query = new ScheduleEventQuery(request.exchange());
+        requireTimeRange(query);
+        return scheduleEventService.scrollEvents(query)
+            .flatMap(result -> relatedPostSnapshotCache.fillPermalinks(result.items())
+                .map(items -> new ScheduleScrollResult<>(items, result.nextCursor())))
+            .flatMap(result -> ServerResponse.ok().bodyValue(result));
     }
 
-    private boolean inTimeRange(ScheduleEvent event, String from, String to) {
-        String startAt = event.getSpec() != null ? event.getSpec().getStartAt() : null;
-        if (StringUtils.isBlank(startAt)) {
-            return false;
-        }
+    private Mono<ServerResponse> countEvents(ServerRequest request) {
+        ScheduleEventQuery query = new ScheduleEventQuery(request.exchange());
+        requireTimeRange(query);
+        Optional<String> etag = Optional.ofNullable(query.getCalendar())
+            .flatMap(calendar -> scheduleVersions.eventsEtag(calendar,
+                ConditionalResponses.discriminator(request)));
+        return ConditionalResponses.respond(request, etag,
+            () -> scheduleEventService.countEvents(query).map(ScheduleCount::new));
+    }
 
-        String endAt = event.getSpec() != null ? event.getSpec().getEndAt() : null;
-        String effectiveEndAt = StringUtils.isNotBlank(endAt) ? endAt : startAt;
+    /**
+     * 在命中缓存或生成 ETag 之前校验 from/to，无法解析时直接返回 400。
+     */
+    private static void requireTimeRange(ScheduleEventQuery query) {
+        query.getFromEpochMillis();
+        query.getToEpochMillis();
+    }
 
-        if (StringUtils.isNotBlank(from) && effectiveEndAt.compareTo(from) < 0) {
-            return false;
-        }
-        if (StringUtils.isNotBlank(to) && startAt.compareTo(to) > 0) {
-            return false;
-        }
-        return true;
+    private Mono<ServerResponse> getCacheStats(ServerRequest request) {
+        return ServerResponse.ok().bodyValue(scheduleEventQueryCache.stats());
+    }
+
+    private Mono<ListResult<ScheduleEvent>> fillPermalinks(ListResult<ScheduleEvent> events) {
+        return relatedPostSnapshotCache.fillPermalinks(events.getItems())
+            .map(items -> new ListResult<>(events.getPage(), events.getSize(), events.getTotal(),
+                items));
     }
 }
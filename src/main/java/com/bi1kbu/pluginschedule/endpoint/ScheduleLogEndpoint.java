@@ -3,15 +3,22 @@ package com.bi1kbu.pluginschedule.endpoint;
 import static org.springdoc.core.fn.builders.apiresponse.Builder.responseBuilder;
 import static org.springdoc.webflux.core.fn.SpringdocRouteBuilder.route;
 
+import com.bi1kbu.pluginschedule.ScheduleCursor;
 import com.bi1kbu.pluginschedule.ScheduleLogQuery;
 import com.bi1kbu.pluginschedule.extension.ScheduleLog;
 import com.bi1kbu.pluginschedule.extension.ScheduleLog.ChangeDetail;
+import com.bi1kbu.pluginschedule.ics.IcsText;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
 import com.bi1kbu.pluginschedule.service.ScheduleLogService;
+import com.bi1kbu.pluginschedule.vo.ScheduleCount;
+import com.bi1kbu.pluginschedule.vo.ScheduleLogBatchResult;
+import com.bi1kbu.pluginschedule.vo.ScheduleScrollResult;
 import java.security.Principal;
 import java.time.Instant;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -29,7 +36,10 @@ import run.halo.app.extension.Metadata;
 public class ScheduleLogEndpoint implements CustomEndpoint {
 
     private static final String DEFAULT_OPERATOR = "unknown";
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int BATCH_CONCURRENCY = 8;
     private final ScheduleLogService scheduleLogService;
+    private final ScheduleMetrics scheduleMetrics;
 
     @Override
     public RouterFunction<ServerResponse> endpoint() {
@@ -43,6 +53,23 @@ public class ScheduleLogEndpoint implements CustomEndpoint {
                         ListResult.generateGenericClass(ScheduleLog.class)));
                 ScheduleLogQuery.buildParameters(builder);
             })
+            .GET("schedulelogs/-/scroll", this::scrollLogs, builder -> {
+                builder.operationId("ScrollScheduleLogs")
+                    .description("List live schedule logs with a continuation cursor, newest "
+                        + "first; page and sort are ignored and archived logs are not included")
+                    .tag(tag)
+                    .response(responseBuilder().implementation(ScheduleScrollResult.class));
+                ScheduleLogQuery.buildParameters(builder);
+                ScheduleCursor.buildParameters(builder);
+            })
+            .GET("schedulelogs/-/count", this::countLogs, builder -> {
+                builder.operationId("CountScheduleLogs")
+                    .description("Count schedule logs matching the same filters as the list "
+                        + "endpoint without loading live logs")
+                    .tag(tag)
+                    .response(responseBuilder().implementation(ScheduleCount.class));
+                ScheduleLogQuery.buildParameters(builder);
+            })
             .POST("schedulelogs", this::recordLog, builder -> builder
                 .operationId("CreateScheduleLog")
                 .description("Create schedule log")
@@ -53,6 +80,12 @@ public class ScheduleLogEndpoint implements CustomEndpoint {
                 .description("Record schedule log")
                 .tag(tag)
                 .response(responseBuilder().implementation(ScheduleLog.class)))
+            .POST("schedulelogs/batch", this::recordLogs, builder -> builder
+                .operationId("RecordScheduleLogs")
+                .description("Record schedule logs in batch with per-item results")
+                .tag(tag)
+                .response(responseBuilder().implementation(ScheduleLogBatchResult.class)))
+            .filter(scheduleMetrics.requestTimer())
             .build();
     }
 
@@ -64,34 +97,89 @@ public class ScheduleLogEndpoint implements CustomEndpoint {
     private Mono<ServerResponse> listLogs(ServerRequest request) {
         ScheduleLogQuery query = new ScheduleLogQuery(request.exchange());
         return scheduleLogService.listLogs(query)
-            .flatMap(logs -> Flux.fromStream(logs.get())
-                .filter(this::notDeleting)
-                .filter(log -> keywordMatches(log, query.getKeyword()))
-                .filter(log -> dateMatches(log, query.getFromDate(), query.getToDate()))
-                .collectList()
-                .flatMap(items -> ServerResponse.ok().bodyValue(
-                    new ListResult<>(logs.getPage(), logs.getSize(), (long) items.size(), items)
-                )));
+            .flatMap(logs -> ServerResponse.ok().bodyValue(logs));
+    }
+
+    private Mono<ServerResponse> scrollLogs(ServerRequest request) {
+        ScheduleLogQuery query = new ScheduleLogQuery(request.exchange());
+        return scheduleLogService.scrollLogs(query)
+            .flatMap(result -> ServerResponse.ok().bodyValue(result));
+    }
+
+    private Mono<ServerResponse> countLogs(ServerRequest request) {
+        ScheduleLogQuery query = new ScheduleLogQuery(request.exchange());
+        return scheduleLogService.countLogs(query)
+            .flatMap(total -> ServerResponse.ok().bodyValue(new ScheduleCount(total)));
     }
 
     private Mono<ServerResponse> recordLog(ServerRequest request) {
         return request.bodyToMono(RecordLogRequest.class)
             .switchIfEmpty(Mono.error(new ServerWebInputException("request body is required")))
-            .flatMap(body -> validateBody(body)
-                .flatMap(validBody -> request.principal()
+            .flatMap(this::validateBody)
+            .flatMap(body -> request.principal()
+                .map(Principal::getName)
+                .defaultIfEmpty(DEFAULT_OPERATOR)
+                .map(operator -> toLog(body, operator)))
+            .flatMap(log -> scheduleLogService.submitLog(log)
+                .flatMap(created -> ServerResponse.ok().bodyValue(created))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.accepted().bodyValue(log))));
+    }
+
+    private Mono<ServerResponse> recordLogs(ServerRequest request) {
+        // 多读一条即可判断是否超限，不必先把超大的请求体整个读进内存
+        return request.bodyToFlux(RecordLogRequest.class)
+            .take(MAX_BATCH_SIZE + 1)
+            .collectList()
+            .flatMap(bodies -> {
+                if (bodies.isEmpty()) {
+                    return Mono.error(
+                        new ServerWebInputException("request body must be a non-empty array"));
+                }
+                if (bodies.size() > MAX_BATCH_SIZE) {
+                    return Mono.error(new ServerWebInputException(
+                        "at most " + MAX_BATCH_SIZE + " logs are allowed per batch"));
+                }
+                return request.principal()
                     .map(Principal::getName)
                     .defaultIfEmpty(DEFAULT_OPERATOR)
-                    .flatMap(operator -> scheduleLogService.recordLog(toLog(validBody, operator)))))
-            .flatMap(created -> ServerResponse.ok().bodyValue(created));
+                    .flatMap(operator -> Flux.range(0, bodies.size())
+                        .flatMapSequential(index -> recordBatchItem(index, bodies.get(index),
+                            operator), BATCH_CONCURRENCY)
+                        .collectList());
+            })
+            .flatMap(items -> ServerResponse.ok().bodyValue(ScheduleLogBatchResult.of(items)));
+    }
+
+    private Mono<ScheduleLogBatchResult.Item> recordBatchItem(int index, RecordLogRequest body,
+        String operator) {
+        String error = validationError(body);
+        if (error != null) {
+            return Mono.just(new ScheduleLogBatchResult.Item(index, "invalid", null, error));
+        }
+        return scheduleLogService.submitLog(toLog(body, operator))
+            .map(created -> new ScheduleLogBatchResult.Item(index, "created",
+                created.getMetadata().getName(), null))
+            .defaultIfEmpty(new ScheduleLogBatchResult.Item(index, "queued", null, null))
+            .onErrorResume(e -> Mono.just(
+                new ScheduleLogBatchResult.Item(index, "failed", null, e.getMessage())));
     }
 
     private Mono<RecordLogRequest> validateBody(RecordLogRequest body) {
-        if (StringUtils.isBlank(body.actionType)) {
-            return Mono.error(new ServerWebInputException("actionType must not be blank"));
+        String error = validationError(body);
+        if (error != null) {
+            return Mono.error(new ServerWebInputException(error));
         }
         return Mono.just(body);
     }
 
+    @Nullable
+    private String validationError(@Nullable RecordLogRequest body) {
+        if (body == null || StringUtils.isBlank(body.actionType)) {
+            return "actionType must not be blank";
+        }
+        return null;
+    }
+
     private ScheduleLog toLog(RecordLogRequest body, String operator) {
         var log = new ScheduleLog();
         var metadata = new Metadata();
@@ -100,7 +188,8 @@ public class ScheduleLogEndpoint implements CustomEndpoint {
         var spec = new ScheduleLog.Spec();
         spec.setActionType(StringUtils.trimToEmpty(body.actionType));
         spec.setOperator(StringUtils.defaultIfBlank(operator, DEFAULT_OPERATOR));
-        spec.setActionAt(Instant.now().toString());
+        // 毫秒精度的定长格式，按 spec.actionAt 字符串排序即按时间先后
+        spec.setActionAt(IcsText.SPEC_INSTANT.format(Instant.now()));
         spec.setCalendarName(StringUtils.trimToNull(body.calendarName));
         spec.setEventName(StringUtils.trimToNull(body.eventName));
         spec.setEventTitle(StringUtils.trimToNull(body.eventTitle));
@@ -128,65 +217,6 @@ public class ScheduleLogEndpoint implements CustomEndpoint {
             .toList();
     }
 
-    private boolean notDeleting(ScheduleLog log) {
-        return log.getMetadata() == null || log.getMetadata().getDeletionTimestamp() == null;
-    }
-
-    private boolean keywordMatches(ScheduleLog log, String keyword) {
-        if (StringUtils.isBlank(keyword)) {
-            return true;
-        }
-        String lowerKeyword = keyword.trim().toLowerCase();
-        String actionType = getValue(log, ValueType.ACTION_TYPE);
-        String operator = getValue(log, ValueType.OPERATOR);
-        String eventTitle = getValue(log, ValueType.EVENT_TITLE);
-        String summary = getValue(log, ValueType.SUMMARY);
-        String snapshotKeyword = getValue(log, ValueType.KEYWORD);
-        return contains(lowerKeyword, actionType)
-            || contains(lowerKeyword, operator)
-            || contains(lowerKeyword, eventTitle)
-            || contains(lowerKeyword, summary)
-            || contains(lowerKeyword, snapshotKeyword);
-    }
-
-    private boolean dateMatches(ScheduleLog log, String fromDate, String toDate) {
-        String actionAt = getValue(log, ValueType.ACTION_AT);
-        if (StringUtils.isBlank(actionAt) || actionAt.length() < 10) {
-            return StringUtils.isAllBlank(fromDate, toDate);
-        }
-        String dateKey = actionAt.substring(0, 10);
-        if (StringUtils.isNotBlank(fromDate) && dateKey.compareTo(fromDate) < 0) {
-            return false;
-        }
-        if (StringUtils.isNotBlank(toDate) && dateKey.compareTo(toDate) > 0) {
-            return false;
-        }
-        return true;
-    }
-
-    private boolean contains(String keyword, String value) {
-        return StringUtils.isNotBlank(value) && value.toLowerCase().contains(keyword);
-    }
-
-    private String getValue(ScheduleLog log, ValueType type) {
-        if (log == null || log.getSpec() == null) {
-            return "";
-        }
-        var spec = log.getSpec();
-        return switch (type) {
-            case ACTION_TYPE -> StringUtils.defaultString(spec.getActionType());
-            case OPERATOR -> StringUtils.defaultString(spec.getOperator());
-            case ACTION_AT -> StringUtils.defaultString(spec.getActionAt());
-            case EVENT_TITLE -> StringUtils.defaultString(spec.getEventTitle());
-            case SUMMARY -> StringUtils.defaultString(spec.getSummary());
-            case KEYWORD -> StringUtils.defaultString(spec.getKeyword());
-        };
-    }
-
-    private enum ValueType {
-        ACTION_TYPE, OPERATOR, ACTION_AT, EVENT_TITLE, SUMMARY, KEYWORD
-    }
-
     private static class RecordLogRequest {
         private String actionType;
         private String calendarName;
@@ -0,0 +1,117 @@
+package com.bi1kbu.pluginschedule.endpoint;
+
+import static org.springdoc.core.fn.builders.apiresponse.Builder.responseBuilder;
+import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
+import static org.springdoc.webflux.core.fn.SpringdocRouteBuilder.route;
+
+import com.bi1kbu.pluginschedule.cache.ScheduleVersions;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import com.bi1kbu.pluginschedule.service.ScheduleViewService;
+import com.bi1kbu.pluginschedule.vo.ScheduleViewBundle;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.endpoint.CustomEndpoint;
+import run.halo.app.extension.GroupVersion;
+
+@Component
+@RequiredArgsConstructor
+public class ScheduleViewEndpoint implements CustomEndpoint {
+
+    private final ScheduleViewService scheduleViewService;
+    private final ScheduleVersions scheduleVersions;
+
+    @Override
+    public RouterFunction<ServerResponse> endpoint() {
+        final var tag = "api.schedule.bi1kbu.com/v1alpha1/Schedule";
+        return route()
+            .GET("scheduleviews/{calendar}", this::getView, builder -> {
+                builder.operationId("GetScheduleView")
+                    .description("Get calendar meta, window events and upcoming events in one response")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("calendar")
+                        .in(ParameterIn.PATH)
+                        .description("Calendar metadata name")
+                        .required(true)
+                        .implementation(String.class))
+                    .parameter(parameterBuilder()
+                        .name("from")
+                        .in(ParameterIn.QUERY)
+                        .description("Grid window start date-time in ISO-8601")
+                        .required(true)
+                        .implementation(String.class))
+                    .parameter(parameterBuilder()
+                        .name("to")
+                        .in(ParameterIn.QUERY)
+                        .description("Grid window end date-time in ISO-8601")
+                        .required(true)
+                        .implementation(String.class))
+                    .parameter(parameterBuilder()
+                        .name("upcomingFrom")
+                        .in(ParameterIn.QUERY)
+                        .description("Upcoming start date-time in ISO-8601")
+                        .required(true)
+                        .implementation(String.class))
+                    .parameter(parameterBuilder()
+                        .name("upcomingTo")
+                        .in(ParameterIn.QUERY)
+                        .description("Fallback upcoming end date-time when the calendar has no range")
+                        .required(false)
+                        .implementation(String.class))
+                    .response(responseBuilder().implementation(ScheduleViewBundle.class));
+            })
+            .build();
+    }
+
+    @Override
+    public GroupVersion groupVersion() {
+        return GroupVersion.parseAPIVersion("api.schedule.bi1kbu.com/v1alpha1");
+    }
+
+    private Mono<ServerResponse> getView(ServerRequest request) {
+        String calendar = request.pathVariable("calendar");
+        String from = request.queryParam("from").orElse("");
+        String to = request.queryParam("to").orElse("");
+        String upcomingFrom = request.queryParam("upcomingFrom").orElse("");
+        String upcomingTo = request.queryParam("upcomingTo").orElse(null);
+
+        if (StringUtils.isAnyBlank(from, to, upcomingFrom)) {
+            throw new ServerWebInputException("from/to/upcomingFrom must not be blank");
+        }
+        requireInstant("upcomingFrom", upcomingFrom);
+        requireTime("from", from);
+        requireTime("to", to);
+        if (StringUtils.isNotBlank(upcomingTo)) {
+            requireTime("upcomingTo", upcomingTo);
+        }
+
+        var etag = scheduleVersions.eventsEtag(calendar,
+            ConditionalResponses.discriminator(request));
+        return ConditionalResponses.respond(request, etag,
+                () -> scheduleViewService.getView(calendar, from, to, upcomingFrom, upcomingTo))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private void requireTime(String name, String value) {
+        if (EventTimes.toEpochMillis(value, null) == null) {
+            throw new ServerWebInputException(name + " must be an ISO-8601 date or date-time");
+        }
+    }
+
+    private void requireInstant(String name, String value) {
+        try {
+            Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ServerWebInputException(name + " must be an ISO-8601 instant");
+        }
+    }
+}
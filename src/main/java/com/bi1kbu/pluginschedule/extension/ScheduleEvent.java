@@ -2,7 +2,9 @@ package com.bi1kbu.pluginschedule.extension;
 
 import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
 import run.halo.app.core.extension.attachment.Constant;
 import run.halo.app.extension.AbstractExtension;
 import run.halo.app.extension.GVK;
@@ -16,6 +18,9 @@ public class ScheduleEvent extends AbstractExtension {
     @Schema(requiredMode = REQUIRED)
     private Spec spec;
 
+    @Schema
+    private Status status;
+
     public Spec getSpec() {
         return spec;
     }
@@ -24,6 +29,22 @@ public class ScheduleEvent extends AbstractExtension {
         this.spec = spec;
     }
 
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @JsonIgnore
+    public Status getStatusOrDefault() {
+        if (status == null) {
+            status = new Status();
+        }
+        return status;
+    }
+
     public static class Spec {
         @Schema(requiredMode = REQUIRED, description = "所属日历名称")
         private String calendarName;
@@ -67,6 +88,9 @@ public class ScheduleEvent extends AbstractExtension {
         @Schema(description = "强制不突出显示，和 forceHighlight 互斥")
         private Boolean forceHideHighlight;
 
+        @Schema(description = "重复规则，为空表示单次事件")
+        private Recurrence recurrence;
+
         public String getCalendarName() {
             return calendarName;
         }
@@ -178,5 +202,114 @@ public class ScheduleEvent extends AbstractExtension {
         public void setForceHideHighlight(Boolean forceHideHighlight) {
             this.forceHideHighlight = forceHideHighlight;
         }
+
+        public Recurrence getRecurrence() {
+            return recurrence;
+        }
+
+        public void setRecurrence(Recurrence recurrence) {
+            this.recurrence = recurrence;
+        }
+    }
+
+    /**
+     * 根据 spec 计算的规范化时间，统一为 UTC 毫秒时间戳；只在返回结果时填充，不写回存储。
+     */
+    public static class Status {
+        @Schema(description = "开始时间的 UTC 毫秒时间戳")
+        private Long startAtEpochMillis;
+
+        @Schema(description = "有效结束时间的 UTC 毫秒时间戳：缺省结束时间时取开始时间，"
+            + "重复系列取最后一次的结束时间")
+        private Long effectiveEndAtEpochMillis;
+
+        public Long getStartAtEpochMillis() {
+            return startAtEpochMillis;
+        }
+
+        public void setStartAtEpochMillis(Long startAtEpochMillis) {
+            this.startAtEpochMillis = startAtEpochMillis;
+        }
+
+        public Long getEffectiveEndAtEpochMillis() {
+            return effectiveEndAtEpochMillis;
+        }
+
+        public void setEffectiveEndAtEpochMillis(Long effectiveEndAtEpochMillis) {
+            this.effectiveEndAtEpochMillis = effectiveEndAtEpochMillis;
+        }
+    }
+
+    /**
+     * 类似 RRULE 的重复规则，按 spec.timezone 的本地时间推算，startAt/endAt 为第一次的时间。
+     */
+    public static class Recurrence {
+        @Schema(requiredMode = REQUIRED, description = "频率: daily/weekly/monthly/yearly",
+            example = "weekly")
+        private String frequency;
+
+        @Schema(description = "间隔，默认 1", example = "1")
+        private Integer interval;
+
+        @Schema(description = "每周重复的星期（MO/TU/WE/TH/FR/SA/SU），仅 weekly 有效，"
+            + "为空时取开始日期的星期")
+        private List<String> byDay;
+
+        @Schema(description = "重复次数（含被排除的日期），与 until 同时设置时取先到者")
+        private Integer count;
+
+        @Schema(description = "重复截止时间，ISO-8601，含当次")
+        private String until;
+
+        @Schema(description = "排除的单次开始时间，ISO-8601")
+        private List<String> exceptDates;
+
+        public String getFrequency() {
+            return frequency;
+        }
+
+        public void setFrequency(String frequency) {
+            this.frequency = frequency;
+        }
+
+        public Integer getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Integer interval) {
+            this.interval = interval;
+        }
+
+        public List<String> getByDay() {
+            return byDay;
+        }
+
+        public void setByDay(List<String> byDay) {
+            this.byDay = byDay;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public String getUntil() {
+            return until;
+        }
+
+        public void setUntil(String until) {
+            this.until = until;
+        }
+
+        public List<String> getExceptDates() {
+            return exceptDates;
+        }
+
+        public void setExceptDates(List<String> exceptDates) {
+            this.exceptDates = exceptDates;
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.bi1kbu.pluginschedule.ics;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.time.Instant;
+import org.springframework.lang.Nullable;
+
+/**
+ * 从 VEVENT 解析出的事件，时间均已换算为 UTC。
+ *
+ * @param end 全天事件为最后一天（含），非全天事件为结束时刻；缺省时为空
+ * @param recurrence 由 RRULE/EXDATE 映射的重复规则，不是重复系列时为空
+ * @param overriddenStart RECURRENCE-ID 对应的原实例开始时间，只有单个实例的修改才有
+ */
+public record IcsEvent(String uid, @Nullable String recurrenceId, @Nullable String title,
+                       @Nullable String description, @Nullable String status, Instant start,
+                       @Nullable Instant end, boolean allDay, @Nullable String timezone,
+                       @Nullable ScheduleEvent.Recurrence recurrence,
+                       @Nullable Instant overriddenStart) {
+
+    /**
+     * 去重键：同一 UID 的不同重复实例以 RECURRENCE-ID 区分。
+     */
+    public String key() {
+        return recurrenceId == null ? uid : uid + "\n" + recurrenceId;
+    }
+}
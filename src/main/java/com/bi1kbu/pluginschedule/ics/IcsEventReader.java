@@ -0,0 +1,327 @@
+package com.bi1kbu.pluginschedule.ics;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * 逐行解析 iCalendar 文本，输出其中的 VEVENT。
+ * <p>
+ * 只保留当前折叠行与当前事件的属性，内存占用与文件大小无关；VALARM 等嵌套组件会被跳过。
+ * RRULE/EXDATE 映射为重复规则，无法表示的重复规则按无法解析的事件跳过。
+ */
+public final class IcsEventReader {
+
+    private static final String END_OF_INPUT = "\u0000END-OF-INPUT";
+    private static final Set<String> SUPPORTED_FREQUENCIES =
+        Set.of("DAILY", "WEEKLY", "MONTHLY", "YEARLY");
+    private static final Set<String> WEEKDAYS = Set.of("MO", "TU", "WE", "TH", "FR", "SA", "SU");
+
+    private final Runnable onSkipped;
+    private final StringBuilder pending = new StringBuilder();
+    private ZoneId calendarZone = ZoneOffset.UTC;
+    private Map<String, Property> current;
+    private final List<Property> exceptDates = new ArrayList<>();
+    private int nestedDepth;
+
+    private IcsEventReader(Runnable onSkipped) {
+        this.onSkipped = onSkipped;
+    }
+
+    /**
+     * 把按行切分的文本流转换为事件流，无法解析的事件会被跳过并计入 onSkipped。
+     */
+    public static Flux<IcsEvent> read(Flux<String> lines, Runnable onSkipped) {
+        return Flux.defer(() -> {
+            var reader = new IcsEventReader(onSkipped);
+            return lines.concatWithValues(END_OF_INPUT).handle(reader::accept);
+        });
+    }
+
+    private void accept(String line, SynchronousSink<IcsEvent> sink) {
+        if (END_OF_INPUT.equals(line)) {
+            flush(sink);
+            return;
+        }
+        String text = StringUtils.removeEnd(line, "\r");
+        if (!text.isEmpty() && (text.charAt(0) == ' ' || text.charAt(0) == '\t')) {
+            pending.append(text, 1, text.length());
+            return;
+        }
+        flush(sink);
+        pending.append(text);
+    }
+
+    private void flush(SynchronousSink<IcsEvent> sink) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Property property = Property.parse(pending.toString());
+        pending.setLength(0);
+        if (property != null) {
+            handle(property, sink);
+        }
+    }
+
+    private void handle(Property property, SynchronousSink<IcsEvent> sink) {
+        String name = property.name();
+        if ("BEGIN".equals(name)) {
+            if (current != null) {
+                nestedDepth++;
+            } else if ("VEVENT".equalsIgnoreCase(property.value())) {
+                current = new HashMap<>();
+                exceptDates.clear();
+            }
+            return;
+        }
+        if ("END".equals(name)) {
+            if (nestedDepth > 0) {
+                nestedDepth--;
+            } else if (current != null && "VEVENT".equalsIgnoreCase(property.value())) {
+                IcsEvent event = toEvent(current);
+                if (event != null) {
+                    sink.next(event);
+                } else {
+                    onSkipped.run();
+                }
+                current = null;
+            }
+            return;
+        }
+        if (current == null) {
+            if ("X-WR-TIMEZONE".equals(name)) {
+                calendarZone = IcsText.zoneOf(property.value(), ZoneOffset.UTC);
+            }
+            return;
+        }
+        if (nestedDepth == 0) {
+            // EXDATE 可以出现多次，其余属性只取第一次出现的值
+            if ("EXDATE".equals(name)) {
+                exceptDates.add(property);
+            } else {
+                current.putIfAbsent(name, property);
+            }
+        }
+    }
+
+    /**
+     * 缺少 UID/DTSTART、日期无法解析或重复规则无法表示时返回 null，由调用方计为跳过，
+     * 避免把重复事件导入成单次事件。
+     */
+    @Nullable
+    private IcsEvent toEvent(Map<String, Property> properties) {
+        Property uid = properties.get("UID");
+        Property start = properties.get("DTSTART");
+        if (uid == null || StringUtils.isBlank(uid.value()) || start == null) {
+            return null;
+        }
+        try {
+            boolean allDay = start.isDateOnly();
+            Instant startAt = start.toInstant(calendarZone);
+            Instant endAt = endOf(properties, startAt, allDay);
+            Property recurrenceId = properties.get("RECURRENCE-ID");
+            Property rrule = properties.get("RRULE");
+            // 单个实例的修改本身不重复
+            ScheduleEvent.Recurrence recurrence = rrule == null || recurrenceId != null ? null
+                : recurrenceOf(rrule.value(), start);
+            return new IcsEvent(uid.value().trim(),
+                recurrenceId == null ? null : recurrenceId.value().trim(),
+                textOf(properties.get("SUMMARY")),
+                textOf(properties.get("DESCRIPTION")),
+                textOf(properties.get("STATUS")),
+                startAt,
+                endAt,
+                allDay,
+                timezoneOf(start, recurrence != null),
+                recurrence,
+                recurrenceId == null ? null : recurrenceId.toInstant(calendarZone));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 重复系列按时区的本地时间推算：DTSTART 为浮动时间时沿用日历的 X-WR-TIMEZONE，
+     * 否则夏令时切换后的实例会偏移一小时。
+     */
+    @Nullable
+    private String timezoneOf(Property start, boolean recurring) {
+        String tzid = start.param("TZID");
+        if (tzid != null || !recurring || start.isDateOnly() || start.value().trim().endsWith("Z")
+            || ZoneOffset.UTC.equals(calendarZone)) {
+            return tzid;
+        }
+        return calendarZone.getId();
+    }
+
+    /**
+     * 把 RRULE 与 EXDATE 映射为 {@link ScheduleEvent.Recurrence}。只支持 FREQ 为
+     * DAILY/WEEKLY/MONTHLY/YEARLY，以及 INTERVAL、COUNT、UNTIL、WKST 与 WEEKLY 下不带序号的 BYDAY；
+     * 其余写法（如 BYMONTHDAY、BYSETPOS、按月的 1MO）无法等价表示，抛出 IllegalArgumentException。
+     */
+    private ScheduleEvent.Recurrence recurrenceOf(String value, Property start) {
+        var recurrence = new ScheduleEvent.Recurrence();
+        for (String part : value.trim().split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Invalid RRULE part: " + part);
+            }
+            String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String partValue = part.substring(eq + 1).trim();
+            switch (key) {
+                case "FREQ" -> {
+                    String frequency = partValue.toUpperCase(Locale.ROOT);
+                    if (!SUPPORTED_FREQUENCIES.contains(frequency)) {
+                        throw new IllegalArgumentException("Unsupported FREQ: " + partValue);
+                    }
+                    recurrence.setFrequency(frequency.toLowerCase(Locale.ROOT));
+                }
+                case "INTERVAL" -> recurrence.setInterval(positiveInt(partValue));
+                case "COUNT" -> recurrence.setCount(positiveInt(partValue));
+                case "UNTIL" -> recurrence.setUntil(IcsText.SPEC_INSTANT.format(untilOf(partValue,
+                    start)));
+                case "BYDAY" -> recurrence.setByDay(byDayOf(partValue));
+                case "WKST" -> {
+                    // 按周重复固定以周一为一周的开始
+                }
+                default -> throw new IllegalArgumentException("Unsupported RRULE part: " + key);
+            }
+        }
+        if (recurrence.getFrequency() == null) {
+            throw new IllegalArgumentException("RRULE without FREQ");
+        }
+        if (recurrence.getByDay() != null && !"weekly".equals(recurrence.getFrequency())) {
+            throw new IllegalArgumentException("BYDAY is only supported for FREQ=WEEKLY");
+        }
+        List<String> excluded = new ArrayList<>();
+        for (Property exdate : exceptDates) {
+            for (String item : exdate.value().split(",")) {
+                if (StringUtils.isNotBlank(item)) {
+                    boolean dateOnly = "DATE".equalsIgnoreCase(exdate.param("VALUE"));
+                    excluded.add(IcsText.SPEC_INSTANT.format(IcsText.parseDateTime(item,
+                        exdate.param("TZID"), calendarZone, dateOnly)));
+                }
+            }
+        }
+        if (!excluded.isEmpty()) {
+            recurrence.setExceptDates(excluded.stream().distinct().sorted().toList());
+        }
+        return recurrence;
+    }
+
+    /**
+     * UNTIL 含当次；定时事件的 UNTIL 只有日期时取系列时区当天结束，避免漏掉当天晚于零点的实例。
+     */
+    private Instant untilOf(String value, Property start) {
+        boolean dateOnly = value.trim().length() == 8;
+        Instant until = IcsText.parseDateTime(value, start.param("TZID"), calendarZone, dateOnly);
+        if (!dateOnly || start.isDateOnly()) {
+            return until;
+        }
+        ZoneId zone = start.value().trim().endsWith("Z")
+            ? ZoneOffset.UTC : IcsText.zoneOf(start.param("TZID"), calendarZone);
+        return until.atZone(ZoneOffset.UTC).toLocalDate().plusDays(1).atStartOfDay(zone)
+            .toInstant().minusMillis(1);
+    }
+
+    private static List<String> byDayOf(String value) {
+        List<String> days = new ArrayList<>();
+        for (String day : value.split(",")) {
+            String code = day.trim().toUpperCase(Locale.ROOT);
+            if (!WEEKDAYS.contains(code)) {
+                throw new IllegalArgumentException("Unsupported BYDAY: " + day);
+            }
+            days.add(code);
+        }
+        return days;
+    }
+
+    private static int positiveInt(String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // 与其他非法值一样按无法解析处理
+        }
+        throw new IllegalArgumentException("Invalid RRULE number: " + value);
+    }
+
+    @Nullable
+    private Instant endOf(Map<String, Property> properties, Instant startAt, boolean allDay) {
+        Property end = properties.get("DTEND");
+        if (end == null) {
+            return null;
+        }
+        Instant endAt = end.toInstant(calendarZone);
+        if (allDay || end.isDateOnly()) {
+            // DTEND 的日期不含在内，换算为最后一天的开始
+            Instant lastDay = endAt.minus(1, ChronoUnit.DAYS);
+            return lastDay.isBefore(startAt) ? null : lastDay;
+        }
+        return endAt.isBefore(startAt) ? null : endAt;
+    }
+
+    @Nullable
+    private static String textOf(@Nullable Property property) {
+        return property == null ? null : StringUtils.trimToNull(IcsText.unescape(property.value()));
+    }
+
+    record Property(String name, Map<String, String> params, String value) {
+
+        @Nullable
+        static Property parse(String line) {
+            int colon = -1;
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (ch == '"') {
+                    quoted = !quoted;
+                } else if (ch == ':' && !quoted) {
+                    colon = i;
+                    break;
+                }
+            }
+            if (colon <= 0) {
+                return null;
+            }
+            String[] head = line.substring(0, colon).split(";");
+            Map<String, String> params = new HashMap<>();
+            for (int i = 1; i < head.length; i++) {
+                int eq = head[i].indexOf('=');
+                if (eq > 0) {
+                    params.put(head[i].substring(0, eq).toUpperCase(Locale.ROOT),
+                        head[i].substring(eq + 1));
+                }
+            }
+            return new Property(head[0].trim().toUpperCase(Locale.ROOT), params,
+                line.substring(colon + 1));
+        }
+
+        @Nullable
+        String param(String key) {
+            return params.get(key);
+        }
+
+        boolean isDateOnly() {
+            return "DATE".equalsIgnoreCase(param("VALUE")) || value.trim().length() == 8;
+        }
+
+        Instant toInstant(ZoneId defaultZone) {
+            return IcsText.parseDateTime(value, param("TZID"), defaultZone, isDateOnly());
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.bi1kbu.pluginschedule.ics;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import com.bi1kbu.pluginschedule.recurrence.Recurrences;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * 把日历与事件渲染为 iCalendar 文本片段，调用方按 header、若干 event、footer 的顺序拼接；
+ * 事件带 TZID 时，需在第一次引用前输出一次该时区的 {@link #timezone(ZoneId)}。
+ */
+public final class IcsFeedWriter {
+
+    private static final String PRODID = "-//bi1kbu//plugin-schedule//ZH";
+    private static final String UID_DOMAIN = "@schedule.bi1kbu.com";
+    private static final int RDATE_YEARS = 50;
+
+    private IcsFeedWriter() {
+    }
+
+    public static String header(ScheduleCalendar calendar) {
+        var text = new StringBuilder();
+        text.append(IcsText.fold("BEGIN:VCALENDAR"))
+            .append(IcsText.fold("VERSION:2.0"))
+            .append(IcsText.fold("PRODID:" + PRODID))
+            .append(IcsText.fold("CALSCALE:GREGORIAN"))
+            .append(IcsText.fold("METHOD:PUBLISH"));
+        String displayName = calendar.getSpec() == null ? null
+            : StringUtils.trimToNull(calendar.getSpec().getDisplayName());
+        if (displayName != null) {
+            text.append(IcsText.fold("X-WR-CALNAME:" + IcsText.escape(displayName)));
+        }
+        return text.toString();
+    }
+
+    public static String footer() {
+        return IcsText.fold("END:VCALENDAR");
+    }
+
+    /**
+     * 渲染单个 VEVENT，开始时间缺失或无法解析时返回 null。
+     */
+    @Nullable
+    public static String event(ScheduleEvent event, Instant fallbackStamp) {
+        var spec = event.getSpec();
+        Instant start = spec == null ? null : parse(spec.getStartAt(), spec.getTimezone());
+        if (start == null) {
+            return null;
+        }
+        Instant end = parse(spec.getEndAt(), spec.getTimezone());
+        var metadata = event.getMetadata();
+        Instant stamp = metadata.getCreationTimestamp() == null ? fallbackStamp
+            : metadata.getCreationTimestamp();
+
+        var text = new StringBuilder(256);
+        text.append(IcsText.fold("BEGIN:VEVENT"))
+            .append(IcsText.fold("UID:" + metadata.getName() + UID_DOMAIN))
+            .append(IcsText.fold("DTSTAMP:" + IcsText.formatUtc(stamp)));
+        ZoneId zone = IcsText.zoneOf(spec.getTimezone(), ZoneOffset.UTC);
+        String rrule = Recurrences.rruleOf(spec);
+        boolean allDay = Boolean.TRUE.equals(spec.getAllDay());
+        boolean zoned = zoneOf(event) != null;
+        if (allDay) {
+            // 全天事件按事件时区取日期，DTEND 为最后一天的次日
+            LocalDate firstDay = start.atZone(zone).toLocalDate();
+            LocalDate lastDay = end == null || end.isBefore(start) ? firstDay
+                : end.atZone(zone).toLocalDate();
+            text.append(IcsText.fold("DTSTART;VALUE=DATE:" + IcsText.BASIC_DATE.format(firstDay)))
+                .append(IcsText.fold(
+                    "DTEND;VALUE=DATE:" + IcsText.BASIC_DATE.format(lastDay.plusDays(1))));
+        } else {
+            text.append(IcsText.fold("DTSTART" + dateTimeOf(start, zone, zoned)));
+            if (end != null && !end.isBefore(start)) {
+                text.append(IcsText.fold("DTEND" + dateTimeOf(end, zone, zoned)));
+            }
+        }
+        if (rrule != null) {
+            text.append(IcsText.fold("RRULE:" + rrule));
+            for (Instant exceptDate : Recurrences.exceptDatesOf(spec)) {
+                text.append(IcsText.fold(allDay
+                    ? "EXDATE;VALUE=DATE:"
+                        + IcsText.BASIC_DATE.format(exceptDate.atZone(zone).toLocalDate())
+                    : "EXDATE" + dateTimeOf(exceptDate, zone, zoned)));
+            }
+        }
+        text.append(IcsText.fold("SUMMARY:" + IcsText.escape(StringUtils.defaultString(
+            spec.getTitle()))));
+        if (StringUtils.isNotBlank(spec.getSummary())) {
+            text.append(IcsText.fold("DESCRIPTION:" + IcsText.escape(spec.getSummary())));
+        }
+        String permalink = spec.getRelatedPostPermalinkSnapshot();
+        if (StringUtils.startsWithAny(permalink, "http://", "https://")) {
+            text.append(IcsText.fold("URL:" + permalink));
+        }
+        text.append(IcsText.fold("STATUS:"
+                + ("cancelled".equalsIgnoreCase(spec.getStatus()) ? "CANCELLED" : "CONFIRMED")))
+            .append(IcsText.fold("END:VEVENT"));
+        return text.toString();
+    }
+
+    /**
+     * 事件以 TZID 输出时引用的时区，其余情况返回 null。重复系列按本地时间推算，
+     * 带 TZID 输出才能在夏令时切换后保持同一钟点。
+     */
+    @Nullable
+    public static ZoneId zoneOf(ScheduleEvent event) {
+        var spec = event.getSpec();
+        if (spec == null || Boolean.TRUE.equals(spec.getAllDay())
+            || Recurrences.rruleOf(spec) == null) {
+            return null;
+        }
+        ZoneId zone = IcsText.zoneOf(spec.getTimezone(), ZoneOffset.UTC);
+        return zone.getRules().isFixedOffset() ? null : zone;
+    }
+
+    /**
+     * 渲染 TZID 引用的 VTIMEZONE。有夏令时规则的时区按每年的切换规则输出 STANDARD/DAYLIGHT，
+     * 规则无法用 RRULE 表示时改为列出此后 {@value #RDATE_YEARS} 年的 RDATE；
+     * 已不再切换的时区只输出最后一次切换后的偏移，更早的历史偏移不保留。
+     */
+    public static String timezone(ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        List<ZoneOffsetTransition> transitions = rules.getTransitions();
+        var text = new StringBuilder(512);
+        text.append(IcsText.fold("BEGIN:VTIMEZONE"))
+            .append(IcsText.fold("TZID:" + zone.getId()));
+        if (rules.getTransitionRules().isEmpty()) {
+            ZoneOffset offset = transitions.isEmpty() ? rules.getOffset(Instant.EPOCH)
+                : transitions.get(transitions.size() - 1).getOffsetAfter();
+            observance(text, "STANDARD", LocalDateTime.of(1970, 1, 1, 0, 0), offset, offset,
+                null, List.of());
+        } else {
+            // 规则从最后一次明确切换的次年起生效
+            int year = transitions.isEmpty() ? 1970
+                : transitions.get(transitions.size() - 1).getDateTimeAfter().getYear() + 1;
+            for (ZoneOffsetTransitionRule rule : rules.getTransitionRules()) {
+                ZoneOffsetTransition first = rule.createTransition(year);
+                String kind = first.getOffsetAfter().equals(rule.getStandardOffset())
+                    ? "STANDARD" : "DAYLIGHT";
+                List<LocalDateTime> rdates = new ArrayList<>();
+                String rrule = null;
+                if (expressible(rule, first, year)) {
+                    rrule = yearlyRule(rule);
+                } else {
+                    for (int i = 1; i <= RDATE_YEARS; i++) {
+                        rdates.add(rule.createTransition(year + i).getDateTimeBefore());
+                    }
+                }
+                observance(text, kind, first.getDateTimeBefore(), first.getOffsetBefore(),
+                    first.getOffsetAfter(), rrule, rdates);
+            }
+        }
+        return text.append(IcsText.fold("END:VTIMEZONE")).toString();
+    }
+
+    private static void observance(StringBuilder text, String kind, LocalDateTime start,
+        ZoneOffset from, ZoneOffset to, @Nullable String rrule, List<LocalDateTime> rdates) {
+        text.append(IcsText.fold("BEGIN:" + kind))
+            .append(IcsText.fold("DTSTART:" + IcsText.BASIC_DATE_TIME.format(start)))
+            .append(IcsText.fold("TZOFFSETFROM:" + offsetOf(from)))
+            .append(IcsText.fold("TZOFFSETTO:" + offsetOf(to)));
+        if (rrule != null) {
+            text.append(IcsText.fold("RRULE:" + rrule));
+        }
+        if (!rdates.isEmpty()) {
+            text.append(IcsText.fold("RDATE:" + rdates.stream()
+                .map(IcsText.BASIC_DATE_TIME::format)
+                .collect(Collectors.joining(","))));
+        }
+        text.append(IcsText.fold("END:" + kind));
+    }
+
+    /**
+     * 候选日期不会越出规则所在月份、且切换的本地日期就是规则日期时，才能写成每年的 RRULE。
+     */
+    private static boolean expressible(ZoneOffsetTransitionRule rule, ZoneOffsetTransition first,
+        int year) {
+        int span = rule.getDayOfWeek() == null ? 0 : 6;
+        return !rule.isMidnightEndOfDay()
+            && Math.abs(rule.getDayOfMonthIndicator()) + span <= rule.getMonth().minLength()
+            && first.getDateTimeBefore().toLocalDate().equals(dateOf(rule, year));
+    }
+
+    /**
+     * 切换规则对应的 RRULE。日期指示为正时表示当天或之后的第一个星期几，为负时表示
+     * 倒数当天或之前的第一个星期几；"最后一个星期日" 在 tzdb 中记为 maxLength - 6 起的星期日。
+     */
+    private static String yearlyRule(ZoneOffsetTransitionRule rule) {
+        Month month = rule.getMonth();
+        String prefix = "FREQ=YEARLY;BYMONTH=" + month.getValue();
+        int day = rule.getDayOfMonthIndicator();
+        DayOfWeek dayOfWeek = rule.getDayOfWeek();
+        if (dayOfWeek == null) {
+            return prefix + ";BYMONTHDAY=" + day;
+        }
+        String code = dayOfWeek.name().substring(0, 2);
+        if (day == -1 || month != Month.FEBRUARY && day == month.maxLength() - 6) {
+            return prefix + ";BYDAY=-1" + code;
+        }
+        if (day > 0 && (day - 1) % 7 == 0) {
+            return prefix + ";BYDAY=" + ((day - 1) / 7 + 1) + code;
+        }
+        int step = day > 0 ? 1 : -1;
+        return prefix + ";BYDAY=" + code + ";BYMONTHDAY=" + IntStream.range(0, 7)
+            .mapToObj(i -> String.valueOf(day + step * i))
+            .collect(Collectors.joining(","));
+    }
+
+    /**
+     * 规则在某年指向的日期，未计入切换时刻的时区换算。
+     */
+    private static LocalDate dateOf(ZoneOffsetTransitionRule rule, int year) {
+        int day = rule.getDayOfMonthIndicator();
+        LocalDate date = day > 0 ? LocalDate.of(year, rule.getMonth(), day)
+            : LocalDate.of(year, rule.getMonth(), 1).with(TemporalAdjusters.lastDayOfMonth())
+                .plusDays(day + 1);
+        DayOfWeek dayOfWeek = rule.getDayOfWeek();
+        if (dayOfWeek == null) {
+            return date;
+        }
+        return date.with(day > 0 ? TemporalAdjusters.nextOrSame(dayOfWeek)
+            : TemporalAdjusters.previousOrSame(dayOfWeek));
+    }
+
+    /**
+     * 形如 +0800 或 -0330，秒不为零时追加秒。
+     */
+    private static String offsetOf(ZoneOffset offset) {
+        int total = offset.getTotalSeconds();
+        int abs = Math.abs(total);
+        String text = (total < 0 ? "-" : "+")
+            + String.format("%02d%02d", abs / 3600, abs / 60 % 60);
+        return abs % 60 == 0 ? text : text + String.format("%02d", abs % 60);
+    }
+
+    /**
+     * 属性参数与值部分，例如 ";TZID=Asia/Shanghai:20250101T190000" 或 ":20250101T110000Z"。
+     */
+    private static String dateTimeOf(Instant instant, ZoneId zone, boolean zoned) {
+        if (!zoned) {
+            return ":" + IcsText.formatUtc(instant);
+        }
+        return ";TZID=" + zone.getId() + ":"
+            + IcsText.BASIC_DATE_TIME.format(instant.atZone(zone).toLocalDateTime());
+    }
+
+    @Nullable
+    private static Instant parse(@Nullable String value, @Nullable String timezone) {
+        Long epochMillis = EventTimes.toEpochMillis(value, timezone);
+        return epochMillis == null ? null : Instant.ofEpochMilli(epochMillis);
+    }
+}
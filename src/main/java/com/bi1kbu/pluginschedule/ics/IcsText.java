@@ -0,0 +1,132 @@
+package com.bi1kbu.pluginschedule.ics;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * iCalendar（RFC 5545）文本与日期的编解码工具。
+ */
+public final class IcsText {
+
+    /**
+     * 与管理端写入的格式保持一致（毫秒精度的 UTC ISO-8601），保证字符串比较有序。
+     */
+    public static final DateTimeFormatter SPEC_INSTANT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    static final DateTimeFormatter BASIC_DATE_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private IcsText() {
+    }
+
+    public static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        var result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                result.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                result.append(ch);
+            }
+        }
+        return result.toString();
+    }
+
+    public static String escape(String value) {
+        return value.replace("\\", "\\\\")
+            .replace(";", "\\;")
+            .replace(",", "\\,")
+            .replace("\r\n", "\\n")
+            .replace("\n", "\\n");
+    }
+
+    /**
+     * 解析日期或日期时间值：带 Z 为 UTC，否则按 tzid（缺省为 defaultZone）换算。
+     */
+    static Instant parseDateTime(String value, @Nullable String tzid, ZoneId defaultZone,
+        boolean dateOnly) {
+        String text = value.trim();
+        try {
+            if (dateOnly || text.length() == 8) {
+                return LocalDate.parse(text, BASIC_DATE).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            if (text.endsWith("Z")) {
+                return LocalDateTime.parse(text.substring(0, text.length() - 1), BASIC_DATE_TIME)
+                    .toInstant(ZoneOffset.UTC);
+            }
+            return LocalDateTime.parse(text, BASIC_DATE_TIME).atZone(zoneOf(tzid, defaultZone))
+                .toInstant();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid iCalendar date-time: " + text, e);
+        }
+    }
+
+    static ZoneId zoneOf(@Nullable String tzid, ZoneId defaultZone) {
+        if (StringUtils.isBlank(tzid)) {
+            return defaultZone;
+        }
+        try {
+            return ZoneId.of(StringUtils.strip(tzid, "\"/"));
+        } catch (RuntimeException e) {
+            return defaultZone;
+        }
+    }
+
+    public static String formatUtc(Instant instant) {
+        return BASIC_DATE_TIME.format(instant.atOffset(ZoneOffset.UTC)) + "Z";
+    }
+
+    public static String formatDate(Instant instant) {
+        return BASIC_DATE.format(instant.atOffset(ZoneOffset.UTC).toLocalDate());
+    }
+
+    public static Instant endOfDay(Instant dayStart) {
+        return dayStart.plus(1, ChronoUnit.DAYS).minusMillis(1);
+    }
+
+    /**
+     * 按 75 字节折行并以 CRLF 结尾，不会拆开多字节字符。
+     */
+    public static String fold(String line) {
+        var result = new StringBuilder(line.length() + 8);
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int width = utf8Width(codePoint);
+            if (octets + width > MAX_LINE_OCTETS) {
+                result.append("\r\n ");
+                octets = 1;
+            }
+            result.appendCodePoint(codePoint);
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        return result.append("\r\n").toString();
+    }
+
+    private static int utf8Width(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bi1kbu.pluginschedule.index;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.lang.Nullable;
+
+/**
+ * 单个日历的静态区间树：事件按开始时间排序存放在数组中，以数组中点为根隐式构成平衡树，
+ * 每个节点记录子树内最大的有效结束时间，重叠查询复杂度为 O(log n + k)。
+ * <p>
+ * 时间统一为 {@link EventTimes} 换算的 UTC 毫秒，比较与时区、写法无关。
+ * 实例不可变，事件变更时由 {@link ScheduleEventIndex} 重新构建。
+ */
+final class EventIntervalTree {
+
+    static final EventIntervalTree EMPTY = build(List.of());
+
+    private static final Comparator<Keyed> START_ORDER = Comparator
+        .comparingLong(Keyed::start)
+        .thenComparing(keyed -> keyed.event().getMetadata().getName());
+
+    private final ScheduleEvent[] events;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private EventIntervalTree(List<Keyed> sorted) {
+        int size = sorted.size();
+        this.events = new ScheduleEvent[size];
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.maxEnds = new long[size];
+        for (int i = 0; i < size; i++) {
+            Keyed keyed = sorted.get(i);
+            events[i] = keyed.event();
+            starts[i] = keyed.start();
+            ends[i] = keyed.end();
+        }
+        fillMaxEnds(0, size - 1);
+    }
+
+    static EventIntervalTree build(Collection<ScheduleEvent> events) {
+        List<Keyed> sorted = new ArrayList<>(events.size());
+        for (ScheduleEvent event : events) {
+            Long start = EventTimes.startOf(event.getSpec());
+            if (start != null) {
+                sorted.add(new Keyed(event, start, EventTimes.effectiveEndOf(event.getSpec())));
+            }
+        }
+        sorted.sort(START_ORDER);
+        return new EventIntervalTree(sorted);
+    }
+
+    int size() {
+        return events.length;
+    }
+
+    /**
+     * 返回与 [from, to] 重叠的事件，按开始时间升序排列。from/to 为空表示该侧不设边界。
+     */
+    List<ScheduleEvent> overlapping(@Nullable Long from, @Nullable Long to) {
+        var result = new ArrayList<ScheduleEvent>();
+        collect(0, events.length - 1, from == null ? Long.MIN_VALUE : from,
+            to == null ? Long.MAX_VALUE : to, result);
+        return result;
+    }
+
+    private long fillMaxEnds(int lo, int hi) {
+        if (lo > hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid],
+            Math.max(fillMaxEnds(lo, mid - 1), fillMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private void collect(int lo, int hi, long from, long to, List<ScheduleEvent> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < from) {
+            return;
+        }
+        collect(lo, mid - 1, from, to, result);
+        if (starts[mid] > to) {
+            return;
+        }
+        if (ends[mid] >= from) {
+            result.add(events[mid]);
+        }
+        collect(mid + 1, hi, from, to, result);
+    }
+
+    private record Keyed(ScheduleEvent event, long start, long end) {
+    }
+}
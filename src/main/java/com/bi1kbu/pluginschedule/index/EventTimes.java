@@ -0,0 +1,98 @@
+package com.bi1kbu.pluginschedule.index;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.recurrence.Recurrences;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * 事件时间的规范化：把各种 ISO-8601 写法统一换算为 UTC 毫秒时间戳，供索引与比较使用。
+ * <p>
+ * 带 Z 或偏移量的值按其自身偏移换算；不带偏移的日期时间与纯日期按 timezone（缺省 UTC）解释，
+ * 纯日期取当天开始。
+ */
+public final class EventTimes {
+
+    /**
+     * 无限重复系列的有效结束时间。
+     */
+    public static final long OPEN_END = Long.MAX_VALUE;
+
+    private static final int DATE_ONLY_LENGTH = 10;
+
+    private EventTimes() {
+    }
+
+    @Nullable
+    public static Long toEpochMillis(@Nullable String value, @Nullable String timezone) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            if (text.length() == DATE_ONLY_LENGTH) {
+                return LocalDate.parse(text).atStartOfDay(zoneOf(timezone)).toInstant()
+                    .toEpochMilli();
+            }
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(text,
+                ZonedDateTime::from, LocalDateTime::from);
+            if (parsed instanceof ZonedDateTime zoned) {
+                return zoned.toInstant().toEpochMilli();
+            }
+            return ((LocalDateTime) parsed).atZone(zoneOf(timezone)).toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    public static Long startOf(@Nullable ScheduleEvent.Spec spec) {
+        return spec == null ? null : toEpochMillis(spec.getStartAt(), spec.getTimezone());
+    }
+
+    /**
+     * 有效结束时间：单次事件为 endAt（缺省或无法解析时取 startAt），重复系列为最后一次的结束时间，
+     * 无限重复为 {@link #OPEN_END}；开始时间无法解析时返回 null。
+     */
+    @Nullable
+    public static Long effectiveEndOf(@Nullable ScheduleEvent.Spec spec) {
+        Long start = startOf(spec);
+        if (start == null) {
+            return null;
+        }
+        Long seriesEnd = Recurrences.seriesEndEpochMillis(spec);
+        if (seriesEnd != null) {
+            return seriesEnd;
+        }
+        Long end = toEpochMillis(spec.getEndAt(), spec.getTimezone());
+        return end == null ? start : end;
+    }
+
+    /**
+     * 按 spec 重新计算 status 中的规范化时间，只改内存中的对象，不写回存储。
+     */
+    public static void fillStatus(ScheduleEvent event) {
+        var status = event.getStatusOrDefault();
+        status.setStartAtEpochMillis(startOf(event.getSpec()));
+        status.setEffectiveEndAtEpochMillis(effectiveEndOf(event.getSpec()));
+    }
+
+    public static ZoneId zoneOf(@Nullable String timezone) {
+        if (StringUtils.isBlank(timezone)) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone.trim());
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+}
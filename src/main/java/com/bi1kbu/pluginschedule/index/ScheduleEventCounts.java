@@ -0,0 +1,67 @@
+package com.bi1kbu.pluginschedule.index;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按日历与状态维护未删除事件的条数，随 {@link ScheduleEventIndex} 的增量更新。
+ * <p>
+ * 计数的是存储中的事件对象（重复系列只算一条），与不带时间窗口的列表查询的 total 一致；
+ * 读取为 O(1)，应在索引加载完成后使用。
+ */
+@Component
+public class ScheduleEventCounts implements ScheduleEventListener {
+
+    private final Map<CountKey, Long> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void onEventChanged(@Nullable ScheduleEvent previous, @Nullable ScheduleEvent current) {
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (current != null) {
+            apply(current, 1);
+        }
+    }
+
+    /**
+     * calendar 或 status 为空表示不限。
+     */
+    public long count(@Nullable String calendar, @Nullable String status) {
+        return counts.getOrDefault(
+            new CountKey(StringUtils.trimToNull(calendar), StringUtils.trimToNull(status)), 0L);
+    }
+
+    private void apply(ScheduleEvent event, long delta) {
+        String calendar = null;
+        String status = null;
+        if (event.getSpec() != null) {
+            calendar = StringUtils.trimToNull(event.getSpec().getCalendarName());
+            status = StringUtils.trimToNull(event.getSpec().getStatus());
+        }
+        add(new CountKey(null, null), delta);
+        if (calendar != null) {
+            add(new CountKey(calendar, null), delta);
+        }
+        if (status != null) {
+            add(new CountKey(null, status), delta);
+        }
+        if (calendar != null && status != null) {
+            add(new CountKey(calendar, status), delta);
+        }
+    }
+
+    private void add(CountKey key, long delta) {
+        counts.compute(key, (k, count) -> {
+            long next = (count == null ? 0 : count) + delta;
+            return next <= 0 ? null : next;
+        });
+    }
+
+    private record CountKey(@Nullable String calendar, @Nullable String status) {
+    }
+}
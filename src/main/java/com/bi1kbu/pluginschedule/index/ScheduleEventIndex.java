@@ -0,0 +1,258 @@
+package com.bi1kbu.pluginschedule.index;
+
+import static run.halo.app.extension.index.query.Queries.isNull;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.recurrence.Recurrences;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 常驻内存的事件索引，按日历维护 {@link EventIntervalTree}。
+ * <p>
+ * 插件启动时全量加载一次，之后由 ScheduleEventReconciler 按单个事件增量更新。
+ */
+@Slf4j
+@Component
+public class ScheduleEventIndex {
+
+    private final ReactiveExtensionClient client;
+    private final ObjectProvider<ScheduleEventListener> listeners;
+
+    private final Object lock = new Object();
+    private final Map<String, ScheduleEvent> events = new HashMap<>();
+    private final Map<String, CalendarBucket> buckets = new HashMap<>();
+    private final Set<String> removedDuringLoad = new HashSet<>();
+
+    private volatile Mono<Void> loading;
+    private volatile boolean ready;
+
+    public ScheduleEventIndex(ReactiveExtensionClient client,
+        ObjectProvider<ScheduleEventListener> listeners) {
+        this.client = client;
+        this.listeners = listeners;
+    }
+
+    public void warmUp() {
+        awaitReady().subscribe(null,
+            error -> log.warn("Failed to load schedule event index", error));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Mono<Void> awaitReady() {
+        if (ready) {
+            return Mono.empty();
+        }
+        Mono<Void> current = loading;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (loading == null) {
+                var listOptions = ListOptions.builder()
+                    .andQuery(isNull("metadata.deletionTimestamp"))
+                    .build();
+                loading = client.listAll(ScheduleEvent.class, listOptions, Sort.unsorted())
+                    .doOnNext(this::applyLoaded)
+                    .then(Mono.fromRunnable(this::finishLoad))
+                    .doOnError(error -> loading = null)
+                    .then()
+                    .cache();
+            }
+            return loading;
+        }
+    }
+
+    public void upsert(ScheduleEvent event) {
+        String name = event.getMetadata().getName();
+        synchronized (lock) {
+            removedDuringLoad.remove(name);
+            put(name, event);
+        }
+    }
+
+    public void remove(String name) {
+        synchronized (lock) {
+            if (!ready) {
+                removedDuringLoad.add(name);
+            }
+            ScheduleEvent previous = events.remove(name);
+            if (previous != null) {
+                bucketOf(previous).ifPresent(bucket -> bucket.remove(name));
+                notifyChanged(previous, null);
+            }
+        }
+    }
+
+    /**
+     * 查询日历内与 [from, to]（UTC 毫秒，见 {@link EventTimes}）重叠的事件，按开始时间、名称升序返回，
+     * 调用方不得修改返回的对象。
+     * <p>
+     * 重复系列按窗口展开为各次实例，系列本身不出现在结果中。
+     */
+    public Mono<List<ScheduleEvent>> findOverlapping(String calendarName, @Nullable Long from,
+        @Nullable Long to) {
+        return awaitReady()
+            .then(Mono.fromSupplier(() -> expandSeries(treeOf(calendarName).overlapping(from, to),
+                from, to)));
+    }
+
+    /**
+     * 与 {@link #findOverlapping} 条件相同，但返回存储中的事件本身：重复系列不展开，
+     * 在窗口内至少有一次实例时计入一次。供按存储对象计数的调用方使用。
+     */
+    public Mono<List<ScheduleEvent>> findOverlappingSeries(String calendarName,
+        @Nullable Long from, @Nullable Long to) {
+        return awaitReady()
+            .then(Mono.fromSupplier(() -> treeOf(calendarName).overlapping(from, to).stream()
+                .filter(event -> !Recurrences.isRecurring(event.getSpec())
+                    || !Recurrences.expand(event, from, to).isEmpty())
+                .toList()));
+    }
+
+    /**
+     * 与索引查询相同的重叠判定：有效结束时间不早于 from，且开始时间不晚于 to。
+     */
+    public static boolean overlaps(ScheduleEvent event, @Nullable Long from, @Nullable Long to) {
+        Long start = EventTimes.startOf(event.getSpec());
+        if (start == null) {
+            return false;
+        }
+        if (from != null && EventTimes.effectiveEndOf(event.getSpec()) < from) {
+            return false;
+        }
+        return to == null || start <= to;
+    }
+
+    private static List<ScheduleEvent> expandSeries(List<ScheduleEvent> events,
+        @Nullable Long from, @Nullable Long to) {
+        if (events.stream().noneMatch(event -> Recurrences.isRecurring(event.getSpec()))) {
+            return events;
+        }
+        List<ScheduleEvent> expanded = new ArrayList<>(events.size());
+        for (ScheduleEvent event : events) {
+            expanded.addAll(Recurrences.expand(event, from, to));
+        }
+        Map<ScheduleEvent, Long> starts = new IdentityHashMap<>(expanded.size());
+        expanded.forEach(event -> starts.put(event, EventTimes.startOf(event.getSpec())));
+        expanded.sort(Comparator.comparingLong((ScheduleEvent event) -> starts.get(event))
+            .thenComparing(event -> event.getMetadata().getName()));
+        return expanded;
+    }
+
+    private EventIntervalTree treeOf(String calendarName) {
+        CalendarBucket bucket;
+        synchronized (lock) {
+            bucket = buckets.get(calendarName);
+        }
+        return bucket == null ? EventIntervalTree.EMPTY : bucket.tree();
+    }
+
+    private void applyLoaded(ScheduleEvent event) {
+        String name = event.getMetadata().getName();
+        synchronized (lock) {
+            if (removedDuringLoad.contains(name)) {
+                return;
+            }
+            ScheduleEvent existing = events.get(name);
+            if (existing != null && versionOf(existing) >= versionOf(event)) {
+                return;
+            }
+            put(name, event);
+        }
+    }
+
+    private void finishLoad() {
+        synchronized (lock) {
+            removedDuringLoad.clear();
+            ready = true;
+            listeners.orderedStream().forEach(ScheduleEventListener::onIndexLoaded);
+        }
+        log.debug("Schedule event index loaded with {} events in {} calendars",
+            events.size(), buckets.size());
+    }
+
+    private void put(String name, ScheduleEvent event) {
+        EventTimes.fillStatus(event);
+        ScheduleEvent previous = events.put(name, event);
+        if (previous != null) {
+            bucketOf(previous).ifPresent(bucket -> bucket.remove(name));
+        }
+        String calendarName = calendarNameOf(event);
+        if (calendarName != null) {
+            buckets.computeIfAbsent(calendarName, key -> new CalendarBucket()).put(name, event);
+        }
+        notifyChanged(previous, event);
+    }
+
+    private void notifyChanged(@Nullable ScheduleEvent previous, @Nullable ScheduleEvent current) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onEventChanged(previous, current);
+            } catch (RuntimeException e) {
+                log.warn("Schedule event listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private Optional<CalendarBucket> bucketOf(ScheduleEvent event) {
+        return Optional.ofNullable(calendarNameOf(event)).map(buckets::get);
+    }
+
+    @Nullable
+    private static String calendarNameOf(ScheduleEvent event) {
+        if (event.getSpec() == null) {
+            return null;
+        }
+        return StringUtils.trimToNull(event.getSpec().getCalendarName());
+    }
+
+    private static long versionOf(ScheduleEvent event) {
+        return Objects.requireNonNullElse(event.getMetadata().getVersion(), 0L);
+    }
+
+    private final class CalendarBucket {
+        private final Map<String, ScheduleEvent> members = new HashMap<>();
+        private EventIntervalTree tree;
+
+        void put(String name, ScheduleEvent event) {
+            members.put(name, event);
+            tree = null;
+        }
+
+        void remove(String name) {
+            if (members.remove(name) != null) {
+                tree = null;
+            }
+        }
+
+        EventIntervalTree tree() {
+            synchronized (lock) {
+                if (tree == null) {
+                    tree = EventIntervalTree.build(members.values());
+                }
+                return tree;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.bi1kbu.pluginschedule.index;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import org.springframework.lang.Nullable;
+
+/**
+ * 接收 {@link ScheduleEventIndex} 的单事件增量，previous 为空表示新增，current 为空表示删除。
+ * <p>
+ * 回调在索引锁内同步执行，实现方只应更新自身内存状态，耗时操作需异步处理。
+ */
+public interface ScheduleEventListener {
+
+    void onEventChanged(@Nullable ScheduleEvent previous, @Nullable ScheduleEvent current);
+
+    default void onIndexLoaded() {
+    }
+}
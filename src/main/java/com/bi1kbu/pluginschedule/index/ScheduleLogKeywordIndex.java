@@ -0,0 +1,209 @@
+package com.bi1kbu.pluginschedule.index;
+
+import static run.halo.app.extension.index.query.Queries.isNull;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 日志关键字的 n-gram 倒排索引，覆盖 actionType、operator、eventTitle、summary 与 keyword。
+ * <p>
+ * 每个字段按单字与双字切分建立倒排表；查询时取关键字各双字倒排表的交集，
+ * 再用小写原文做一次子串校验，结果与逐条 contains 一致。
+ */
+@Slf4j
+@Component
+public class ScheduleLogKeywordIndex {
+
+    private static final char FIELD_SEPARATOR = '\n';
+
+    private final ReactiveExtensionClient client;
+
+    private final Object lock = new Object();
+    private final Map<String, String> haystacks = new HashMap<>();
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private final Set<String> removedDuringLoad = new HashSet<>();
+
+    private volatile Mono<Void> loading;
+    private volatile boolean ready;
+
+    public ScheduleLogKeywordIndex(ReactiveExtensionClient client) {
+        this.client = client;
+    }
+
+    public void warmUp() {
+        awaitReady().subscribe(null,
+            error -> log.warn("Failed to load schedule log keyword index", error));
+    }
+
+    public Mono<Void> awaitReady() {
+        if (ready) {
+            return Mono.empty();
+        }
+        Mono<Void> current = loading;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (loading == null) {
+                var listOptions = ListOptions.builder()
+                    .andQuery(isNull("metadata.deletionTimestamp"))
+                    .build();
+                loading = client.listAll(ScheduleLog.class, listOptions, Sort.unsorted())
+                    .doOnNext(this::applyLoaded)
+                    .then(Mono.fromRunnable(this::finishLoad))
+                    .doOnError(error -> loading = null)
+                    .then()
+                    .cache();
+            }
+            return loading;
+        }
+    }
+
+    public void upsert(ScheduleLog scheduleLog) {
+        String name = scheduleLog.getMetadata().getName();
+        synchronized (lock) {
+            removedDuringLoad.remove(name);
+            put(name, haystackOf(scheduleLog));
+        }
+    }
+
+    public void remove(String name) {
+        synchronized (lock) {
+            if (!ready) {
+                removedDuringLoad.add(name);
+            }
+            String previous = haystacks.remove(name);
+            if (previous != null) {
+                unlink(name, previous);
+            }
+        }
+    }
+
+    /**
+     * 返回任一字段包含关键字（忽略大小写）的日志名称。
+     */
+    public Mono<Set<String>> search(String keyword) {
+        String needle = normalize(keyword);
+        return awaitReady().then(Mono.fromSupplier(() -> {
+            synchronized (lock) {
+                return match(needle);
+            }
+        }));
+    }
+
+    private Set<String> match(String needle) {
+        if (needle.isEmpty()) {
+            return Set.of();
+        }
+        List<Set<String>> candidates = gramsOf(needle)
+            .map(gram -> postings.getOrDefault(gram, Set.of()))
+            .sorted(Comparator.comparingInt(Set::size))
+            .toList();
+        Set<String> smallest = candidates.get(0);
+        Set<String> matched = new LinkedHashSet<>();
+        for (String name : smallest) {
+            if (candidates.stream().allMatch(posting -> posting.contains(name))
+                && haystacks.get(name).contains(needle)) {
+                matched.add(name);
+            }
+        }
+        return matched;
+    }
+
+    private void applyLoaded(ScheduleLog scheduleLog) {
+        String name = scheduleLog.getMetadata().getName();
+        synchronized (lock) {
+            if (removedDuringLoad.contains(name) || haystacks.containsKey(name)) {
+                return;
+            }
+            put(name, haystackOf(scheduleLog));
+        }
+    }
+
+    private void finishLoad() {
+        synchronized (lock) {
+            removedDuringLoad.clear();
+            ready = true;
+        }
+        log.debug("Schedule log keyword index loaded with {} logs and {} grams",
+            haystacks.size(), postings.size());
+    }
+
+    private void put(String name, String haystack) {
+        String previous = haystacks.put(name, haystack);
+        if (previous != null) {
+            unlink(name, previous);
+        }
+        indexGramsOf(haystack)
+            .forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(name));
+    }
+
+    private void unlink(String name, String haystack) {
+        indexGramsOf(haystack).forEach(gram -> {
+            Set<String> names = postings.get(gram);
+            if (names != null && names.remove(name) && names.isEmpty()) {
+                postings.remove(gram);
+            }
+        });
+    }
+
+    /**
+     * 文档侧同时建立单字与双字倒排，便于单字关键字直接命中。
+     */
+    private static Stream<String> indexGramsOf(String haystack) {
+        Set<String> grams = new HashSet<>();
+        for (String field : StringUtils.split(haystack, FIELD_SEPARATOR)) {
+            for (int i = 0; i < field.length(); i++) {
+                grams.add(field.substring(i, i + 1));
+                if (i + 2 <= field.length()) {
+                    grams.add(field.substring(i, i + 2));
+                }
+            }
+        }
+        return grams.stream();
+    }
+
+    private static Stream<String> gramsOf(String needle) {
+        if (needle.length() == 1) {
+            return Stream.of(needle);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 2 <= needle.length(); i++) {
+            grams.add(needle.substring(i, i + 2));
+        }
+        return grams.stream();
+    }
+
+    private static String haystackOf(ScheduleLog scheduleLog) {
+        var spec = scheduleLog.getSpec();
+        if (spec == null) {
+            return "";
+        }
+        return Stream.of(spec.getActionType(), spec.getOperator(), spec.getEventTitle(),
+                spec.getSummary(), spec.getKeyword())
+            .filter(StringUtils::isNotBlank)
+            .map(ScheduleLogKeywordIndex::normalize)
+            .reduce((left, right) -> left + FIELD_SEPARATOR + right)
+            .orElse("");
+    }
+
+    private static String normalize(String value) {
+        return StringUtils.trimToEmpty(value).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,179 @@
+package com.bi1kbu.pluginschedule.metrics;
+
+import com.bi1kbu.pluginschedule.service.impl.ScheduleEventQueryCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.RetryBackoffSpec;
+
+/**
+ * 插件的 Micrometer 指标。
+ * <p>
+ * 优先使用容器中的 MeterRegistry；插件上下文拿不到时退回全局注册表（宿主的注册表默认已加入其中），
+ * 两种情况下指标都随宿主的监控端点导出。插件停止时移除注册过的指标，重新启用后不会残留旧实例。
+ * <p>
+ * 带标签的计量器按名称与标签缓存，热路径上每次记录只做一次 Map 查找，不再经过 builder 与注册表。
+ */
+@Component
+public class ScheduleMetrics {
+
+    static final String REQUESTS = "schedule.endpoint.requests";
+    static final String QUERY_FETCHED = "schedule.query.fetched";
+    static final String QUERY_RETURNED = "schedule.query.returned";
+    static final String QUERY_PAGE_SIZE = "schedule.query.page.size";
+    static final String RETRIES = "schedule.retries";
+    static final String OPTIMISTIC_LOCK_CONFLICTS = "schedule.optimistic.lock.conflicts";
+    static final String QUERY_CACHE_GETS = "schedule.query.cache.gets";
+    static final String QUERY_CACHE_EVICTIONS = "schedule.query.cache.evictions";
+    static final String QUERY_CACHE_SIZE = "schedule.query.cache.size";
+    static final String QUERY_CACHE_WEIGHT = "schedule.query.cache.weight";
+
+    private final MeterRegistry registry;
+    private final Set<Meter> meters = ConcurrentHashMap.newKeySet();
+    private final Map<MeterKey, Meter> cachedMeters = new ConcurrentHashMap<>();
+
+    public ScheduleMetrics(ObjectProvider<MeterRegistry> registryProvider,
+        ScheduleEventQueryCache queryCache) {
+        this.registry = registryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        bindQueryCache(queryCache);
+    }
+
+    /**
+     * 路由过滤器：按请求方法、匹配到的路径模板与响应状态记录耗时直方图。
+     * 只计到处理函数给出响应为止，流式响应体的写出时间不在其中。
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> requestTimer() {
+        return (request, next) -> {
+            Timer.Sample sample = Timer.start(registry);
+            String method = request.method().name();
+            String uri = request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                .filter(PathPattern.class::isInstance)
+                .map(pattern -> ((PathPattern) pattern).getPatternString())
+                .orElse("UNKNOWN");
+            return Mono.defer(() -> next.handle(request))
+                .doOnSuccess(response -> stop(sample, method, uri, response == null ? "NONE"
+                    : String.valueOf(response.statusCode().value())))
+                .doOnError(error -> stop(sample, method, uri, statusOf(error)))
+                .doOnCancel(() -> stop(sample, method, uri, "CANCELLED"));
+        };
+    }
+
+    /**
+     * 记录一次实际查询从存储或索引取出的条数与最终返回的条数，两者之差即过滤与分页丢弃的部分。
+     * 存储分页查询只取回一页，取出条数按其 total（匹配条件的总数）计。
+     */
+    public void recordQuery(String query, String source, long fetched, long returned) {
+        summary(QUERY_FETCHED, query, source).record(fetched);
+        summary(QUERY_RETURNED, query, source).record(returned);
+    }
+
+    /**
+     * 记录请求的分页大小，0 表示不分页。
+     */
+    public void recordPageSize(String query, int size) {
+        Tags tags = Tags.of("query", query);
+        cached(QUERY_PAGE_SIZE, tags, () -> DistributionSummary.builder(QUERY_PAGE_SIZE)
+                .tags(tags)
+                .register(registry))
+            .record(Math.max(size, 0));
+    }
+
+    public void recordConflict(String operation) {
+        Tags tags = Tags.of("operation", operation);
+        cached(OPTIMISTIC_LOCK_CONFLICTS, tags, () -> Counter.builder(OPTIMISTIC_LOCK_CONFLICTS)
+                .tags(tags)
+                .register(registry))
+            .increment();
+    }
+
+    /**
+     * 为重试策略加上计数，每次实际发生的重试记一次。
+     */
+    public RetryBackoffSpec countRetries(String operation, RetryBackoffSpec retry) {
+        return retry.doBeforeRetry(signal -> {
+            Tags tags = Tags.of("operation", operation,
+                "exception", signal.failure().getClass().getSimpleName());
+            cached(RETRIES, tags, () -> Counter.builder(RETRIES)
+                    .tags(tags)
+                    .register(registry))
+                .increment();
+        });
+    }
+
+    public void close() {
+        cachedMeters.clear();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    private void bindQueryCache(ScheduleEventQueryCache cache) {
+        register(FunctionCounter.builder(QUERY_CACHE_GETS, cache, c -> c.stats().hits())
+            .tag("result", "hit")
+            .register(registry));
+        register(FunctionCounter.builder(QUERY_CACHE_GETS, cache, c -> c.stats().misses())
+            .tag("result", "miss")
+            .register(registry));
+        register(FunctionCounter.builder(QUERY_CACHE_EVICTIONS, cache,
+                c -> c.stats().evictions())
+            .register(registry));
+        register(Gauge.builder(QUERY_CACHE_SIZE, cache, c -> c.stats().entries())
+            .register(registry));
+        register(Gauge.builder(QUERY_CACHE_WEIGHT, cache, c -> c.stats().weight())
+            .register(registry));
+    }
+
+    private void stop(Timer.Sample sample, String method, String uri, String status) {
+        Tags tags = Tags.of("method", method, "uri", uri, "status", status);
+        sample.stop(cached(REQUESTS, tags, () -> Timer.builder(REQUESTS)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry)));
+    }
+
+    private DistributionSummary summary(String name, String query, String source) {
+        Tags tags = Tags.of("query", query, "source", source);
+        return cached(name, tags, () -> DistributionSummary.builder(name)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M extends Meter> M cached(String name, Tags tags, Supplier<M> factory) {
+        return (M) cachedMeters.computeIfAbsent(new MeterKey(name, tags),
+            key -> register(factory.get()));
+    }
+
+    private <M extends Meter> M register(M meter) {
+        meters.add(meter);
+        return meter;
+    }
+
+    private static String statusOf(Throwable error) {
+        if (error instanceof ResponseStatusException e) {
+            return String.valueOf(e.getStatusCode().value());
+        }
+        return "500";
+    }
+
+    private record MeterKey(String name, Tags tags) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.bi1kbu.pluginschedule.reconciler;
+
+import com.bi1kbu.pluginschedule.cache.ScheduleVersions;
+import com.bi1kbu.pluginschedule.service.impl.RelatedPostSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.controller.Controller;
+import run.halo.app.extension.controller.ControllerBuilder;
+import run.halo.app.extension.controller.Reconciler;
+
+@Component
+@RequiredArgsConstructor
+public class RelatedPostReconciler implements Reconciler<Reconciler.Request> {
+
+    private final RelatedPostSnapshotCache relatedPostSnapshotCache;
+    private final ScheduleVersions scheduleVersions;
+
+    @Override
+    public Result reconcile(Request request) {
+        relatedPostSnapshotCache.invalidate(request.name());
+        scheduleVersions.postChanged();
+        return Result.doNotRetry();
+    }
+
+    @Override
+    public Controller setupWith(ControllerBuilder builder) {
+        return builder
+            .extension(new Post())
+            .syncAllOnStart(false)
+            .build();
+    }
+}
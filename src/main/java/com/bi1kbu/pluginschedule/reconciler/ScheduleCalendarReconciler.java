@@ -0,0 +1,39 @@
+package com.bi1kbu.pluginschedule.reconciler;
+
+import com.bi1kbu.pluginschedule.cache.ScheduleVersions;
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleCalendarCatalog;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleEventQueryCache;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleFeedCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import run.halo.app.extension.controller.Controller;
+import run.halo.app.extension.controller.ControllerBuilder;
+import run.halo.app.extension.controller.Reconciler;
+
+@Component
+@RequiredArgsConstructor
+public class ScheduleCalendarReconciler implements Reconciler<Reconciler.Request> {
+
+    private final ScheduleCalendarCatalog scheduleCalendarCatalog;
+    private final ScheduleVersions scheduleVersions;
+    private final ScheduleEventQueryCache scheduleEventQueryCache;
+    private final ScheduleFeedCache scheduleFeedCache;
+
+    @Override
+    public Result reconcile(Request request) {
+        scheduleCalendarCatalog.invalidate();
+        scheduleVersions.calendarChanged(request.name());
+        scheduleEventQueryCache.invalidate(request.name());
+        scheduleFeedCache.invalidate(request.name());
+        return Result.doNotRetry();
+    }
+
+    @Override
+    public Controller setupWith(ControllerBuilder builder) {
+        return builder
+            .extension(new ScheduleCalendar())
+            .syncAllOnStart(false)
+            .build();
+    }
+}
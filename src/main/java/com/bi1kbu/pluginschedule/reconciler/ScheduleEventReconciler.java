@@ -0,0 +1,39 @@
+package com.bi1kbu.pluginschedule.reconciler;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import run.halo.app.extension.ExtensionClient;
+import run.halo.app.extension.controller.Controller;
+import run.halo.app.extension.controller.ControllerBuilder;
+import run.halo.app.extension.controller.Reconciler;
+
+/**
+ * 把事件变更同步到内存索引。status 中的规范化时间由索引按 spec 计算，不写回存储：
+ * 存储侧的 status.* 索引同样由 spec 计算，写回只会多一次版本变更。
+ */
+@Component
+@RequiredArgsConstructor
+public class ScheduleEventReconciler implements Reconciler<Reconciler.Request> {
+
+    private final ExtensionClient client;
+    private final ScheduleEventIndex scheduleEventIndex;
+
+    @Override
+    public Result reconcile(Request request) {
+        client.fetch(ScheduleEvent.class, request.name())
+            .filter(event -> event.getMetadata().getDeletionTimestamp() == null)
+            .ifPresentOrElse(scheduleEventIndex::upsert,
+                () -> scheduleEventIndex.remove(request.name()));
+        return Result.doNotRetry();
+    }
+
+    @Override
+    public Controller setupWith(ControllerBuilder builder) {
+        return builder
+            .extension(new ScheduleEvent())
+            .syncAllOnStart(false)
+            .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.bi1kbu.pluginschedule.reconciler;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.index.ScheduleLogKeywordIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import run.halo.app.extension.ExtensionClient;
+import run.halo.app.extension.controller.Controller;
+import run.halo.app.extension.controller.ControllerBuilder;
+import run.halo.app.extension.controller.Reconciler;
+
+@Component
+@RequiredArgsConstructor
+public class ScheduleLogReconciler implements Reconciler<Reconciler.Request> {
+
+    private final ExtensionClient client;
+    private final ScheduleLogKeywordIndex scheduleLogKeywordIndex;
+
+    @Override
+    public Result reconcile(Request request) {
+        client.fetch(ScheduleLog.class, request.name())
+            .filter(log -> log.getMetadata().getDeletionTimestamp() == null)
+            .ifPresentOrElse(scheduleLogKeywordIndex::upsert,
+                () -> scheduleLogKeywordIndex.remove(request.name()));
+        return Result.doNotRetry();
+    }
+
+    @Override
+    public Controller setupWith(ControllerBuilder builder) {
+        return builder
+            .extension(new ScheduleLog())
+            .syncAllOnStart(false)
+            .build();
+    }
+}
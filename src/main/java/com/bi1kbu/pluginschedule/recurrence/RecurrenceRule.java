@@ -0,0 +1,328 @@
+package com.bi1kbu.pluginschedule.recurrence;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.ics.IcsText;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * 解析后的重复规则。按周期（天/周/月/年 × interval）逐个生成本地时间的候选日期，
+ * 不存在的日期（如 2 月 30 日）直接跳过，与 RRULE 的处理一致。
+ */
+final class RecurrenceRule {
+
+    static final int MAX_COUNT = 5000;
+    static final int MAX_INTERVAL = 1000;
+
+    /**
+     * 防御性上限：单次推进扫描这么多个周期仍没有结果时停止迭代。
+     */
+    private static final int MAX_PERIODS_PER_STEP = 10_000;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final List<DayOfWeek> byDay;
+    @Nullable
+    private final Integer count;
+    @Nullable
+    private final Instant until;
+    private final Set<Instant> exceptDates;
+    private final ZonedDateTime start;
+    private final Duration duration;
+
+    private RecurrenceRule(Frequency frequency, int interval, List<DayOfWeek> byDay,
+        @Nullable Integer count, @Nullable Instant until, Set<Instant> exceptDates,
+        ZonedDateTime start, Duration duration) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+        this.exceptDates = exceptDates;
+        this.start = start;
+        this.duration = duration;
+    }
+
+    /**
+     * 解析事件的重复规则，未设置或无法解析时返回 null，此时按单次事件处理。
+     */
+    @Nullable
+    static RecurrenceRule of(@Nullable ScheduleEvent.Spec spec) {
+        if (spec == null || spec.getRecurrence() == null) {
+            return null;
+        }
+        var recurrence = spec.getRecurrence();
+        Frequency frequency = Frequency.of(recurrence.getFrequency());
+        String timezone = spec.getTimezone();
+        Instant startAt = instantOf(spec.getStartAt(), timezone);
+        if (frequency == null || startAt == null) {
+            return null;
+        }
+        Instant endAt = instantOf(spec.getEndAt(), timezone);
+        Duration duration = endAt == null || endAt.isBefore(startAt) ? Duration.ZERO
+            : Duration.between(startAt, endAt);
+        ZonedDateTime start = startAt.atZone(EventTimes.zoneOf(timezone));
+
+        int interval = recurrence.getInterval() == null ? 1
+            : Math.min(Math.max(recurrence.getInterval(), 1), MAX_INTERVAL);
+        Integer count = recurrence.getCount() == null ? null
+            : Math.min(Math.max(recurrence.getCount(), 1), MAX_COUNT);
+
+        List<DayOfWeek> byDay = List.of(start.getDayOfWeek());
+        if (frequency == Frequency.WEEKLY && recurrence.getByDay() != null) {
+            List<DayOfWeek> days = recurrence.getByDay().stream()
+                .map(RecurrenceRule::dayOf)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+            if (!days.isEmpty()) {
+                byDay = days;
+            }
+        }
+
+        Set<Instant> exceptDates = new HashSet<>();
+        if (recurrence.getExceptDates() != null) {
+            for (String value : recurrence.getExceptDates()) {
+                Instant instant = instantOf(value, timezone);
+                if (instant != null) {
+                    exceptDates.add(instant);
+                }
+            }
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count,
+            instantOf(recurrence.getUntil(), timezone), Set.copyOf(exceptDates), start, duration);
+    }
+
+    boolean isBounded() {
+        return count != null || until != null;
+    }
+
+    Duration duration() {
+        return duration;
+    }
+
+    Set<Instant> exceptDates() {
+        return exceptDates;
+    }
+
+    /**
+     * 转换为 RFC 5545 的 RRULE 值，UNTIL 按 UTC 输出。
+     */
+    String toRrule() {
+        var rule = new StringBuilder("FREQ=").append(frequency.name());
+        if (interval > 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (frequency == Frequency.WEEKLY) {
+            rule.append(";BYDAY=").append(String.join(",", byDay.stream()
+                .map(day -> day.name().substring(0, 2))
+                .toList()));
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(IcsText.formatUtc(until));
+        }
+        return rule.toString();
+    }
+
+    /**
+     * 最后一次的结束时间；没有 count/until 的无限重复返回 null。只设置 until 时为上界估计。
+     */
+    @Nullable
+    Instant lastEnd() {
+        if (count != null) {
+            Instant last = null;
+            for (Iterator<Instant> starts = starts(null, true); starts.hasNext(); ) {
+                last = starts.next();
+            }
+            return last == null ? start.toInstant().plus(duration) : last.plus(duration);
+        }
+        return until == null ? null : until.plus(duration);
+    }
+
+    /**
+     * 惰性产生各次开始时间（已剔除 exceptDates），按时间升序。
+     * <p>
+     * 没有 count 时直接跳到 notEndingBefore 附近的周期开始，不必从第一次逐个推算；
+     * 有 count 时需要从头计数，迭代次数不超过 {@link #MAX_COUNT}。
+     */
+    Iterator<Instant> starts(@Nullable Instant notEndingBefore) {
+        return starts(notEndingBefore, false);
+    }
+
+    private Iterator<Instant> starts(@Nullable Instant notEndingBefore, boolean includeExcepted) {
+        long firstPeriod = 0;
+        if (notEndingBefore != null && count == null) {
+            var target = notEndingBefore.minus(duration).atZone(start.getZone());
+            long units = frequency.unit.between(start, target);
+            firstPeriod = Math.max(0, units / interval - 1);
+        }
+        return new Starts(firstPeriod, includeExcepted);
+    }
+
+    private void candidatesOf(long period, Deque<ZonedDateTime> into) {
+        long step = period * interval;
+        LocalDate startDate = start.toLocalDate();
+        LocalTime time = start.toLocalTime();
+        switch (frequency) {
+            case DAILY -> into.add(ZonedDateTime.of(startDate.plusDays(step), time,
+                start.getZone()));
+            case WEEKLY -> {
+                LocalDate monday = startDate.with(TemporalAdjusters.previousOrSame(
+                    DayOfWeek.MONDAY)).plusWeeks(step);
+                for (DayOfWeek day : byDay) {
+                    into.add(ZonedDateTime.of(monday.plusDays(day.getValue() - 1L), time,
+                        start.getZone()));
+                }
+            }
+            case MONTHLY -> {
+                YearMonth month = YearMonth.from(startDate).plusMonths(step);
+                if (month.isValidDay(startDate.getDayOfMonth())) {
+                    into.add(ZonedDateTime.of(month.atDay(startDate.getDayOfMonth()), time,
+                        start.getZone()));
+                }
+            }
+            case YEARLY -> {
+                Year year = Year.of(startDate.getYear()).plusYears(step);
+                MonthDay monthDay = MonthDay.from(startDate);
+                if (year.isValidMonthDay(monthDay)) {
+                    into.add(ZonedDateTime.of(year.atMonthDay(monthDay), time, start.getZone()));
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static Instant instantOf(@Nullable String value, @Nullable String timezone) {
+        Long epochMillis = EventTimes.toEpochMillis(value, timezone);
+        return epochMillis == null ? null : Instant.ofEpochMilli(epochMillis);
+    }
+
+    @Nullable
+    private static DayOfWeek dayOf(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> null;
+        };
+    }
+
+    enum Frequency {
+        DAILY(ChronoUnit.DAYS),
+        WEEKLY(ChronoUnit.WEEKS),
+        MONTHLY(ChronoUnit.MONTHS),
+        YEARLY(ChronoUnit.YEARS);
+
+        private final ChronoUnit unit;
+
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        @Nullable
+        static Frequency of(@Nullable String value) {
+            if (StringUtils.isBlank(value)) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private final class Starts implements Iterator<Instant> {
+
+        private final Deque<ZonedDateTime> pending = new ArrayDeque<>();
+        private final boolean includeExcepted;
+        private long period;
+        private int emitted;
+        private boolean finished;
+        private Instant next;
+
+        Starts(long firstPeriod, boolean includeExcepted) {
+            this.period = firstPeriod;
+            this.includeExcepted = includeExcepted;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                next = advance();
+                finished = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Instant next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Instant result = next;
+            next = null;
+            return result;
+        }
+
+        @Nullable
+        private Instant advance() {
+            int scannedPeriods = 0;
+            while (true) {
+                if (pending.isEmpty()) {
+                    if (scannedPeriods++ > MAX_PERIODS_PER_STEP) {
+                        return null;
+                    }
+                    candidatesOf(period++, pending);
+                    continue;
+                }
+                Instant candidate = pending.poll().toInstant();
+                if (candidate.isBefore(start.toInstant())) {
+                    continue;
+                }
+                if (until != null && candidate.isAfter(until)) {
+                    return null;
+                }
+                if (count != null && emitted >= count) {
+                    return null;
+                }
+                emitted++;
+                if (includeExcepted || !exceptDates.contains(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.bi1kbu.pluginschedule.recurrence;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.ics.IcsText;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.lang.Nullable;
+import run.halo.app.extension.Metadata;
+
+/**
+ * 重复事件的展开入口：一个系列只存一份，查询时只在 [from, to] 窗口内生成各次实例。
+ * <p>
+ * 实例是系列的只读副本，metadata.name 为 系列名-开始时间秒数，并通过
+ * {@link #SERIES_ANNOTATION} 指回系列；实例本身不再带 recurrence。
+ */
+public final class Recurrences {
+
+    public static final String SERIES_ANNOTATION = "schedule.bi1kbu.com/recurrence-series";
+
+    /**
+     * 单个系列在一次查询中最多展开的实例数，防止无上界窗口展开无限系列。
+     */
+    public static final int MAX_OCCURRENCES_PER_QUERY = 1000;
+
+    private Recurrences() {
+    }
+
+    public static boolean isRecurring(@Nullable ScheduleEvent.Spec spec) {
+        return RecurrenceRule.of(spec) != null;
+    }
+
+    /**
+     * 重复系列最后一次的结束时间（UTC 毫秒），无限重复为 {@link EventTimes#OPEN_END}；
+     * 不是重复事件时返回 null。
+     */
+    @Nullable
+    public static Long seriesEndEpochMillis(@Nullable ScheduleEvent.Spec spec) {
+        RecurrenceRule rule = RecurrenceRule.of(spec);
+        if (rule == null) {
+            return null;
+        }
+        Instant lastEnd = rule.lastEnd();
+        return lastEnd == null ? EventTimes.OPEN_END : lastEnd.toEpochMilli();
+    }
+
+    /**
+     * 用于日历统计范围的结束时间：有 count/until 的系列为最后一次的结束时间，其余情况为 endAt，
+     * 无限重复系列只计第一次，避免范围被拉到遥远的未来。
+     */
+    @Nullable
+    public static String rangeEndAt(@Nullable ScheduleEvent.Spec spec) {
+        if (spec == null) {
+            return null;
+        }
+        Long seriesEnd = seriesEndEpochMillis(spec);
+        if (seriesEnd == null || seriesEnd == EventTimes.OPEN_END) {
+            return spec.getEndAt();
+        }
+        return IcsText.SPEC_INSTANT.format(Instant.ofEpochMilli(seriesEnd));
+    }
+
+    /**
+     * 重复系列的 RRULE 值，不是重复事件时返回 null。
+     */
+    @Nullable
+    public static String rruleOf(@Nullable ScheduleEvent.Spec spec) {
+        RecurrenceRule rule = RecurrenceRule.of(spec);
+        return rule == null ? null : rule.toRrule();
+    }
+
+    /**
+     * 重复系列中被排除的各次开始时间，按时间升序。
+     */
+    public static List<Instant> exceptDatesOf(@Nullable ScheduleEvent.Spec spec) {
+        RecurrenceRule rule = RecurrenceRule.of(spec);
+        return rule == null ? List.of() : rule.exceptDates().stream().sorted().toList();
+    }
+
+    /**
+     * 返回系列在 [from, to]（UTC 毫秒，空表示不设边界）内的各次实例，按开始时间升序；
+     * 不是重复事件时原样返回。重叠判定与 ScheduleEventIndex.overlaps 一致。
+     */
+    public static List<ScheduleEvent> expand(ScheduleEvent event, @Nullable Long from,
+        @Nullable Long to) {
+        RecurrenceRule rule = RecurrenceRule.of(event.getSpec());
+        if (rule == null) {
+            return List.of(event);
+        }
+        List<ScheduleEvent> occurrences = new ArrayList<>();
+        Iterator<Instant> starts = rule.starts(from == null ? null : Instant.ofEpochMilli(from));
+        while (starts.hasNext() && occurrences.size() < MAX_OCCURRENCES_PER_QUERY) {
+            Instant start = starts.next();
+            if (to != null && start.toEpochMilli() > to) {
+                break;
+            }
+            Instant end = start.plus(rule.duration());
+            if (from != null && end.toEpochMilli() < from) {
+                continue;
+            }
+            occurrences.add(occurrenceOf(event, start, end));
+        }
+        return occurrences;
+    }
+
+    private static ScheduleEvent occurrenceOf(ScheduleEvent series, Instant start, Instant end) {
+        var seriesMetadata = series.getMetadata();
+        var metadata = new Metadata();
+        metadata.setName(seriesMetadata.getName() + "-" + start.getEpochSecond());
+        metadata.setVersion(seriesMetadata.getVersion());
+        metadata.setCreationTimestamp(seriesMetadata.getCreationTimestamp());
+        metadata.setLabels(seriesMetadata.getLabels());
+        var annotations = seriesMetadata.getAnnotations() == null
+            ? new HashMap<String, String>()
+            : new HashMap<>(seriesMetadata.getAnnotations());
+        annotations.put(SERIES_ANNOTATION, seriesMetadata.getName());
+        metadata.setAnnotations(annotations);
+
+        var spec = new ScheduleEvent.Spec();
+        BeanUtils.copyProperties(series.getSpec(), spec);
+        spec.setStartAt(IcsText.SPEC_INSTANT.format(start));
+        spec.setEndAt(StringUtils.isBlank(series.getSpec().getEndAt()) ? null
+            : IcsText.SPEC_INSTANT.format(end));
+        spec.setRecurrence(null);
+
+        var status = new ScheduleEvent.Status();
+        status.setStartAtEpochMillis(start.toEpochMilli());
+        status.setEffectiveEndAtEpochMillis(end.toEpochMilli());
+
+        var occurrence = new ScheduleEvent();
+        occurrence.setApiVersion(series.getApiVersion());
+        occurrence.setKind(series.getKind());
+        occurrence.setMetadata(metadata);
+        occurrence.setSpec(spec);
+        occurrence.setStatus(status);
+        return occurrence;
+    }
+}
@@ -2,11 +2,30 @@ package com.bi1kbu.pluginschedule.service;
 
 import com.bi1kbu.pluginschedule.ScheduleCalendarQuery;
 import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.vo.CalendarCatalogItem;
+import com.bi1kbu.pluginschedule.vo.CalendarMonthDensity;
+import java.time.YearMonth;
+import java.util.List;
+import org.springframework.lang.Nullable;
 import reactor.core.publisher.Mono;
 import run.halo.app.extension.ListResult;
 
 public interface ScheduleCalendarService {
     Mono<ListResult<ScheduleCalendar>> listCalendars(ScheduleCalendarQuery query);
 
+    Mono<ScheduleCalendar> getCalendar(String name);
+
+    Mono<List<CalendarCatalogItem>> listPublicCatalog();
+
+    /**
+     * 扫描日历的全部事件重算统计并写回。日常由 CalendarStatsTracker 增量维护，
+     * 此方法只作为增量状态存疑时的手动修复入口。
+     */
     Mono<ScheduleCalendar> refreshCalendarStats(String calendarName);
+
+    /**
+     * 日历在 [from, to] 内各月的事件条数及前后最近的非空月份，直接读取增量维护的计数，不查询事件。
+     */
+    Mono<CalendarMonthDensity> getMonthDensity(String calendarName, @Nullable YearMonth from,
+        @Nullable YearMonth to, boolean days);
 }
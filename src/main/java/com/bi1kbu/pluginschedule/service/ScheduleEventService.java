@@ -2,9 +2,20 @@ package com.bi1kbu.pluginschedule.service;
 
 import com.bi1kbu.pluginschedule.ScheduleEventQuery;
 import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.vo.ScheduleScrollResult;
 import reactor.core.publisher.Mono;
 import run.halo.app.extension.ListResult;
 
 public interface ScheduleEventService {
     Mono<ListResult<ScheduleEvent>> listEvents(ScheduleEventQuery query);
+
+    /**
+     * 按开始时间、名称升序的游标分页，忽略 page 与 sort 参数。
+     */
+    Mono<ScheduleScrollResult<ScheduleEvent>> scrollEvents(ScheduleEventQuery query);
+
+    /**
+     * 与 {@link #listEvents} 相同条件下的匹配条数，只查内存计数或索引，不加载事件对象。
+     */
+    Mono<Long> countEvents(ScheduleEventQuery query);
 }
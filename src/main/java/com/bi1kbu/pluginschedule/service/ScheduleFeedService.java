@@ -0,0 +1,23 @@
+package com.bi1kbu.pluginschedule.service;
+
+import java.time.Instant;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ScheduleFeedService {
+
+    /**
+     * 获取日历的 iCalendar 订阅源，日历不存在或未公开时返回空。
+     * <p>
+     * 返回的 body 是惰性的，只在真正需要响应体时才会渲染或读取缓存。
+     */
+    Mono<Feed> getFeed(String calendarName);
+
+    /**
+     * @param etag 事件索引尚未就绪时为空，此时不缓存也不参与条件请求
+     */
+    record Feed(@Nullable String etag, Instant lastModified, Flux<DataBuffer> body) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.bi1kbu.pluginschedule.service;
+
+import com.bi1kbu.pluginschedule.vo.ScheduleImportResult;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ScheduleImportService {
+
+    /**
+     * 流式导入 iCalendar 文本中的 VEVENT，日历不存在时返回空。
+     */
+    Mono<ScheduleImportResult> importIcs(String calendarName, Flux<DataBuffer> body);
+}
@@ -2,11 +2,27 @@ package com.bi1kbu.pluginschedule.service;
 
 import com.bi1kbu.pluginschedule.ScheduleLogQuery;
 import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.vo.ScheduleScrollResult;
 import reactor.core.publisher.Mono;
 import run.halo.app.extension.ListResult;
 
 public interface ScheduleLogService {
     Mono<ListResult<ScheduleLog>> listLogs(ScheduleLogQuery query);
 
+    /**
+     * 按 actionAt、名称倒序的游标分页，只覆盖线上日志，忽略 page 与 sort 参数。
+     */
+    Mono<ScheduleScrollResult<ScheduleLog>> scrollLogs(ScheduleLogQuery query);
+
+    /**
+     * 与 {@link #listLogs} 相同条件下的匹配条数，线上部分只查索引，不加载日志对象。
+     */
+    Mono<Long> countLogs(ScheduleLogQuery query);
+
     Mono<ScheduleLog> recordLog(ScheduleLog log);
+
+    /**
+     * 开启异步写入且队列未满时入队并返回空，否则同步写入并返回创建结果。
+     */
+    Mono<ScheduleLog> submitLog(ScheduleLog log);
 }
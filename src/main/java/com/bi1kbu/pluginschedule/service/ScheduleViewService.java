@@ -0,0 +1,10 @@
+package com.bi1kbu.pluginschedule.service;
+
+import com.bi1kbu.pluginschedule.vo.ScheduleViewBundle;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+public interface ScheduleViewService {
+    Mono<ScheduleViewBundle> getView(String calendarName, String from, String to,
+        String upcomingFrom, @Nullable String upcomingTo);
+}
@@ -0,0 +1,86 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * 时间窗口查询在展开重复系列之后按请求的 sort 在内存中排序。
+ * <p>
+ * 只支持存储侧同样能排序的字段（插件注册的索引字段与 metadata.name/creationTimestamp），
+ * 其余字段报 400；排序键相同时按开始时间、名称升序，与索引返回的顺序一致。
+ */
+final class EventSorts {
+
+    static final Comparator<ScheduleEvent> START_ORDER = Comparator
+        .comparingLong(EventSorts::startOf)
+        .thenComparing(event -> event.getMetadata().getName());
+
+    private static final Map<String, Comparator<ScheduleEvent>> PROPERTIES = Map.of(
+        "spec.startAt", Comparator.comparingLong(EventSorts::startOf),
+        "status.startAtEpochMillis", Comparator.comparingLong(EventSorts::startOf),
+        "status.effectiveEndAtEpochMillis", Comparator.comparingLong(EventSorts::effectiveEndOf),
+        "spec.calendarName", nullsLast(event -> event.getSpec().getCalendarName()),
+        "spec.status", nullsLast(event -> event.getSpec().getStatus()),
+        "spec.relatedPostName", nullsLast(event -> event.getSpec().getRelatedPostName()),
+        "metadata.name", nullsLast(event -> event.getMetadata().getName()),
+        "metadata.creationTimestamp",
+        nullsLast((ScheduleEvent event) -> event.getMetadata().getCreationTimestamp()));
+
+    private EventSorts() {
+    }
+
+    /**
+     * 未指定排序时返回 null，表示沿用索引的开始时间顺序。
+     */
+    @Nullable
+    static Comparator<ScheduleEvent> of(Sort sort) {
+        if (sort.isUnsorted()) {
+            return null;
+        }
+        Comparator<ScheduleEvent> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ScheduleEvent> property = PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new ServerWebInputException(
+                    "sort by " + order.getProperty() + " is not supported");
+            }
+            if (order.isDescending()) {
+                property = property.reversed();
+            }
+            comparator = comparator == null ? property : comparator.thenComparing(property);
+        }
+        return comparator.thenComparing(START_ORDER);
+    }
+
+    /**
+     * 优先读索引按 spec 填充的 status，没有时再解析 spec。
+     */
+    private static long startOf(ScheduleEvent event) {
+        var status = event.getStatus();
+        if (status != null && status.getStartAtEpochMillis() != null) {
+            return status.getStartAtEpochMillis();
+        }
+        Long start = EventTimes.startOf(event.getSpec());
+        return start == null ? Long.MAX_VALUE : start;
+    }
+
+    private static long effectiveEndOf(ScheduleEvent event) {
+        var status = event.getStatus();
+        if (status != null && status.getEffectiveEndAtEpochMillis() != null) {
+            return status.getEffectiveEndAtEpochMillis();
+        }
+        Long end = EventTimes.effectiveEndOf(event.getSpec());
+        return end == null ? Long.MAX_VALUE : end;
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<ScheduleEvent> nullsLast(
+        Function<ScheduleEvent, T> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+}
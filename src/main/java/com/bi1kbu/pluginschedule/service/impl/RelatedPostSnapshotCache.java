@@ -0,0 +1,144 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static run.halo.app.extension.index.query.Queries.in;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 关联文章链接的共享缓存，容量与存活时间均有上限，文章变更时由 RelatedPostReconciler 失效。
+ * <p>
+ * 只缓存已发布、公开且未删除文章的链接，其余情况缓存为空串，避免重复查询。
+ */
+@Component
+public class RelatedPostSnapshotCache {
+
+    private static final int MAX_ENTRIES = 2048;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final ReactiveExtensionClient client;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public RelatedPostSnapshotCache(ReactiveExtensionClient client) {
+        this.client = client;
+    }
+
+    public void invalidate(String postName) {
+        synchronized (entries) {
+            entries.remove(postName);
+        }
+    }
+
+    /**
+     * 为缺少 relatedPostPermalinkSnapshot 的事件填充链接，返回副本，不修改传入的事件。
+     */
+    public Mono<List<ScheduleEvent>> fillPermalinks(List<ScheduleEvent> events) {
+        Set<String> postNames = new LinkedHashSet<>();
+        for (ScheduleEvent event : events) {
+            if (needsPermalink(event)) {
+                postNames.add(event.getSpec().getRelatedPostName());
+            }
+        }
+        if (postNames.isEmpty()) {
+            return Mono.just(events);
+        }
+        return resolvePermalinks(postNames)
+            .map(permalinks -> events.stream()
+                .map(event -> {
+                    if (!needsPermalink(event)) {
+                        return event;
+                    }
+                    String permalink = permalinks.get(event.getSpec().getRelatedPostName());
+                    return StringUtils.isBlank(permalink) ? event : withPermalink(event, permalink);
+                })
+                .toList());
+    }
+
+    private Mono<Map<String, String>> resolvePermalinks(Set<String> postNames) {
+        Map<String, String> resolved = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            for (String postName : postNames) {
+                Entry entry = entries.get(postName);
+                if (entry != null && entry.expiresAt() > now) {
+                    resolved.put(postName, entry.permalink());
+                } else {
+                    missing.add(postName);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(resolved);
+        }
+        var listOptions = ListOptions.builder()
+            .andQuery(in("metadata.name", missing))
+            .build();
+        return client.listAll(Post.class, listOptions, Sort.unsorted())
+            .collectMap(post -> post.getMetadata().getName(), this::publicPermalinkOf)
+            .map(found -> {
+                long expiresAt = System.currentTimeMillis() + TTL.toMillis();
+                synchronized (entries) {
+                    for (String postName : missing) {
+                        String permalink = found.getOrDefault(postName, "");
+                        entries.put(postName, new Entry(permalink, expiresAt));
+                        resolved.put(postName, permalink);
+                    }
+                }
+                return resolved;
+            });
+    }
+
+    private String publicPermalinkOf(Post post) {
+        if (post.getSpec() == null || post.getStatus() == null) {
+            return "";
+        }
+        if (!post.isPublished() || post.isDeleted()
+            || !Post.VisibleEnum.PUBLIC.equals(post.getSpec().getVisible())) {
+            return "";
+        }
+        return StringUtils.defaultString(post.getStatus().getPermalink());
+    }
+
+    private static boolean needsPermalink(ScheduleEvent event) {
+        var spec = event.getSpec();
+        return spec != null
+            && StringUtils.isNotBlank(spec.getRelatedPostName())
+            && StringUtils.isBlank(spec.getRelatedPostPermalinkSnapshot());
+    }
+
+    private static ScheduleEvent withPermalink(ScheduleEvent event, String permalink) {
+        var spec = new ScheduleEvent.Spec();
+        BeanUtils.copyProperties(event.getSpec(), spec);
+        spec.setRelatedPostPermalinkSnapshot(permalink);
+        var copy = new ScheduleEvent();
+        copy.setApiVersion(event.getApiVersion());
+        copy.setKind(event.getKind());
+        copy.setMetadata(event.getMetadata());
+        copy.setSpec(spec);
+        return copy;
+    }
+
+    private record Entry(String permalink, long expiresAt) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static run.halo.app.extension.index.query.Queries.isNull;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.vo.CalendarCatalogItem;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 公开日历目录的内存缓存，日历变更时由 ScheduleCalendarReconciler 失效。
+ */
+@Component
+public class ScheduleCalendarCatalog {
+
+    private final ReactiveExtensionClient client;
+
+    private volatile Mono<List<CalendarCatalogItem>> cached;
+
+    public ScheduleCalendarCatalog(ReactiveExtensionClient client) {
+        this.client = client;
+    }
+
+    public Mono<List<CalendarCatalogItem>> get() {
+        Mono<List<CalendarCatalogItem>> current = cached;
+        if (current == null) {
+            current = load().cache();
+            cached = current;
+        }
+        return current;
+    }
+
+    public void invalidate() {
+        cached = null;
+    }
+
+    private Mono<List<CalendarCatalogItem>> load() {
+        var listOptions = ListOptions.builder()
+            .andQuery(isNull("metadata.deletionTimestamp"))
+            .build();
+        return client.listAll(ScheduleCalendar.class, listOptions, Sort.by("spec.displayName"))
+            .filter(this::isVisible)
+            .map(this::toItem)
+            .collectList()
+            .doOnError(error -> invalidate());
+    }
+
+    private boolean isVisible(ScheduleCalendar calendar) {
+        return calendar.getSpec() != null && !Boolean.FALSE.equals(calendar.getSpec().getVisible());
+    }
+
+    private CalendarCatalogItem toItem(ScheduleCalendar calendar) {
+        var spec = calendar.getSpec();
+        var status = Optional.ofNullable(calendar.getStatus()).orElseGet(ScheduleCalendar.Status::new);
+        return new CalendarCatalogItem(
+            calendar.getMetadata().getName(),
+            spec.getDisplayName(),
+            spec.getThemeColor(),
+            status.getRangeStartMonth(),
+            status.getRangeEndMonth(),
+            status.getRangeEndDate());
+    }
+}
@@ -1,16 +1,30 @@
 package com.bi1kbu.pluginschedule.service.impl;
 
 import static run.halo.app.extension.index.query.Queries.equal;
+import static run.halo.app.extension.index.query.Queries.isNull;
 
 import com.bi1kbu.pluginschedule.ScheduleCalendarQuery;
 import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
 import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
 import com.bi1kbu.pluginschedule.service.ScheduleCalendarService;
+import com.bi1kbu.pluginschedule.stats.CalendarStats;
+import com.bi1kbu.pluginschedule.stats.CalendarStatsAccumulator;
+import com.bi1kbu.pluginschedule.stats.MonthDensityTracker;
+import com.bi1kbu.pluginschedule.vo.CalendarCatalogItem;
+import com.bi1kbu.pluginschedule.vo.CalendarMonthDensity;
 import java.time.Duration;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
@@ -19,20 +33,37 @@ import run.halo.app.extension.ListResult;
 import run.halo.app.extension.PageRequestImpl;
 import run.halo.app.extension.ReactiveExtensionClient;
 
+@Slf4j
 @Component
 public class ScheduleCalendarServiceImpl implements ScheduleCalendarService {
 
-    private static final Pattern MONTH_KEY_PATTERN = Pattern.compile("\\d{4}-\\d{2}");
-    private static final Pattern DATE_KEY_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final String REFRESH_STATS = "refresh-stats";
+    private static final Duration REFRESH_DEBOUNCE = Duration.ofMillis(300);
 
     private final ReactiveExtensionClient client;
+    private final ScheduleCalendarCatalog scheduleCalendarCatalog;
+    private final ScheduleEventIndex scheduleEventIndex;
+    private final MonthDensityTracker monthDensityTracker;
+    private final ScheduleMetrics metrics;
+    // 尚未开始扫描的刷新轮次，同一日历的请求在此合并
+    private final Map<String, Mono<ScheduleCalendar>> pendingRefreshes =
+        new ConcurrentHashMap<>();
+    // 最近一次开始的刷新轮次，下一轮等它结束后再扫描
+    private final Map<String, Mono<ScheduleCalendar>> lastRefreshes = new ConcurrentHashMap<>();
 
-    public ScheduleCalendarServiceImpl(ReactiveExtensionClient client) {
+    public ScheduleCalendarServiceImpl(ReactiveExtensionClient client,
+        ScheduleCalendarCatalog scheduleCalendarCatalog, ScheduleEventIndex scheduleEventIndex,
+        MonthDensityTracker monthDensityTracker, ScheduleMetrics metrics) {
         this.client = client;
+        this.scheduleCalendarCatalog = scheduleCalendarCatalog;
+        this.scheduleEventIndex = scheduleEventIndex;
+        this.monthDensityTracker = monthDensityTracker;
+        this.metrics = metrics;
     }
 
     @Override
     public Mono<ListResult<ScheduleCalendar>> listCalendars(ScheduleCalendarQuery query) {
+        metrics.recordPageSize("calendars", query.getSize());
         return client.listBy(
             ScheduleCalendar.class,
             query.toListOptions(),
@@ -40,87 +71,102 @@ public class ScheduleCalendarServiceImpl implements ScheduleCalendarService {
         );
     }
 
+    @Override
+    public Mono<ScheduleCalendar> getCalendar(String name) {
+        if (StringUtils.isBlank(name)) {
+            return Mono.empty();
+        }
+        return client.fetch(ScheduleCalendar.class, name)
+            .filter(calendar -> calendar.getMetadata().getDeletionTimestamp() == null);
+    }
+
+    @Override
+    public Mono<List<CalendarCatalogItem>> listPublicCatalog() {
+        return scheduleCalendarCatalog.get();
+    }
+
+    /**
+     * 同一日历的刷新按轮次合并：防抖窗口内到达的请求共享同一次扫描与写入的结果；
+     * 扫描开始后到达的请求进入下一轮，下一轮等上一轮写完再扫描，保证结果包含请求前的全部变更。
+     * <p>
+     * 轮次先构造、以 putIfAbsent 装入，只有装入成功的调用方启动它，并发时落选的轮次从未订阅，直接丢弃。
+     */
     @Override
     public Mono<ScheduleCalendar> refreshCalendarStats(String calendarName) {
         if (StringUtils.isBlank(calendarName)) {
             return Mono.empty();
         }
-        return Mono.defer(() -> refreshCalendarStatsOnce(calendarName))
-            .retryWhen(Retry.fixedDelay(2, Duration.ofMillis(100)));
+        Mono<ScheduleCalendar> pending = pendingRefreshes.get(calendarName);
+        if (pending != null) {
+            return pending;
+        }
+        var previous = new AtomicReference<Mono<ScheduleCalendar>>(Mono.empty());
+        Mono<ScheduleCalendar> round = newRefreshRound(calendarName, previous);
+        Mono<ScheduleCalendar> installed = pendingRefreshes.putIfAbsent(calendarName, round);
+        if (installed != null) {
+            return installed;
+        }
+        Mono<ScheduleCalendar> last = lastRefreshes.put(calendarName, round);
+        if (last != null) {
+            previous.set(last);
+        }
+        // 轮次自行运行，不受某个调用方取消订阅的影响；失败由各调用方各自收到
+        round.doFinally(signal -> lastRefreshes.remove(calendarName, round))
+            .subscribe(null, error -> log.debug("Failed to refresh stats of calendar {}",
+                calendarName, error));
+        return round;
+    }
+
+    /**
+     * 构造尚未订阅的一轮刷新：防抖后等上一轮结束，开始扫描时把自己移出待合并表。
+     */
+    private Mono<ScheduleCalendar> newRefreshRound(String calendarName,
+        AtomicReference<Mono<ScheduleCalendar>> previous) {
+        var self = new AtomicReference<Mono<ScheduleCalendar>>();
+        Mono<ScheduleCalendar> round = Mono.delay(REFRESH_DEBOUNCE)
+            .then(Mono.defer(() -> previous.get().onErrorResume(error -> Mono.empty()).then()))
+            .then(Mono.defer(() -> {
+                pendingRefreshes.remove(calendarName, self.get());
+                return Mono.defer(() -> refreshCalendarStatsOnce(calendarName))
+                    .retryWhen(metrics.countRetries(REFRESH_STATS,
+                        Retry.fixedDelay(2, Duration.ofMillis(100))));
+            }))
+            .cache();
+        self.set(round);
+        return round;
+    }
+
+    @Override
+    public Mono<CalendarMonthDensity> getMonthDensity(String calendarName,
+        @Nullable YearMonth from, @Nullable YearMonth to, boolean days) {
+        if (StringUtils.isBlank(calendarName)) {
+            return Mono.empty();
+        }
+        // 计数随索引加载一并建立，加载完成前等待
+        return scheduleEventIndex.awaitReady()
+            .then(Mono.fromSupplier(
+                () -> monthDensityTracker.densityOf(calendarName.trim(), from, to, days)));
     }
 
     private Mono<ScheduleCalendar> refreshCalendarStatsOnce(String calendarName) {
         return client.fetch(ScheduleCalendar.class, calendarName)
             .flatMap(calendar -> calculateCalendarStats(calendarName)
                 .flatMap(stats -> {
-                    var status = calendar.getStatusOrDefault();
-                    status.setEventCount(stats.eventCount());
-                    status.setRangeStartMonth(stats.rangeStartMonth());
-                    status.setRangeEndMonth(stats.rangeEndMonth());
-                    status.setRangeEndDate(stats.rangeEndDate());
-                    return client.update(calendar);
+                    stats.applyTo(calendar.getStatusOrDefault());
+                    return client.update(calendar)
+                        .doOnError(OptimisticLockingFailureException.class,
+                            e -> metrics.recordConflict(REFRESH_STATS));
                 }));
     }
 
     private Mono<CalendarStats> calculateCalendarStats(String calendarName) {
+        // 与 CalendarStatsTracker 一致，只统计未被删除的日程
         var listOptions = ListOptions.builder()
             .andQuery(equal("spec.calendarName", calendarName))
+            .andQuery(isNull("metadata.deletionTimestamp"))
             .build();
         return client.listAll(ScheduleEvent.class, listOptions, Sort.unsorted())
-            .collectList()
-            .map(this::calculateStatsFromEvents);
-    }
-
-    private CalendarStats calculateStatsFromEvents(List<ScheduleEvent> events) {
-        String minMonth = null;
-        String maxMonth = null;
-        String maxDate = null;
-        for (ScheduleEvent event : events) {
-            if (event == null || event.getSpec() == null) {
-                continue;
-            }
-            String startDateKey = extractDateKey(event.getSpec().getStartAt());
-            String endDateKey = extractDateKey(event.getSpec().getEndAt());
-            String effectiveStartDate = StringUtils.isNotBlank(startDateKey) ? startDateKey : endDateKey;
-            String effectiveEndDate = StringUtils.isNotBlank(endDateKey) ? endDateKey : startDateKey;
-            String startMonthKey = extractMonthKey(effectiveStartDate);
-            String endMonthKey = extractMonthKey(effectiveEndDate);
-            if (startMonthKey != null && (minMonth == null || startMonthKey.compareTo(minMonth) < 0)) {
-                minMonth = startMonthKey;
-            }
-            if (endMonthKey != null && (maxMonth == null || endMonthKey.compareTo(maxMonth) > 0)) {
-                maxMonth = endMonthKey;
-            }
-            if (effectiveEndDate != null && (maxDate == null || effectiveEndDate.compareTo(maxDate) > 0)) {
-                maxDate = effectiveEndDate;
-            }
-        }
-        return new CalendarStats(events.size(), minMonth, maxMonth, maxDate);
-    }
-
-    private String extractDateKey(String dateTimeText) {
-        if (StringUtils.isBlank(dateTimeText) || dateTimeText.length() < 10) {
-            return null;
-        }
-        String dateKey = dateTimeText.substring(0, 10);
-        if (!DATE_KEY_PATTERN.matcher(dateKey).matches()) {
-            return null;
-        }
-        return dateKey;
-    }
-
-    private String extractMonthKey(String startAt) {
-        if (StringUtils.isBlank(startAt) || startAt.length() < 7) {
-            return null;
-        }
-        String monthKey = startAt.substring(0, 7);
-        if (!MONTH_KEY_PATTERN.matcher(monthKey).matches()) {
-            return null;
-        }
-        return monthKey;
-    }
-
-    private record CalendarStats(int eventCount, String rangeStartMonth, String rangeEndMonth,
-                                 String rangeEndDate) {
+            .collect(CalendarStatsAccumulator::new, CalendarStatsAccumulator::accept)
+            .map(CalendarStatsAccumulator::toStats);
     }
 }
@@ -0,0 +1,161 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import com.bi1kbu.pluginschedule.ScheduleEventQuery;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventListener;
+import com.bi1kbu.pluginschedule.vo.QueryCacheStats;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListResult;
+
+/**
+ * 按日历分区的事件查询结果缓存，按条目数与权重（缓存的事件条数）双重限制容量，LRU 淘汰。
+ * <p>
+ * 事件或日历变更时整体失效对应日历的条目；加载期间发生的失效通过分代号识别，旧结果不会回填。
+ */
+@Component
+public class ScheduleEventQueryCache implements ScheduleEventListener {
+
+    static final int MAX_ENTRIES = 1024;
+    static final long MAX_WEIGHT = 50_000;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<QueryKey, ListResult<ScheduleEvent>> entries =
+        new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Long> generations = new HashMap<>();
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * 仅缓存指定了日历的查询，其余查询直接走 loader。
+     */
+    public Mono<ListResult<ScheduleEvent>> get(ScheduleEventQuery query,
+        Supplier<Mono<ListResult<ScheduleEvent>>> loader) {
+        Optional<QueryKey> key = QueryKey.of(query);
+        if (key.isEmpty()) {
+            return loader.get();
+        }
+        return Mono.defer(() -> {
+            QueryKey cacheKey = key.get();
+            long generation;
+            synchronized (lock) {
+                ListResult<ScheduleEvent> cached = entries.get(cacheKey);
+                if (cached != null) {
+                    hits++;
+                    return Mono.just(cached);
+                }
+                misses++;
+                generation = generations.getOrDefault(cacheKey.calendar(), 0L);
+            }
+            return loader.get().doOnNext(result -> put(cacheKey, generation, result));
+        });
+    }
+
+    public void invalidate(String calendarName) {
+        synchronized (lock) {
+            generations.merge(calendarName, 1L, Long::sum);
+            Iterator<Map.Entry<QueryKey, ListResult<ScheduleEvent>>> iterator =
+                entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (entry.getKey().calendar().equals(calendarName)) {
+                    weight -= weightOf(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public QueryCacheStats stats() {
+        synchronized (lock) {
+            return new QueryCacheStats(hits, misses, evictions, entries.size(), weight, MAX_WEIGHT);
+        }
+    }
+
+    @Override
+    public void onEventChanged(@Nullable ScheduleEvent previous, @Nullable ScheduleEvent current) {
+        String previousCalendar = calendarOf(previous);
+        String currentCalendar = calendarOf(current);
+        if (previousCalendar != null) {
+            invalidate(previousCalendar);
+        }
+        if (currentCalendar != null && !currentCalendar.equals(previousCalendar)) {
+            invalidate(currentCalendar);
+        }
+    }
+
+    private void put(QueryKey key, long generation, ListResult<ScheduleEvent> result) {
+        long entryWeight = weightOf(result);
+        if (entryWeight > MAX_WEIGHT) {
+            return;
+        }
+        synchronized (lock) {
+            if (generations.getOrDefault(key.calendar(), 0L) != generation) {
+                return;
+            }
+            ListResult<ScheduleEvent> previous = entries.put(key, result);
+            if (previous != null) {
+                weight -= weightOf(previous);
+            }
+            weight += entryWeight;
+            Iterator<ListResult<ScheduleEvent>> eldest = entries.values().iterator();
+            while ((entries.size() > MAX_ENTRIES || weight > MAX_WEIGHT) && eldest.hasNext()) {
+                weight -= weightOf(eldest.next());
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    private static long weightOf(ListResult<ScheduleEvent> result) {
+        return result.getItems().size() + 1L;
+    }
+
+    @Nullable
+    private static String calendarOf(@Nullable ScheduleEvent event) {
+        if (event == null || event.getSpec() == null) {
+            return null;
+        }
+        return StringUtils.trimToNull(event.getSpec().getCalendarName());
+    }
+
+    /**
+     * from/to 按换算后的 UTC 毫秒比较，同一时刻的不同写法（Z、偏移、仅日期）命中同一条目。
+     */
+    record QueryKey(String calendar, @Nullable Long from, @Nullable Long to, String status,
+                    int page, int size, String sort, List<String> labelSelector,
+                    List<String> fieldSelector) {
+
+        static Optional<QueryKey> of(ScheduleEventQuery query) {
+            String calendar = query.getCalendar();
+            if (calendar == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new QueryKey(calendar,
+                query.getFromEpochMillis(),
+                query.getToEpochMillis(),
+                StringUtils.defaultString(query.getStatus()),
+                query.getPage(),
+                query.getSize(),
+                query.getSort().toString(),
+                listOrEmpty(query.getLabelSelector()),
+                listOrEmpty(query.getFieldSelector())));
+        }
+
+        private static List<String> listOrEmpty(@Nullable List<String> values) {
+            return values == null ? List.of() : List.copyOf(values);
+        }
+    }
+}
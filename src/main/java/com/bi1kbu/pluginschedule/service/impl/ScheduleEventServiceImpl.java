@@ -1,10 +1,28 @@
 package com.bi1kbu.pluginschedule.service.impl;
 
+import static run.halo.app.extension.index.query.Queries.and;
+import static run.halo.app.extension.index.query.Queries.equal;
+import static run.halo.app.extension.index.query.Queries.greaterThan;
+import static run.halo.app.extension.index.query.Queries.isNotNull;
+import static run.halo.app.extension.index.query.Queries.or;
+
+import com.bi1kbu.pluginschedule.ScheduleCursor;
 import com.bi1kbu.pluginschedule.ScheduleEventQuery;
 import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import com.bi1kbu.pluginschedule.index.ScheduleEventCounts;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
 import com.bi1kbu.pluginschedule.service.ScheduleEventService;
+import com.bi1kbu.pluginschedule.vo.ScheduleScrollResult;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.ListResult;
 import run.halo.app.extension.PageRequestImpl;
 import run.halo.app.extension.ReactiveExtensionClient;
@@ -12,18 +30,189 @@ import run.halo.app.extension.ReactiveExtensionClient;
 @Component
 public class ScheduleEventServiceImpl implements ScheduleEventService {
 
+    private static final String QUERY_NAME = "events";
+    private static final String START_INDEX = "status.startAtEpochMillis";
+    private static final Sort SCROLL_SORT = Sort.by(Sort.Order.asc(START_INDEX),
+        Sort.Order.asc("metadata.name"));
+
     private final ReactiveExtensionClient client;
+    private final ScheduleEventIndex scheduleEventIndex;
+    private final ScheduleEventCounts eventCounts;
+    private final ScheduleEventQueryCache queryCache;
+    private final ScheduleMetrics metrics;
 
-    public ScheduleEventServiceImpl(ReactiveExtensionClient client) {
+    public ScheduleEventServiceImpl(ReactiveExtensionClient client,
+        ScheduleEventIndex scheduleEventIndex, ScheduleEventCounts eventCounts,
+        ScheduleEventQueryCache queryCache, ScheduleMetrics metrics) {
         this.client = client;
+        this.scheduleEventIndex = scheduleEventIndex;
+        this.eventCounts = eventCounts;
+        this.queryCache = queryCache;
+        this.metrics = metrics;
     }
 
     @Override
     public Mono<ListResult<ScheduleEvent>> listEvents(ScheduleEventQuery query) {
+        metrics.recordPageSize(QUERY_NAME, query.getSize());
+        return queryCache.get(query, () -> queryEvents(query));
+    }
+
+    private Mono<ListResult<ScheduleEvent>> queryEvents(ScheduleEventQuery query) {
+        if (canServeFromIndex(query)) {
+            Comparator<ScheduleEvent> order = EventSorts.of(query.getSort());
+            return scheduleEventIndex
+                .findOverlapping(query.getCalendar(), query.getFromEpochMillis(),
+                    query.getToEpochMillis())
+                .map(events -> {
+                    List<ScheduleEvent> matched = filterByStatus(events, query.getStatus());
+                    if (order != null) {
+                        matched = matched.stream().sorted(order).toList();
+                    }
+                    var page = toPage(matched, query.getPage(), query.getSize());
+                    metrics.recordQuery(QUERY_NAME, "index", events.size(),
+                        page.getItems().size());
+                    return page;
+                });
+        }
+        // 带选择器或不限日历/时间窗口时由 Halo 按索引查询，返回存储中的对象，重复系列不展开
         return client.listBy(
-            ScheduleEvent.class,
-            query.toListOptions(),
-            PageRequestImpl.of(query.getPage(), query.getSize(), query.getSort())
-        );
+                ScheduleEvent.class,
+                query.toListOptions(),
+                PageRequestImpl.of(query.getPage(), query.getSize(), query.getCanonicalSort())
+            )
+            .doOnNext(page -> {
+                page.getItems().forEach(EventTimes::fillStatus);
+                metrics.recordQuery(QUERY_NAME, "store", page.getTotal(),
+                    page.getItems().size());
+            });
+    }
+
+    @Override
+    public Mono<ScheduleScrollResult<ScheduleEvent>> scrollEvents(ScheduleEventQuery query) {
+        ScheduleCursor after = query.getCursor();
+        int size = ScheduleCursor.sizeOf(query.getSize());
+        if (canServeFromIndex(query)) {
+            Long afterStart = after == null ? null : after.longKey();
+            return scheduleEventIndex
+                .findOverlapping(query.getCalendar(), query.getFromEpochMillis(),
+                    query.getToEpochMillis())
+                .map(events -> {
+                    int first = after == null ? 0 : firstAfter(events, afterStart, after.name());
+                    List<ScheduleEvent> fetched = new ArrayList<>(size + 1);
+                    for (int i = first; i < events.size() && fetched.size() <= size; i++) {
+                        ScheduleEvent event = events.get(i);
+                        if (matchesStatus(event, query.getStatus())) {
+                            fetched.add(event);
+                        }
+                    }
+                    metrics.recordQuery(QUERY_NAME, "index", events.size(),
+                        Math.min(fetched.size(), size));
+                    return ScheduleScrollResult.of(fetched, size,
+                        ScheduleEventServiceImpl::cursorOf);
+                });
+        }
+        var builder = ListOptions.builder(query.toListOptions())
+            .andQuery(isNotNull(START_INDEX));
+        if (after != null) {
+            long start = after.longKey();
+            builder.andQuery(or(greaterThan(START_INDEX, start),
+                and(equal(START_INDEX, start), greaterThan("metadata.name", after.name()))));
+        }
+        return client.listBy(ScheduleEvent.class, builder.build(),
+                PageRequestImpl.of(1, size + 1, SCROLL_SORT))
+            .map(result -> {
+                result.getItems().forEach(EventTimes::fillStatus);
+                metrics.recordQuery(QUERY_NAME, "store", result.getItems().size(),
+                    Math.min(result.getItems().size(), size));
+                return ScheduleScrollResult.of(result.getItems(), size,
+                    ScheduleEventServiceImpl::cursorOf);
+            });
+    }
+
+    /**
+     * 按存储中的事件计数，重复系列只计一次；带窗口时计在窗口内至少有一次实例的事件。
+     * 与不带窗口的列表 total 一致，带窗口的列表展开为实例，total 可能更大。
+     */
+    @Override
+    public Mono<Long> countEvents(ScheduleEventQuery query) {
+        if (canServeFromIndex(query)) {
+            return scheduleEventIndex
+                .findOverlappingSeries(query.getCalendar(), query.getFromEpochMillis(),
+                    query.getToEpochMillis())
+                .map(events -> (long) filterByStatus(events, query.getStatus()).size());
+        }
+        if (StringUtils.isAllBlank(query.getFrom(), query.getTo()) && !query.hasSelectors()) {
+            return scheduleEventIndex.awaitReady()
+                .then(Mono.fromSupplier(
+                    () -> eventCounts.count(query.getCalendar(), query.getStatus())));
+        }
+        // 其余条件由 Halo 按索引求 total，只取回一条对象
+        return client.listBy(ScheduleEvent.class, query.toListOptions(),
+                PageRequestImpl.of(1, 1, Sort.unsorted()))
+            .map(ListResult::getTotal);
+    }
+
+    private static String cursorOf(ScheduleEvent event) {
+        return new ScheduleCursor(String.valueOf(EventTimes.startOf(event.getSpec())),
+            event.getMetadata().getName()).encode();
+    }
+
+    private static boolean isCalendarWindow(ScheduleEventQuery query) {
+        return StringUtils.isNotBlank(query.getCalendar())
+            && !StringUtils.isAllBlank(query.getFrom(), query.getTo());
+    }
+
+    /**
+     * 指定日历与时间窗口、且不带选择器的查询由内存索引回答，重复系列展开为实例后再按 sort 排序，
+     * 不同 sort 得到的是同一组结果。
+     */
+    private static boolean canServeFromIndex(ScheduleEventQuery query) {
+        return isCalendarWindow(query) && !query.hasSelectors();
+    }
+
+    private List<ScheduleEvent> filterByStatus(List<ScheduleEvent> events, String status) {
+        if (StringUtils.isBlank(status)) {
+            return events;
+        }
+        return events.stream()
+            .filter(event -> matchesStatus(event, status))
+            .toList();
+    }
+
+    private static boolean matchesStatus(ScheduleEvent event, String status) {
+        return StringUtils.isBlank(status) || status.equals(event.getSpec().getStatus());
+    }
+
+    /**
+     * 在按（开始时间, 名称）升序的索引结果中二分查找第一条严格排在游标之后的位置。
+     */
+    private static int firstAfter(List<ScheduleEvent> events, long start, String name) {
+        int low = 0;
+        int high = events.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            ScheduleEvent event = events.get(mid);
+            // 索引只收录开始时间可解析的事件
+            int byStart = Long.compare(EventTimes.startOf(event.getSpec()), start);
+            int compared = byStart != 0 ? byStart : event.getMetadata().getName().compareTo(name);
+            if (compared <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private ListResult<ScheduleEvent> toPage(List<ScheduleEvent> events, int page, int size) {
+        if (size <= 0) {
+            return new ListResult<>(page, size, events.size(), events);
+        }
+        long offset = (long) (Math.max(page, 1) - 1) * size;
+        if (offset >= events.size()) {
+            return new ListResult<>(page, size, events.size(), List.of());
+        }
+        int end = (int) Math.min(offset + size, events.size());
+        return new ListResult<>(page, size, events.size(), events.subList((int) offset, end));
     }
 }
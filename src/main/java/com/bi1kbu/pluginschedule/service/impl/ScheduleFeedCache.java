@@ -0,0 +1,39 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已渲染的订阅源缓存，每个日历保留一份，以 ETag 判断是否过期；日历变更时由
+ * ScheduleCalendarReconciler 失效。
+ */
+@Component
+public class ScheduleFeedCache {
+
+    /**
+     * 超过该大小的订阅源只流式输出，不缓存。
+     */
+    static final int MAX_CACHED_BYTES = 4 * 1024 * 1024;
+
+    private final Map<String, CachedFeed> feeds = new ConcurrentHashMap<>();
+
+    @Nullable
+    CachedFeed get(String calendarName, String etag) {
+        CachedFeed feed = feeds.get(calendarName);
+        return feed != null && feed.etag().equals(etag) ? feed : null;
+    }
+
+    void put(String calendarName, CachedFeed feed) {
+        feeds.put(calendarName, feed);
+    }
+
+    public void invalidate(String calendarName) {
+        feeds.remove(calendarName);
+    }
+
+    record CachedFeed(String etag, List<byte[]> chunks) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static run.halo.app.extension.index.query.Queries.equal;
+import static run.halo.app.extension.index.query.Queries.isNull;
+
+import com.bi1kbu.pluginschedule.cache.ScheduleVersions;
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.ics.IcsFeedWriter;
+import com.bi1kbu.pluginschedule.service.ScheduleFeedService;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleFeedCache.CachedFeed;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.PageRequestImpl;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 按 spec.calendarName 索引分页读取事件，每页渲染为一个数据块流式输出，不在内存中
+ * 汇总完整列表；渲染结果在未超过上限时顺带写入 {@link ScheduleFeedCache}。
+ */
+@Component
+public class ScheduleFeedServiceImpl implements ScheduleFeedService {
+
+    static final int PAGE_SIZE = 200;
+
+    private static final String DISCRIMINATOR = "feed.ics";
+    private static final Sort FEED_ORDER = Sort.by("spec.startAt", "metadata.name");
+
+    private final ReactiveExtensionClient client;
+    private final ScheduleVersions scheduleVersions;
+    private final ScheduleFeedCache scheduleFeedCache;
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    public ScheduleFeedServiceImpl(ReactiveExtensionClient client,
+        ScheduleVersions scheduleVersions, ScheduleFeedCache scheduleFeedCache) {
+        this.client = client;
+        this.scheduleVersions = scheduleVersions;
+        this.scheduleFeedCache = scheduleFeedCache;
+    }
+
+    @Override
+    public Mono<Feed> getFeed(String calendarName) {
+        return client.fetch(ScheduleCalendar.class, calendarName)
+            .filter(calendar -> calendar.getMetadata().getDeletionTimestamp() == null)
+            .filter(calendar -> calendar.getSpec() != null
+                && !Boolean.FALSE.equals(calendar.getSpec().getVisible()))
+            .map(calendar -> {
+                Optional<String> etag = scheduleVersions.eventsEtag(calendarName, DISCRIMINATOR);
+                Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+                if (etag.isEmpty()) {
+                    return new Feed(null, now, toBuffers(render(calendar, now)));
+                }
+                // Last-Modified 取数据的变化时间而非渲染时间，
+                // 未缓存的订阅源也能按 If-Modified-Since 返回 304
+                Instant lastModified = scheduleVersions.lastModified(calendarName);
+                CachedFeed cached = scheduleFeedCache.get(calendarName, etag.get());
+                if (cached != null) {
+                    return new Feed(cached.etag(), lastModified,
+                        toBuffers(Flux.fromIterable(cached.chunks())));
+                }
+                Flux<byte[]> chunks = capture(calendarName, etag.get(), render(calendar, now));
+                return new Feed(etag.get(), lastModified, toBuffers(chunks));
+            });
+    }
+
+    private Flux<byte[]> render(ScheduleCalendar calendar, Instant renderedAt) {
+        Flux<byte[]> events = Flux.defer(() -> {
+            // 每个 TZID 只在第一次被引用前输出一次 VTIMEZONE
+            Set<ZoneId> zones = new HashSet<>();
+            return listPage(calendar.getMetadata().getName(), 1)
+                .expand(page -> page.hasNext()
+                    ? listPage(calendar.getMetadata().getName(), page.getPage() + 1)
+                    : Mono.empty())
+                .filter(page -> !page.getItems().isEmpty())
+                .map(page -> {
+                    var text = new StringBuilder(page.getItems().size() * 256);
+                    for (ScheduleEvent event : page.getItems()) {
+                        String rendered = IcsFeedWriter.event(event, renderedAt);
+                        if (rendered == null) {
+                            continue;
+                        }
+                        ZoneId zone = IcsFeedWriter.zoneOf(event);
+                        if (zone != null && zones.add(zone)) {
+                            text.append(IcsFeedWriter.timezone(zone));
+                        }
+                        text.append(rendered);
+                    }
+                    return bytesOf(text.toString());
+                });
+        });
+        return Flux.concat(
+            Mono.fromSupplier(() -> bytesOf(IcsFeedWriter.header(calendar))),
+            events,
+            Mono.fromSupplier(() -> bytesOf(IcsFeedWriter.footer())));
+    }
+
+    private Mono<ListResult<ScheduleEvent>> listPage(String calendarName, int page) {
+        var options = ListOptions.builder()
+            .andQuery(equal("spec.calendarName", calendarName))
+            .andQuery(isNull("metadata.deletionTimestamp"))
+            .build();
+        return client.listBy(ScheduleEvent.class, options,
+            PageRequestImpl.of(page, PAGE_SIZE, FEED_ORDER));
+    }
+
+    /**
+     * 边输出边收集数据块，完整输出且期间版本未变化时写入缓存。
+     */
+    private Flux<byte[]> capture(String calendarName, String etag, Flux<byte[]> chunks) {
+        return Flux.defer(() -> {
+            List<byte[]> collected = new ArrayList<>();
+            long[] size = {0};
+            return chunks
+                .doOnNext(chunk -> {
+                    size[0] += chunk.length;
+                    if (size[0] <= ScheduleFeedCache.MAX_CACHED_BYTES) {
+                        collected.add(chunk);
+                    }
+                })
+                .doOnComplete(() -> {
+                    boolean unchanged = scheduleVersions.eventsEtag(calendarName, DISCRIMINATOR)
+                        .filter(etag::equals)
+                        .isPresent();
+                    if (unchanged && size[0] <= ScheduleFeedCache.MAX_CACHED_BYTES) {
+                        scheduleFeedCache.put(calendarName,
+                            new CachedFeed(etag, List.copyOf(collected)));
+                    }
+                });
+        });
+    }
+
+    private Flux<DataBuffer> toBuffers(Flux<byte[]> chunks) {
+        return chunks.map(bufferFactory::wrap);
+    }
+
+    private static byte[] bytesOf(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,241 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.ics.IcsEvent;
+import com.bi1kbu.pluginschedule.ics.IcsEventReader;
+import com.bi1kbu.pluginschedule.ics.IcsText;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import com.bi1kbu.pluginschedule.service.ScheduleCalendarService;
+import com.bi1kbu.pluginschedule.service.ScheduleImportService;
+import com.bi1kbu.pluginschedule.vo.ScheduleImportResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+@Slf4j
+@Component
+public class ScheduleImportServiceImpl implements ScheduleImportService {
+
+    static final int WRITE_CONCURRENCY = 8;
+
+    /**
+     * 重复系列上记录的、因 RECURRENCE-ID 单独导入而排除的实例开始时间（逗号分隔），
+     * 再次导入时与 EXDATE 一起写回 exceptDates，内容不变时不会重复更新。
+     */
+    static final String OVERRIDDEN_ANNOTATION = "schedule.bi1kbu.com/ics-overridden-starts";
+
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+    private static final String UNTITLED = "（无标题）";
+
+    private final ReactiveExtensionClient client;
+    private final ScheduleCalendarService scheduleCalendarService;
+    private final ScheduleMetrics metrics;
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes();
+
+    public ScheduleImportServiceImpl(ReactiveExtensionClient client,
+        ScheduleCalendarService scheduleCalendarService, ScheduleMetrics metrics) {
+        this.client = client;
+        this.scheduleCalendarService = scheduleCalendarService;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ScheduleImportResult> importIcs(String calendarName, Flux<DataBuffer> body) {
+        return client.fetch(ScheduleCalendar.class, calendarName)
+            .filter(calendar -> calendar.getMetadata().getDeletionTimestamp() == null)
+            .flatMap(calendar -> {
+                var skipped = new AtomicLong();
+                Map<String, Set<String>> overridden = new ConcurrentHashMap<>();
+                Flux<String> lines = lineDecoder.decode(body, STRING_TYPE, null, null);
+                return IcsEventReader.read(lines, skipped::incrementAndGet)
+                    .distinct(IcsEvent::key)
+                    .doOnNext(event -> {
+                        if (event.overriddenStart() != null) {
+                            overridden.computeIfAbsent(eventNameOf(calendarName, event.uid()),
+                                    key -> ConcurrentHashMap.newKeySet())
+                                .add(IcsText.SPEC_INSTANT.format(event.overriddenStart()));
+                        }
+                    })
+                    .flatMap(event -> upsert(calendarName, event)
+                        .onErrorResume(error -> {
+                            log.warn("Failed to import iCalendar event {} into {}", event.uid(),
+                                calendarName, error);
+                            return Mono.just(Outcome.FAILED);
+                        }), WRITE_CONCURRENCY)
+                    .collect(() -> new EnumMap<Outcome, Long>(Outcome.class),
+                        (counts, outcome) -> counts.merge(outcome, 1L, Long::sum))
+                    .flatMap(counts -> Flux.fromIterable(overridden.entrySet())
+                        .concatMap(entry -> excludeOverridden(entry.getKey(), entry.getValue()))
+                        .then(scheduleCalendarService.refreshCalendarStats(calendarName))
+                        .then(Mono.fromSupplier(() -> toResult(counts, skipped.get()))));
+            });
+    }
+
+    private Mono<Outcome> upsert(String calendarName, IcsEvent imported) {
+        String name = eventNameOf(calendarName, imported);
+        return client.fetch(ScheduleEvent.class, name)
+            .flatMap(existing -> {
+                if (!apply(existing, calendarName, imported)) {
+                    return Mono.just(Outcome.UNCHANGED);
+                }
+                return client.update(existing)
+                    .doOnError(OptimisticLockingFailureException.class,
+                        e -> metrics.recordConflict("import"))
+                    .thenReturn(Outcome.UPDATED);
+            })
+            .switchIfEmpty(Mono.defer(() -> {
+                var event = new ScheduleEvent();
+                var metadata = new Metadata();
+                metadata.setName(name);
+                event.setMetadata(metadata);
+                event.setSpec(new ScheduleEvent.Spec());
+                apply(event, calendarName, imported);
+                return client.create(event).thenReturn(Outcome.CREATED);
+            }));
+    }
+
+    /**
+     * 所有事件写完后，把单独导入的实例从其重复系列中排除，避免同一实例出现两次。
+     * 系列不在本次文件或库中、或不是重复系列时忽略。
+     */
+    private Mono<Void> excludeOverridden(String seriesName, Set<String> starts) {
+        return client.fetch(ScheduleEvent.class, seriesName)
+            .filter(series -> series.getSpec() != null
+                && series.getSpec().getRecurrence() != null)
+            .flatMap(series -> {
+                Set<String> merged = new TreeSet<>(overriddenOf(series));
+                if (!merged.addAll(starts)) {
+                    return Mono.<Void>empty();
+                }
+                setOverridden(series, merged);
+                var recurrence = series.getSpec().getRecurrence();
+                recurrence.setExceptDates(mergeExceptDates(recurrence.getExceptDates(), merged));
+                return client.update(series)
+                    .doOnError(OptimisticLockingFailureException.class,
+                        e -> metrics.recordConflict("import"))
+                    .then();
+            })
+            .onErrorResume(error -> {
+                log.warn("Failed to exclude overridden instances from {}", seriesName, error);
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * 以日历名与 UID（及 RECURRENCE-ID）生成确定的名称，重复导入同一文件会更新而不是新建。
+     */
+    static String eventNameOf(String calendarName, IcsEvent event) {
+        return eventNameOf(calendarName, event.key());
+    }
+
+    private static String eventNameOf(String calendarName, String eventKey) {
+        String key = calendarName + "\n" + eventKey;
+        return "ics-" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 只覆盖 iCalendar 提供的字段，关联文章与突出显示设置保持不变；返回是否有变化。
+     */
+    private static boolean apply(ScheduleEvent target, String calendarName, IcsEvent event) {
+        var spec = target.getSpec();
+        List<Object> before = snapshotOf(spec);
+        spec.setCalendarName(calendarName);
+        spec.setTitle(StringUtils.defaultIfBlank(event.title(), UNTITLED));
+        spec.setStartAt(IcsText.SPEC_INSTANT.format(event.start()));
+        if (event.end() == null) {
+            spec.setEndAt(null);
+        } else {
+            var end = event.allDay() ? IcsText.endOfDay(event.end()) : event.end();
+            spec.setEndAt(IcsText.SPEC_INSTANT.format(end));
+        }
+        spec.setAllDay(event.allDay());
+        spec.setTimezone(event.timezone());
+        spec.setSummary(event.description());
+        spec.setStatus("CANCELLED".equalsIgnoreCase(event.status()) ? "cancelled" : "published");
+        var recurrence = event.recurrence();
+        if (recurrence != null) {
+            Set<String> overridden = overriddenOf(target);
+            if (!overridden.isEmpty()) {
+                recurrence.setExceptDates(
+                    mergeExceptDates(recurrence.getExceptDates(), overridden));
+            }
+        }
+        spec.setRecurrence(recurrence);
+        return !Objects.equals(before, snapshotOf(spec));
+    }
+
+    private static List<Object> snapshotOf(ScheduleEvent.Spec spec) {
+        var recurrence = spec.getRecurrence();
+        return Arrays.asList(spec.getCalendarName(), spec.getTitle(), spec.getStartAt(),
+            spec.getEndAt(), spec.getAllDay(), spec.getTimezone(), spec.getSummary(),
+            spec.getStatus(),
+            recurrence == null ? null : Arrays.asList(recurrence.getFrequency(),
+                recurrence.getInterval(), recurrence.getByDay(), recurrence.getCount(),
+                recurrence.getUntil(), recurrence.getExceptDates()));
+    }
+
+    private static Set<String> overriddenOf(ScheduleEvent event) {
+        var annotations = event.getMetadata().getAnnotations();
+        String value = annotations == null ? null : annotations.get(OVERRIDDEN_ANNOTATION);
+        if (StringUtils.isBlank(value)) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(","))
+            .filter(StringUtils::isNotBlank)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static void setOverridden(ScheduleEvent event, Set<String> starts) {
+        var metadata = event.getMetadata();
+        var annotations = metadata.getAnnotations() == null
+            ? new HashMap<String, String>()
+            : new HashMap<>(metadata.getAnnotations());
+        annotations.put(OVERRIDDEN_ANNOTATION, String.join(",", starts));
+        metadata.setAnnotations(annotations);
+    }
+
+    private static List<String> mergeExceptDates(@Nullable List<String> exceptDates,
+        Set<String> overridden) {
+        Set<String> merged = new TreeSet<>(overridden);
+        if (exceptDates != null) {
+            merged.addAll(exceptDates);
+        }
+        return List.copyOf(merged);
+    }
+
+    private static ScheduleImportResult toResult(Map<Outcome, Long> counts, long skipped) {
+        return new ScheduleImportResult(
+            counts.getOrDefault(Outcome.CREATED, 0L),
+            counts.getOrDefault(Outcome.UPDATED, 0L),
+            counts.getOrDefault(Outcome.UNCHANGED, 0L),
+            skipped,
+            counts.getOrDefault(Outcome.FAILED, 0L));
+    }
+
+    private enum Outcome {
+        CREATED, UPDATED, UNCHANGED, FAILED
+    }
+}
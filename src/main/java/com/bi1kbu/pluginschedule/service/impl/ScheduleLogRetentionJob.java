@@ -0,0 +1,312 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static run.halo.app.extension.index.query.Queries.isNull;
+import static run.halo.app.extension.index.query.Queries.lessThan;
+import static run.halo.app.extension.index.query.Queries.notEqual;
+
+import com.bi1kbu.pluginschedule.archive.ScheduleLogArchive;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog.ChangeDetail;
+import com.bi1kbu.pluginschedule.ics.IcsText;
+import com.bi1kbu.pluginschedule.setting.LogSetting;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.PageRequestImpl;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.plugin.ReactiveSettingFetcher;
+
+/**
+ * 日志保留任务：按保留天数与条数上限，从最早的日志开始分批删除。
+ * <p>
+ * 开启汇总时，删除前把每批日志按天累加到 daily-rollup 记录中（按操作类型与操作人计数），
+ * 汇总记录本身不参与清理，并记下已计入的最后一条日志，删除失败后重跑不会重复计数；
+ * 开启归档时，删除前先写入 {@link ScheduleLogArchive}。
+ */
+@Slf4j
+@Component
+public class ScheduleLogRetentionJob {
+
+    public static final String ROLLUP_ACTION_TYPE = "daily-rollup";
+    public static final String ROLLED_UP_THROUGH_ANNOTATION =
+        "schedule.bi1kbu.com/rolled-up-through";
+
+    static final Duration INITIAL_DELAY = Duration.ofMinutes(5);
+    static final Duration PERIOD = Duration.ofHours(1);
+    static final int BATCH_SIZE = 200;
+    static final int MAX_DELETES_PER_RUN = 10_000;
+    static final int DELETE_CONCURRENCY = 4;
+
+    private static final String ROLLUP_OPERATOR = "system";
+    private static final Sort OLDEST_FIRST = Sort.by("spec.actionAt", "metadata.name");
+
+    private final ReactiveExtensionClient client;
+    private final ReactiveSettingFetcher settingFetcher;
+    private final ScheduleLogArchive archive;
+
+    private Disposable task;
+
+    public ScheduleLogRetentionJob(ReactiveExtensionClient client,
+        ReactiveSettingFetcher settingFetcher, ScheduleLogArchive archive) {
+        this.client = client;
+        this.settingFetcher = settingFetcher;
+        this.archive = archive;
+    }
+
+    public synchronized void start() {
+        if (task != null && !task.isDisposed()) {
+            return;
+        }
+        task = Flux.interval(INITIAL_DELAY, PERIOD)
+            .onBackpressureDrop()
+            .concatMap(tick -> runOnce()
+                .onErrorResume(error -> {
+                    log.warn("Schedule log retention run failed", error);
+                    return Mono.empty();
+                }), 1)
+            .subscribe();
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.dispose();
+            task = null;
+        }
+    }
+
+    /**
+     * 执行一次清理，返回删除的日志条数。
+     */
+    public Mono<Long> runOnce() {
+        return settingFetcher.fetch(LogSetting.GROUP, LogSetting.class)
+            .defaultIfEmpty(LogSetting.DEFAULT)
+            .flatMap(setting -> purgeExpired(setting)
+                .flatMap(expired -> purgeOverflow(setting, MAX_DELETES_PER_RUN - expired)
+                    .map(overflow -> expired + overflow)))
+            .doOnNext(deleted -> {
+                if (deleted > 0) {
+                    log.info("Schedule log retention deleted {} logs", deleted);
+                }
+            });
+    }
+
+    private Mono<Long> purgeExpired(LogSetting setting) {
+        int retentionDays = setting.retentionDaysOrZero();
+        if (retentionDays == 0) {
+            return Mono.just(0L);
+        }
+        // 截止到整天，保证每日汇总覆盖完整的一天
+        String cutoff = Instant.now()
+            .truncatedTo(ChronoUnit.DAYS)
+            .minus(Duration.ofDays(retentionDays))
+            .toString();
+        var options = ListOptions.builder(liveLogOptions())
+            .andQuery(lessThan("spec.actionAt", cutoff))
+            .build();
+        return purge(options, MAX_DELETES_PER_RUN, setting);
+    }
+
+    private Mono<Long> purgeOverflow(LogSetting setting, long budget) {
+        int maxCount = setting.maxCountOrZero();
+        if (maxCount == 0 || budget <= 0) {
+            return Mono.just(0L);
+        }
+        var options = liveLogOptions();
+        return client.listBy(ScheduleLog.class, options, PageRequestImpl.of(1, 1, Sort.unsorted()))
+            .map(page -> page.getTotal() - maxCount)
+            .filter(excess -> excess > 0)
+            .flatMap(excess -> purge(options, Math.min(excess, budget), setting))
+            .defaultIfEmpty(0L);
+    }
+
+    private Mono<Long> purge(ListOptions options, long remaining, LogSetting setting) {
+        if (remaining <= 0) {
+            return Mono.just(0L);
+        }
+        int size = (int) Math.min(BATCH_SIZE, remaining);
+        return client.listBy(ScheduleLog.class, options, PageRequestImpl.of(1, size, OLDEST_FIRST))
+            .flatMap(page -> {
+                List<ScheduleLog> batch = page.getItems();
+                if (batch.isEmpty()) {
+                    return Mono.just(0L);
+                }
+                Mono<Void> rolledUp = setting.isRollup() ? rollUp(batch) : Mono.empty();
+                Mono<Void> archived = setting.isArchive() ? archive.append(batch) : Mono.empty();
+                return rolledUp
+                    .then(archived)
+                    .then(delete(batch))
+                    .then(Mono.defer(() -> purge(options, remaining - batch.size(), setting)))
+                    .map(deleted -> deleted + batch.size());
+            });
+    }
+
+    private Mono<Void> delete(List<ScheduleLog> batch) {
+        return Flux.fromIterable(batch)
+            .flatMap(client::delete, DELETE_CONCURRENCY)
+            .then();
+    }
+
+    private Mono<Void> rollUp(List<ScheduleLog> batch) {
+        Map<String, List<ScheduleLog>> logsByDay = new TreeMap<>();
+        for (ScheduleLog scheduleLog : batch) {
+            var spec = scheduleLog.getSpec();
+            String actionAt = spec == null ? null : spec.getActionAt();
+            if (StringUtils.length(actionAt) < 10) {
+                continue;
+            }
+            logsByDay.computeIfAbsent(actionAt.substring(0, 10), day -> new ArrayList<>())
+                .add(scheduleLog);
+        }
+        return Flux.fromIterable(logsByDay.entrySet())
+            .concatMap(entry -> mergeRollup(entry.getKey(), entry.getValue()))
+            .then();
+    }
+
+    /**
+     * 汇总记录的 {@link #ROLLED_UP_THROUGH_ANNOTATION} 记下已计入的最后一条日志，
+     * 日志按 (actionAt, name) 升序清理，不晚于它的日志说明上次已汇总但未删除成功，不再重复计数。
+     */
+    private Mono<ScheduleLog> mergeRollup(String day, List<ScheduleLog> logs) {
+        String name = "schedule-log-rollup-" + day;
+        return client.fetch(ScheduleLog.class, name)
+            .flatMap(existing -> {
+                String through = rolledUpThrough(existing);
+                List<ScheduleLog> fresh = logs.stream()
+                    .filter(scheduleLog -> through == null
+                        || rollupKey(scheduleLog).compareTo(through) > 0)
+                    .toList();
+                if (fresh.isEmpty()) {
+                    return Mono.just(existing);
+                }
+                var spec = existing.getSpec();
+                spec.setDetails(mergeDetails(spec.getDetails(), countsOf(fresh)));
+                spec.setSummary(summaryOf(day, spec.getDetails()));
+                markRolledUpThrough(existing, fresh);
+                return client.update(existing);
+            })
+            .switchIfEmpty(Mono.defer(() -> client.create(newRollup(name, day, logs))));
+    }
+
+    private ScheduleLog newRollup(String name, String day, List<ScheduleLog> logs) {
+        var rollup = new ScheduleLog();
+        var metadata = new Metadata();
+        metadata.setName(name);
+        rollup.setMetadata(metadata);
+        var spec = new ScheduleLog.Spec();
+        spec.setActionType(ROLLUP_ACTION_TYPE);
+        spec.setOperator(ROLLUP_OPERATOR);
+        spec.setActionAt(day + "T00:00:00Z");
+        spec.setDetails(mergeDetails(null, countsOf(logs)));
+        spec.setSummary(summaryOf(day, spec.getDetails()));
+        rollup.setSpec(spec);
+        markRolledUpThrough(rollup, logs);
+        return rollup;
+    }
+
+    private static Map<String, Long> countsOf(List<ScheduleLog> logs) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (ScheduleLog scheduleLog : logs) {
+            var spec = scheduleLog.getSpec();
+            counts.merge("actionType:" + StringUtils.defaultString(spec.getActionType()), 1L,
+                Long::sum);
+            counts.merge("operator:" + StringUtils.defaultString(spec.getOperator()), 1L,
+                Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 按时间先后比较日志的键。历史日志的 actionAt 由 {@link Instant#toString()} 写入，
+     * 小数秒位数不固定，直接比较字符串会把 10:00:00.5Z 排在 10:00:00Z 之前，
+     * 因此先统一为毫秒精度的定长格式，再以 name 区分同一时刻的日志。
+     */
+    private static String rollupKey(ScheduleLog scheduleLog) {
+        String actionAt = scheduleLog.getSpec().getActionAt();
+        try {
+            actionAt = IcsText.SPEC_INSTANT.format(Instant.parse(actionAt));
+        } catch (DateTimeParseException e) {
+            // 无法解析的时间按原文比较
+        }
+        return actionAt + "/" + scheduleLog.getMetadata().getName();
+    }
+
+    private static String rolledUpThrough(ScheduleLog rollup) {
+        var annotations = rollup.getMetadata().getAnnotations();
+        return annotations == null ? null : annotations.get(ROLLED_UP_THROUGH_ANNOTATION);
+    }
+
+    private static void markRolledUpThrough(ScheduleLog rollup, List<ScheduleLog> counted) {
+        String last = counted.stream()
+            .map(ScheduleLogRetentionJob::rollupKey)
+            .max(Comparator.naturalOrder())
+            .orElseThrow();
+        var metadata = rollup.getMetadata();
+        var annotations = metadata.getAnnotations() == null
+            ? new HashMap<String, String>()
+            : new HashMap<>(metadata.getAnnotations());
+        annotations.put(ROLLED_UP_THROUGH_ANNOTATION, last);
+        metadata.setAnnotations(annotations);
+    }
+
+    /**
+     * 计数保存在 details 中：field 为 actionType:xxx 或 operator:xxx，newValue 为条数。
+     */
+    private static List<ChangeDetail> mergeDetails(List<ChangeDetail> details,
+        Map<String, Long> counts) {
+        Map<String, Long> merged = new TreeMap<>();
+        if (details != null) {
+            for (ChangeDetail detail : details) {
+                merged.merge(detail.getField(), parseCount(detail.getNewValue()), Long::sum);
+            }
+        }
+        counts.forEach((field, count) -> merged.merge(field, count, Long::sum));
+        List<ChangeDetail> result = new ArrayList<>(merged.size());
+        merged.forEach((field, count) -> {
+            var detail = new ChangeDetail();
+            detail.setField(field);
+            detail.setLabel(StringUtils.substringAfter(field, ":"));
+            detail.setNewValue(Long.toString(count));
+            result.add(detail);
+        });
+        return result;
+    }
+
+    private static String summaryOf(String day, List<ChangeDetail> details) {
+        long total = details.stream()
+            .filter(detail -> detail.getField().startsWith("actionType:"))
+            .mapToLong(detail -> parseCount(detail.getNewValue()))
+            .sum();
+        return day + " 共清理 " + total + " 条日志";
+    }
+
+    private static long parseCount(String value) {
+        try {
+            return Long.parseLong(StringUtils.trimToEmpty(value));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static ListOptions liveLogOptions() {
+        return ListOptions.builder()
+            .andQuery(isNull("metadata.deletionTimestamp"))
+            .andQuery(notEqual("spec.actionType", ROLLUP_ACTION_TYPE))
+            .build();
+    }
+}
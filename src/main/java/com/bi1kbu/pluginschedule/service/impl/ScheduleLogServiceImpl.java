@@ -1,34 +1,275 @@
 package com.bi1kbu.pluginschedule.service.impl;
 
+import static run.halo.app.extension.index.query.Queries.and;
+import static run.halo.app.extension.index.query.Queries.equal;
+import static run.halo.app.extension.index.query.Queries.in;
+import static run.halo.app.extension.index.query.Queries.isNotNull;
+import static run.halo.app.extension.index.query.Queries.lessThan;
+import static run.halo.app.extension.index.query.Queries.or;
+
+import com.bi1kbu.pluginschedule.ScheduleCursor;
 import com.bi1kbu.pluginschedule.ScheduleLogQuery;
+import com.bi1kbu.pluginschedule.archive.ArchiveFilter;
+import com.bi1kbu.pluginschedule.archive.ScheduleLogArchive;
 import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.index.ScheduleLogKeywordIndex;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
 import com.bi1kbu.pluginschedule.service.ScheduleLogService;
+import com.bi1kbu.pluginschedule.setting.LogSetting;
+import com.bi1kbu.pluginschedule.vo.ScheduleScrollResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.ListResult;
 import run.halo.app.extension.PageRequestImpl;
 import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.plugin.ReactiveSettingFetcher;
 
 @Component
 public class ScheduleLogServiceImpl implements ScheduleLogService {
 
+    private static final String QUERY_NAME = "logs";
+    private static final String ACTION_AT_INDEX = "spec.actionAt";
+    private static final Sort SCROLL_SORT = Sort.by(Sort.Order.desc(ACTION_AT_INDEX),
+        Sort.Order.desc("metadata.name"));
+
+    /**
+     * 关键字候选超过该条数时（通常是一两个字符的短关键字）不再拼成 metadata.name 的 in 查询，
+     * 改为按其余条件流式扫描存储，再按候选集合过滤。
+     */
+    static final int MAX_KEYWORD_CANDIDATES = 1000;
+
     private final ReactiveExtensionClient client;
+    private final ScheduleLogKeywordIndex keywordIndex;
+    private final ScheduleLogWriteBuffer writeBuffer;
+    private final ReactiveSettingFetcher settingFetcher;
+    private final ScheduleLogArchive archive;
+    private final ScheduleMetrics metrics;
 
-    public ScheduleLogServiceImpl(ReactiveExtensionClient client) {
+    public ScheduleLogServiceImpl(ReactiveExtensionClient client,
+        ScheduleLogKeywordIndex keywordIndex, ScheduleLogWriteBuffer writeBuffer,
+        ReactiveSettingFetcher settingFetcher, ScheduleLogArchive archive,
+        ScheduleMetrics metrics) {
         this.client = client;
+        this.keywordIndex = keywordIndex;
+        this.writeBuffer = writeBuffer;
+        this.settingFetcher = settingFetcher;
+        this.archive = archive;
+        this.metrics = metrics;
     }
 
     @Override
     public Mono<ListResult<ScheduleLog>> listLogs(ScheduleLogQuery query) {
-        return client.listBy(
-            ScheduleLog.class,
-            query.toListOptions(),
-            PageRequestImpl.of(query.getPage(), query.getSize(), query.getSort())
-        );
+        metrics.recordPageSize(QUERY_NAME, query.getSize());
+        return listLiveLogs(query).flatMap(live -> mergeArchived(query, live));
+    }
+
+    /**
+     * 归档日志都早于线上日志，按 actionAt 倒序时直接接在线上结果之后分页。
+     */
+    private Mono<ListResult<ScheduleLog>> mergeArchived(ScheduleLogQuery query,
+        ListResult<ScheduleLog> live) {
+        if (!isNewestFirst(query.getSort())) {
+            return Mono.just(live);
+        }
+        return archive.isEmpty()
+            .flatMap(empty -> empty ? Mono.just(live) : appendArchived(query, live));
+    }
+
+    private Mono<ListResult<ScheduleLog>> appendArchived(ScheduleLogQuery query,
+        ListResult<ScheduleLog> live) {
+        int size = query.getSize();
+        long offset = size <= 0 ? 0 : (long) (Math.max(query.getPage(), 1) - 1) * size;
+        int wanted = size <= 0 ? Integer.MAX_VALUE : Math.max(0, size - live.getItems().size());
+        var filter = ArchiveFilter.of(query);
+        if (wanted == 0) {
+            // 本页已由线上日志填满，归档只贡献 total
+            return archive.count(filter)
+                .map(archived -> new ListResult<>(live.getPage(), live.getSize(),
+                    live.getTotal() + archived, live.getItems()));
+        }
+        long archiveOffset = Math.max(0, offset - live.getTotal());
+        return archive.find(filter, archiveOffset, wanted)
+            .map(archived -> {
+                metrics.recordQuery(QUERY_NAME, "archive", archived.total(),
+                    archived.items().size());
+                List<ScheduleLog> items = new ArrayList<>(live.getItems());
+                items.addAll(archived.items());
+                return new ListResult<>(live.getPage(), live.getSize(),
+                    live.getTotal() + archived.total(), items);
+            });
+    }
+
+    private static boolean isNewestFirst(Sort sort) {
+        return sort.isUnsorted() || sort.stream()
+            .allMatch(order -> "spec.actionAt".equals(order.getProperty()) && order.isDescending());
+    }
+
+    private Mono<ListResult<ScheduleLog>> listLiveLogs(ScheduleLogQuery query) {
+        var pageRequest = PageRequestImpl.of(query.getPage(), query.getSize(), query.getSort());
+        if (StringUtils.isBlank(query.getKeyword())) {
+            return client.listBy(ScheduleLog.class, query.toListOptions(), pageRequest)
+                .doOnNext(page -> metrics.recordQuery(QUERY_NAME, "store",
+                    page.getTotal(), page.getItems().size()));
+        }
+        return keywordIndex.search(query.getKeyword())
+            .flatMap(names -> {
+                if (names.isEmpty()) {
+                    return Mono.just(new ListResult<>(query.getPage(), query.getSize(), 0L,
+                        List.<ScheduleLog>of()));
+                }
+                if (names.size() > MAX_KEYWORD_CANDIDATES) {
+                    return scanCandidates(query.toListOptions(), query.getSort(), names)
+                        .collect(() -> new PageCollector(query.getPage(), query.getSize()),
+                            PageCollector::accept)
+                        .map(collector -> {
+                            metrics.recordQuery(QUERY_NAME, "keyword-scan", names.size(),
+                                collector.items.size());
+                            return new ListResult<>(query.getPage(), query.getSize(),
+                                collector.total, collector.items);
+                        });
+                }
+                var listOptions = ListOptions.builder(query.toListOptions())
+                    .andQuery(in("metadata.name", names))
+                    .build();
+                // 关键字索引给出的候选条数与过滤、分页后实际返回的条数
+                return client.listBy(ScheduleLog.class, listOptions, pageRequest)
+                    .doOnNext(page -> metrics.recordQuery(QUERY_NAME, "keyword-index",
+                        names.size(), page.getItems().size()));
+            });
+    }
+
+    @Override
+    public Mono<ScheduleScrollResult<ScheduleLog>> scrollLogs(ScheduleLogQuery query) {
+        ScheduleCursor after = query.getCursor();
+        int size = ScheduleCursor.sizeOf(query.getSize());
+        var builder = ListOptions.builder(query.toListOptions())
+            .andQuery(isNotNull(ACTION_AT_INDEX));
+        if (after != null) {
+            builder.andQuery(or(lessThan(ACTION_AT_INDEX, after.key()),
+                and(equal(ACTION_AT_INDEX, after.key()),
+                    lessThan("metadata.name", after.name()))));
+        }
+        var pageRequest = PageRequestImpl.of(1, size + 1, SCROLL_SORT);
+        if (StringUtils.isBlank(query.getKeyword())) {
+            return client.listBy(ScheduleLog.class, builder.build(), pageRequest)
+                .map(result -> toScrollResult(result.getItems(), "store",
+                    result.getItems().size(), size));
+        }
+        return keywordIndex.search(query.getKeyword())
+            .flatMap(names -> {
+                if (names.isEmpty()) {
+                    return Mono.just(new ScheduleScrollResult<>(List.<ScheduleLog>of(), null));
+                }
+                if (names.size() > MAX_KEYWORD_CANDIDATES) {
+                    return scanCandidates(builder.build(), SCROLL_SORT, names)
+                        .take(size + 1L)
+                        .collectList()
+                        .map(fetched -> toScrollResult(fetched, "keyword-scan", names.size(),
+                            size));
+                }
+                builder.andQuery(in("metadata.name", names));
+                return client.listBy(ScheduleLog.class, builder.build(), pageRequest)
+                    .map(result -> toScrollResult(result.getItems(), "keyword-index",
+                        names.size(), size));
+            });
+    }
+
+    @Override
+    public Mono<Long> countLogs(ScheduleLogQuery query) {
+        return countLiveLogs(query).flatMap(live -> {
+            // 与 listLogs 的 total 口径一致：只有按 actionAt 倒序时才计入归档
+            if (!isNewestFirst(query.getSort())) {
+                return Mono.just(live);
+            }
+            return archive.isEmpty().flatMap(empty -> empty ? Mono.just(live)
+                : archive.count(ArchiveFilter.of(query)).map(archived -> live + archived));
+        });
+    }
+
+    private Mono<Long> countLiveLogs(ScheduleLogQuery query) {
+        var pageRequest = PageRequestImpl.of(1, 1, Sort.unsorted());
+        if (StringUtils.isBlank(query.getKeyword())) {
+            return client.listBy(ScheduleLog.class, query.toListOptions(), pageRequest)
+                .map(ListResult::getTotal);
+        }
+        return keywordIndex.search(query.getKeyword())
+            .flatMap(names -> {
+                if (names.isEmpty() || isKeywordOnly(query)) {
+                    return Mono.just((long) names.size());
+                }
+                if (names.size() > MAX_KEYWORD_CANDIDATES) {
+                    return scanCandidates(query.toListOptions(), Sort.unsorted(), names).count();
+                }
+                var listOptions = ListOptions.builder(query.toListOptions())
+                    .andQuery(in("metadata.name", names))
+                    .build();
+                return client.listBy(ScheduleLog.class, listOptions, pageRequest)
+                    .map(ListResult::getTotal);
+            });
+    }
+
+    private static boolean isKeywordOnly(ScheduleLogQuery query) {
+        return StringUtils.isAllBlank(query.getActionType(), query.getOperator(),
+            query.getFromDate(), query.getToDate())
+            && CollectionUtils.isEmpty(query.getLabelSelector())
+            && CollectionUtils.isEmpty(query.getFieldSelector());
+    }
+
+    private Flux<ScheduleLog> scanCandidates(ListOptions listOptions, Sort sort,
+        Set<String> names) {
+        return client.listAll(ScheduleLog.class, listOptions, sort)
+            .filter(scheduleLog -> names.contains(scheduleLog.getMetadata().getName()));
+    }
+
+    private ScheduleScrollResult<ScheduleLog> toScrollResult(List<ScheduleLog> fetched,
+        String source, int candidates, int size) {
+        metrics.recordQuery(QUERY_NAME, source, candidates, Math.min(fetched.size(), size));
+        return ScheduleScrollResult.of(fetched, size, log -> new ScheduleCursor(
+            log.getSpec().getActionAt(), log.getMetadata().getName()).encode());
     }
 
     @Override
     public Mono<ScheduleLog> recordLog(ScheduleLog log) {
-        return client.create(log);
+        return client.create(log)
+            .doOnNext(keywordIndex::upsert);
+    }
+
+    @Override
+    public Mono<ScheduleLog> submitLog(ScheduleLog log) {
+        return settingFetcher.fetch(LogSetting.GROUP, LogSetting.class)
+            .defaultIfEmpty(LogSetting.DEFAULT)
+            .flatMap(setting -> setting.isAsyncWrite() && writeBuffer.offer(log)
+                ? Mono.empty()
+                : recordLog(log));
+    }
+
+    /**
+     * 扫描时只保留请求页内的记录，同时数出匹配总数。
+     */
+    private static final class PageCollector {
+        private final long offset;
+        private final int size;
+        private final List<ScheduleLog> items = new ArrayList<>();
+        private long total;
+
+        PageCollector(int page, int size) {
+            this.offset = size <= 0 ? 0 : (long) (Math.max(page, 1) - 1) * size;
+            this.size = size;
+        }
+
+        void accept(ScheduleLog scheduleLog) {
+            if (total >= offset && (size <= 0 || items.size() < size)) {
+                items.add(scheduleLog);
+            }
+            total++;
+        }
     }
 }
@@ -0,0 +1,108 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.index.ScheduleLogKeywordIndex;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 日志的异步写入队列：有界缓冲，按条数或时间窗口成批写入。
+ * <p>
+ * 队列已满或已关闭时 {@link #offer} 返回 false，由调用方回退为同步写入；
+ * 插件停止时调用 {@link #flush} 写完剩余日志。
+ */
+@Slf4j
+@Component
+public class ScheduleLogWriteBuffer {
+
+    static final int CAPACITY = 1024;
+    static final int MAX_BATCH_SIZE = 50;
+    static final Duration BATCH_WINDOW = Duration.ofMillis(500);
+    static final int WRITE_CONCURRENCY = 4;
+    static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ReactiveExtensionClient client;
+    private final ScheduleLogKeywordIndex keywordIndex;
+
+    private Sinks.Many<ScheduleLog> sink;
+    private Mono<Void> drained;
+    private boolean closed;
+
+    public ScheduleLogWriteBuffer(ReactiveExtensionClient client,
+        ScheduleLogKeywordIndex keywordIndex) {
+        this.client = client;
+        this.keywordIndex = keywordIndex;
+        startDrain();
+    }
+
+    /**
+     * 订阅一条新的写入管道。bufferTimeout 使用公平背压，写入较慢时按时间窗口切出的批次
+     * 会等待下游请求，而不是报溢出错误；管道仍因意外错误终止时记录日志并重新订阅，
+     * 已在旧队列中的日志随之丢弃。
+     */
+    private synchronized void startDrain() {
+        Sinks.Many<ScheduleLog> current =
+            Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(CAPACITY));
+        sink = current;
+        drained = current.asFlux()
+            .bufferTimeout(MAX_BATCH_SIZE, BATCH_WINDOW, true)
+            .concatMap(this::writeBatch)
+            .then()
+            .doOnError(error -> {
+                log.error("Schedule log write buffer failed, restarting", error);
+                restartDrain(current);
+            })
+            .onErrorResume(error -> Mono.empty())
+            .cache();
+        drained.subscribe();
+    }
+
+    private synchronized void restartDrain(Sinks.Many<ScheduleLog> failed) {
+        if (!closed && sink == failed) {
+            startDrain();
+        }
+    }
+
+    public synchronized boolean offer(ScheduleLog scheduleLog) {
+        if (closed) {
+            return false;
+        }
+        return sink.tryEmitNext(scheduleLog).isSuccess();
+    }
+
+    public void flush() {
+        Mono<Void> pending;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sink.tryEmitComplete();
+            pending = drained;
+        }
+        try {
+            pending.block(FLUSH_TIMEOUT);
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush buffered schedule logs within {}", FLUSH_TIMEOUT, e);
+        }
+    }
+
+    private Mono<Void> writeBatch(List<ScheduleLog> batch) {
+        return Flux.fromIterable(batch)
+            .flatMap(scheduleLog -> client.create(scheduleLog)
+                .doOnNext(keywordIndex::upsert)
+                .onErrorResume(error -> {
+                    log.warn("Failed to write buffered schedule log {}",
+                        scheduleLog.getSpec().getActionType(), error);
+                    return Mono.empty();
+                }), WRITE_CONCURRENCY)
+            .then();
+    }
+}
@@ -0,0 +1,105 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.service.ScheduleCalendarService;
+import com.bi1kbu.pluginschedule.service.ScheduleViewService;
+import com.bi1kbu.pluginschedule.vo.ScheduleViewBundle;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+public class ScheduleViewServiceImpl implements ScheduleViewService {
+
+    private final ScheduleCalendarService scheduleCalendarService;
+    private final ScheduleEventIndex scheduleEventIndex;
+    private final RelatedPostSnapshotCache relatedPostSnapshotCache;
+
+    public ScheduleViewServiceImpl(ScheduleCalendarService scheduleCalendarService,
+        ScheduleEventIndex scheduleEventIndex, RelatedPostSnapshotCache relatedPostSnapshotCache) {
+        this.scheduleCalendarService = scheduleCalendarService;
+        this.scheduleEventIndex = scheduleEventIndex;
+        this.relatedPostSnapshotCache = relatedPostSnapshotCache;
+    }
+
+    @Override
+    public Mono<ScheduleViewBundle> getView(String calendarName, String from, String to,
+        String upcomingFrom, @Nullable String upcomingTo) {
+        return scheduleCalendarService.getCalendar(calendarName)
+            .flatMap(calendar -> {
+                String effectiveUpcomingTo = resolveUpcomingTo(calendar, upcomingFrom, upcomingTo);
+                Long fromMillis = EventTimes.toEpochMillis(from, null);
+                Long toMillis = EventTimes.toEpochMillis(to, null);
+                Long upcomingFromMillis = EventTimes.toEpochMillis(upcomingFrom, null);
+                Long upcomingToMillis = EventTimes.toEpochMillis(effectiveUpcomingTo, null);
+                return scheduleEventIndex.findOverlapping(calendarName,
+                        min(fromMillis, upcomingFromMillis), max(toMillis, upcomingToMillis))
+                    .flatMap(relatedPostSnapshotCache::fillPermalinks)
+                    .map(events -> new ScheduleViewBundle(calendar,
+                        filter(events, fromMillis, toMillis),
+                        filter(events, upcomingFromMillis, upcomingToMillis),
+                        upcomingFrom,
+                        effectiveUpcomingTo));
+            });
+    }
+
+    /**
+     * 与前台组件的 resolveUpcomingRange 保持一致：优先使用日历的 rangeEndDate（当天结束），
+     * 早于开始时间时收敛到开始当天，无法解析时使用调用方给出的兜底结束时间或一年后。
+     */
+    private String resolveUpcomingTo(ScheduleCalendar calendar, String upcomingFrom,
+        @Nullable String fallbackTo) {
+        Instant start = Instant.parse(upcomingFrom);
+        String rangeEndDate = calendar.getStatus() == null ? null
+            : StringUtils.trimToNull(calendar.getStatus().getRangeEndDate());
+        if (rangeEndDate != null) {
+            try {
+                Instant end = LocalDate.parse(rangeEndDate)
+                    .plusDays(1)
+                    .atStartOfDay(ZoneOffset.UTC)
+                    .toInstant()
+                    .minusMillis(1);
+                if (end.isBefore(start)) {
+                    end = start.plus(Duration.ofDays(1)).minusMillis(1);
+                }
+                return end.toString();
+            } catch (DateTimeParseException e) {
+                // 无效的 rangeEndDate 按未设置处理
+            }
+        }
+        if (StringUtils.isNotBlank(fallbackTo)) {
+            return fallbackTo;
+        }
+        return start.atOffset(ZoneOffset.UTC).plusYears(1).toInstant().toString();
+    }
+
+    private List<ScheduleEvent> filter(List<ScheduleEvent> events, @Nullable Long from,
+        @Nullable Long to) {
+        return events.stream()
+            .filter(event -> ScheduleEventIndex.overlaps(event, from, to))
+            .toList();
+    }
+
+    /**
+     * 空值表示该侧不设边界，因此取较小的下界时空值优先。
+     */
+    @Nullable
+    private static Long min(@Nullable Long left, @Nullable Long right) {
+        return left == null || right == null ? null : Math.min(left, right);
+    }
+
+    @Nullable
+    private static Long max(@Nullable Long left, @Nullable Long right) {
+        return left == null || right == null ? null : Math.max(left, right);
+    }
+}
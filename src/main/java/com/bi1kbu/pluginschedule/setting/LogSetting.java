@@ -0,0 +1,38 @@
+package com.bi1kbu.pluginschedule.setting;
+
+/**
+ * 插件设置中 log 分组的配置项。
+ */
+public record LogSetting(Boolean asyncWrite, Integer retentionDays, Integer maxCount,
+                         Boolean rollup, Boolean archive) {
+
+    public static final String GROUP = "log";
+
+    public static final LogSetting DEFAULT = new LogSetting(false, 0, 0, true, false);
+
+    public boolean isAsyncWrite() {
+        return Boolean.TRUE.equals(asyncWrite);
+    }
+
+    /**
+     * 日志保留天数，0 或未设置表示不按时间清理。
+     */
+    public int retentionDaysOrZero() {
+        return retentionDays == null ? 0 : Math.max(0, retentionDays);
+    }
+
+    /**
+     * 日志保留条数上限（不含汇总记录），0 或未设置表示不限。
+     */
+    public int maxCountOrZero() {
+        return maxCount == null ? 0 : Math.max(0, maxCount);
+    }
+
+    public boolean isRollup() {
+        return !Boolean.FALSE.equals(rollup);
+    }
+
+    public boolean isArchive() {
+        return Boolean.TRUE.equals(archive);
+    }
+}
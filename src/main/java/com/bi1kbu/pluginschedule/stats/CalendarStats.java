@@ -0,0 +1,24 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import java.util.Objects;
+import org.springframework.lang.Nullable;
+
+public record CalendarStats(int eventCount, String rangeStartMonth, String rangeEndMonth,
+                            String rangeEndDate) {
+
+    public boolean matches(@Nullable ScheduleCalendar.Status status) {
+        return status != null
+            && Objects.equals(status.getEventCount(), eventCount)
+            && Objects.equals(status.getRangeStartMonth(), rangeStartMonth)
+            && Objects.equals(status.getRangeEndMonth(), rangeEndMonth)
+            && Objects.equals(status.getRangeEndDate(), rangeEndDate);
+    }
+
+    public void applyTo(ScheduleCalendar.Status status) {
+        status.setEventCount(eventCount);
+        status.setRangeStartMonth(rangeStartMonth);
+        status.setRangeEndMonth(rangeEndMonth);
+        status.setRangeEndDate(rangeEndDate);
+    }
+}
@@ -0,0 +1,49 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import static com.bi1kbu.pluginschedule.stats.DateKeys.DATE_KEY_LENGTH;
+import static com.bi1kbu.pluginschedule.stats.DateKeys.MONTH_KEY_LENGTH;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.recurrence.Recurrences;
+
+/**
+ * 全量重算日历统计时使用的可变累加器，逐个折叠事件，内存占用与事件数量无关。
+ * <p>
+ * 只保留当前最值所在的原始时间字符串，结束时才截取月份/日期键。
+ */
+public final class CalendarStatsAccumulator {
+
+    private int eventCount;
+    private String minStart;
+    private String maxEnd;
+
+    public void accept(ScheduleEvent event) {
+        eventCount++;
+        if (event == null || event.getSpec() == null) {
+            return;
+        }
+        String startAt = event.getSpec().getStartAt();
+        String endAt = Recurrences.rangeEndAt(event.getSpec());
+        boolean startValid = DateKeys.hasDateKey(startAt);
+        boolean endValid = DateKeys.hasDateKey(endAt);
+        if (!startValid && !endValid) {
+            return;
+        }
+        String effectiveStart = startValid ? startAt : endAt;
+        String effectiveEnd = endValid ? endAt : startAt;
+        if (minStart == null
+            || DateKeys.comparePrefix(effectiveStart, minStart, MONTH_KEY_LENGTH) < 0) {
+            minStart = effectiveStart;
+        }
+        if (maxEnd == null || DateKeys.comparePrefix(effectiveEnd, maxEnd, DATE_KEY_LENGTH) > 0) {
+            maxEnd = effectiveEnd;
+        }
+    }
+
+    public CalendarStats toStats() {
+        return new CalendarStats(eventCount,
+            minStart == null ? null : minStart.substring(0, MONTH_KEY_LENGTH),
+            maxEnd == null ? null : maxEnd.substring(0, MONTH_KEY_LENGTH),
+            maxEnd == null ? null : maxEnd.substring(0, DATE_KEY_LENGTH));
+    }
+}
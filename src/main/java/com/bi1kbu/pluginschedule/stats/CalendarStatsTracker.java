@@ -0,0 +1,159 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventListener;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+/**
+ * 根据事件增量维护每个日历的统计计数，并把结果写回 {@link ScheduleCalendar.Status}。
+ * <p>
+ * 按月份/日期保存事件计数，删除当前最小或最大月份的事件时无需重新扫描；
+ * 同一日历在短时间内的多次变更合并为一次写入。
+ */
+@Slf4j
+@Component
+public class CalendarStatsTracker implements ScheduleEventListener {
+
+    private static final Duration FLUSH_DELAY = Duration.ofMillis(500);
+    private static final String STATS_FLUSH = "stats-flush";
+
+    private final ReactiveExtensionClient client;
+    private final ScheduleMetrics metrics;
+    private final Map<String, Counters> countersByCalendar = new ConcurrentHashMap<>();
+    private final Set<String> pendingFlushes = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    public CalendarStatsTracker(ReactiveExtensionClient client, ScheduleMetrics metrics) {
+        this.client = client;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onEventChanged(@Nullable ScheduleEvent previous, @Nullable ScheduleEvent current) {
+        String previousCalendar = calendarNameOf(previous);
+        String currentCalendar = calendarNameOf(current);
+        if (previousCalendar != null) {
+            countersOf(previousCalendar).remove(EventDateRange.of(previous));
+            scheduleFlush(previousCalendar);
+        }
+        if (currentCalendar != null) {
+            countersOf(currentCalendar).add(EventDateRange.of(current));
+            if (!currentCalendar.equals(previousCalendar)) {
+                scheduleFlush(currentCalendar);
+            }
+        }
+    }
+
+    @Override
+    public void onIndexLoaded() {
+        loaded = true;
+        countersByCalendar.keySet().forEach(this::scheduleFlush);
+    }
+
+    public Optional<CalendarStats> statsOf(String calendarName) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        Counters counters = countersByCalendar.get(calendarName);
+        if (counters == null) {
+            return Optional.of(new CalendarStats(0, null, null, null));
+        }
+        return Optional.of(counters.snapshot());
+    }
+
+    private void scheduleFlush(String calendarName) {
+        if (!loaded || !pendingFlushes.add(calendarName)) {
+            return;
+        }
+        Mono.delay(FLUSH_DELAY)
+            .then(Mono.defer(() -> {
+                pendingFlushes.remove(calendarName);
+                return flush(calendarName);
+            }))
+            .subscribe(null,
+                error -> log.warn("Failed to update stats of calendar {}", calendarName, error));
+    }
+
+    private Mono<ScheduleCalendar> flush(String calendarName) {
+        return Mono.defer(() -> client.fetch(ScheduleCalendar.class, calendarName)
+                .flatMap(calendar -> {
+                    CalendarStats stats = countersOf(calendarName).snapshot();
+                    if (stats.matches(calendar.getStatus())) {
+                        return Mono.empty();
+                    }
+                    stats.applyTo(calendar.getStatusOrDefault());
+                    return client.update(calendar)
+                        .doOnError(OptimisticLockingFailureException.class,
+                            e -> metrics.recordConflict(STATS_FLUSH));
+                }))
+            .retryWhen(metrics.countRetries(STATS_FLUSH, Retry.backoff(3, Duration.ofMillis(100))
+                .filter(OptimisticLockingFailureException.class::isInstance)));
+    }
+
+    private Counters countersOf(String calendarName) {
+        return countersByCalendar.computeIfAbsent(calendarName, key -> new Counters());
+    }
+
+    @Nullable
+    private static String calendarNameOf(@Nullable ScheduleEvent event) {
+        if (event == null || event.getSpec() == null) {
+            return null;
+        }
+        return StringUtils.trimToNull(event.getSpec().getCalendarName());
+    }
+
+    private static final class Counters {
+        private final TreeMap<String, Integer> startMonths = new TreeMap<>();
+        private final TreeMap<String, Integer> endMonths = new TreeMap<>();
+        private final TreeMap<String, Integer> endDates = new TreeMap<>();
+        private int eventCount;
+
+        synchronized void add(EventDateRange range) {
+            eventCount++;
+            increment(startMonths, range.startMonth());
+            increment(endMonths, range.endMonth());
+            increment(endDates, range.endDate());
+        }
+
+        synchronized void remove(EventDateRange range) {
+            eventCount = Math.max(0, eventCount - 1);
+            decrement(startMonths, range.startMonth());
+            decrement(endMonths, range.endMonth());
+            decrement(endDates, range.endDate());
+        }
+
+        synchronized CalendarStats snapshot() {
+            return new CalendarStats(eventCount,
+                startMonths.isEmpty() ? null : startMonths.firstKey(),
+                endMonths.isEmpty() ? null : endMonths.lastKey(),
+                endDates.isEmpty() ? null : endDates.lastKey());
+        }
+
+        private static void increment(TreeMap<String, Integer> counts, @Nullable String key) {
+            if (key != null) {
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+
+        private static void decrement(TreeMap<String, Integer> counts, @Nullable String key) {
+            if (key != null) {
+                counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * 逐字符校验与比较 YYYY-MM-DD 前缀，避免正则匹配和 substring 分配。
+ */
+final class DateKeys {
+
+    static final int MONTH_KEY_LENGTH = 7;
+    static final int DATE_KEY_LENGTH = 10;
+
+    private DateKeys() {
+    }
+
+    static boolean hasDateKey(@Nullable String text) {
+        if (text == null || text.length() < DATE_KEY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < DATE_KEY_LENGTH; i++) {
+            char c = text.charAt(i);
+            boolean valid = (i == 4 || i == 7) ? c == '-' : (c >= '0' && c <= '9');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int comparePrefix(String left, String right, int length) {
+        for (int i = 0; i < length; i++) {
+            int diff = left.charAt(i) - right.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+}
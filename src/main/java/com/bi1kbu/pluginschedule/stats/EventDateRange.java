@@ -0,0 +1,34 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import static com.bi1kbu.pluginschedule.stats.DateKeys.DATE_KEY_LENGTH;
+import static com.bi1kbu.pluginschedule.stats.DateKeys.MONTH_KEY_LENGTH;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.recurrence.Recurrences;
+import org.springframework.lang.Nullable;
+
+/**
+ * 单个事件对日历统计的贡献：起始月份、结束月份与结束日期，任一项无法解析时为 null。
+ */
+public record EventDateRange(@Nullable String startMonth, @Nullable String endMonth,
+                             @Nullable String endDate) {
+
+    private static final EventDateRange EMPTY = new EventDateRange(null, null, null);
+
+    public static EventDateRange of(@Nullable ScheduleEvent event) {
+        if (event == null || event.getSpec() == null) {
+            return EMPTY;
+        }
+        String startAt = event.getSpec().getStartAt();
+        String endAt = Recurrences.rangeEndAt(event.getSpec());
+        boolean startValid = DateKeys.hasDateKey(startAt);
+        boolean endValid = DateKeys.hasDateKey(endAt);
+        if (!startValid && !endValid) {
+            return EMPTY;
+        }
+        String effectiveStart = startValid ? startAt : endAt;
+        String effectiveEnd = endValid ? endAt : startAt;
+        return new EventDateRange(effectiveStart.substring(0, MONTH_KEY_LENGTH),
+            effectiveEnd.substring(0, MONTH_KEY_LENGTH), effectiveEnd.substring(0, DATE_KEY_LENGTH));
+    }
+}
@@ -0,0 +1,150 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import com.bi1kbu.pluginschedule.index.ScheduleEventListener;
+import com.bi1kbu.pluginschedule.recurrence.Recurrences;
+import com.bi1kbu.pluginschedule.vo.CalendarMonthDensity;
+import com.bi1kbu.pluginschedule.vo.CalendarMonthDensity.MonthDensity;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按日历维护每个月的事件条数与逐日占用，供月份选择器跳过空月份。
+ * <p>
+ * 日期按事件的 spec.timezone（缺省 UTC）换算，跨天事件计入经过的每一天与每个月；
+ * 重复系列按实例计入，单个系列最多计 {@link Recurrences#MAX_OCCURRENCES_PER_QUERY} 次。
+ * 事件变更时减去旧版本、加上新版本的贡献，不重新扫描日历。
+ */
+@Component
+public class MonthDensityTracker implements ScheduleEventListener {
+
+    /**
+     * 单个实例最多计入的天数，结束时间填错时不至于写入几十年的逐日计数。
+     */
+    static final int MAX_DAYS_PER_OCCURRENCE = 3660;
+
+    private final Map<String, Density> densities = new ConcurrentHashMap<>();
+
+    @Override
+    public void onEventChanged(@Nullable ScheduleEvent previous, @Nullable ScheduleEvent current) {
+        String previousCalendar = calendarNameOf(previous);
+        if (previousCalendar != null) {
+            densityOf(previousCalendar).apply(previous, -1);
+        }
+        String currentCalendar = calendarNameOf(current);
+        if (currentCalendar != null) {
+            densityOf(currentCalendar).apply(current, 1);
+        }
+    }
+
+    /**
+     * 返回 [from, to] 内非空月份的条数（为空表示不设边界），以及范围之前最近、之后最近的非空月份。
+     *
+     * @param days 是否附带逐日占用位图
+     */
+    public CalendarMonthDensity densityOf(String calendarName, @Nullable YearMonth from,
+        @Nullable YearMonth to, boolean days) {
+        Density density = densities.get(calendarName);
+        if (density == null) {
+            return new CalendarMonthDensity(calendarName, List.of(), null, null);
+        }
+        return density.snapshot(calendarName, from, to, days);
+    }
+
+    private Density densityOf(String calendarName) {
+        return densities.computeIfAbsent(calendarName, key -> new Density());
+    }
+
+    @Nullable
+    private static String calendarNameOf(@Nullable ScheduleEvent event) {
+        if (event == null || event.getSpec() == null) {
+            return null;
+        }
+        return StringUtils.trimToNull(event.getSpec().getCalendarName());
+    }
+
+    private static final class Density {
+        // 下标 0 为与该月有交集的实例数，1..31 为当天的实例数
+        private final TreeMap<YearMonth, int[]> months = new TreeMap<>();
+
+        synchronized void apply(ScheduleEvent event, int delta) {
+            for (ScheduleEvent occurrence : Recurrences.expand(event, null, null)) {
+                applyOccurrence(occurrence.getSpec(), delta);
+            }
+        }
+
+        private void applyOccurrence(ScheduleEvent.Spec spec, int delta) {
+            Long start = EventTimes.startOf(spec);
+            if (start == null) {
+                return;
+            }
+            ZoneId zone = EventTimes.zoneOf(spec.getTimezone());
+            LocalDate first = Instant.ofEpochMilli(start).atZone(zone).toLocalDate();
+            LocalDate last = Instant.ofEpochMilli(EventTimes.effectiveEndOf(spec))
+                .atZone(zone).toLocalDate();
+            LocalDate cap = first.plusDays(MAX_DAYS_PER_OCCURRENCE - 1);
+            if (last.isAfter(cap)) {
+                last = cap;
+            }
+            YearMonth month = null;
+            int[] counts = null;
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                if (month == null || day.getDayOfMonth() == 1) {
+                    prune(month, counts);
+                    month = YearMonth.from(day);
+                    counts = months.computeIfAbsent(month, key -> new int[32]);
+                    counts[0] += delta;
+                }
+                counts[day.getDayOfMonth()] += delta;
+            }
+            prune(month, counts);
+        }
+
+        private void prune(@Nullable YearMonth month, @Nullable int[] counts) {
+            if (month != null && counts[0] <= 0) {
+                months.remove(month);
+            }
+        }
+
+        synchronized CalendarMonthDensity snapshot(String calendarName, @Nullable YearMonth from,
+            @Nullable YearMonth to, boolean days) {
+            NavigableMap<YearMonth, int[]> range = months;
+            if (from != null) {
+                range = range.tailMap(from, true);
+            }
+            if (to != null) {
+                range = range.headMap(to, true);
+            }
+            List<MonthDensity> items = new ArrayList<>(range.size());
+            range.forEach((month, counts) -> items.add(new MonthDensity(month.toString(),
+                counts[0], days ? dayMaskOf(counts) : null)));
+            YearMonth previous = from == null ? null : months.lowerKey(from);
+            YearMonth next = to == null ? null : months.higherKey(to);
+            return new CalendarMonthDensity(calendarName, items,
+                previous == null ? null : previous.toString(),
+                next == null ? null : next.toString());
+        }
+
+        private static int dayMaskOf(int[] counts) {
+            int mask = 0;
+            for (int day = 1; day < counts.length; day++) {
+                if (counts[day] > 0) {
+                    mask |= 1 << (day - 1);
+                }
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "公开日历目录项")
+public record CalendarCatalogItem(
+    @Schema(description = "日历 metadata.name") String name,
+    @Schema(description = "显示名称") String displayName,
+    @Schema(description = "主题色") String themeColor,
+    @Schema(description = "事件范围起始月份（YYYY-MM）") String rangeStartMonth,
+    @Schema(description = "事件范围结束月份（YYYY-MM）") String rangeEndMonth,
+    @Schema(description = "事件范围结束日期（YYYY-MM-DD）") String rangeEndDate) {
+}
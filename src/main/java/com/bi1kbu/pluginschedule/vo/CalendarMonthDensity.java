@@ -0,0 +1,21 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import org.springframework.lang.Nullable;
+
+@Schema(description = "日历按月的事件分布")
+public record CalendarMonthDensity(
+    @Schema(description = "日历 metadata.name") String calendarName,
+    @Schema(description = "查询范围内有事件的月份，按月份升序") List<MonthDensity> months,
+    @Schema(description = "查询范围之前最近的非空月份（YYYY-MM）") @Nullable String previousMonth,
+    @Schema(description = "查询范围之后最近的非空月份（YYYY-MM）") @Nullable String nextMonth) {
+
+    @Schema(description = "单月的事件分布")
+    public record MonthDensity(
+        @Schema(description = "月份（YYYY-MM）") String month,
+        @Schema(description = "与该月有交集的事件实例数") int eventCount,
+        @Schema(description = "逐日占用位图，第 n 位表示第 n+1 日有事件；仅 days=true 时返回")
+        @Nullable Integer dayMask) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "事件查询结果缓存统计")
+public record QueryCacheStats(
+    @Schema(description = "命中次数") long hits,
+    @Schema(description = "未命中次数") long misses,
+    @Schema(description = "因容量淘汰的条目数") long evictions,
+    @Schema(description = "当前条目数") int entries,
+    @Schema(description = "当前总权重（缓存的事件条数之和）") long weight,
+    @Schema(description = "权重上限") long maxWeight) {
+}
@@ -0,0 +1,7 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "列表查询的匹配条数")
+public record ScheduleCount(@Schema(description = "符合条件的条数，计数口径见各计数接口说明") long total) {
+}
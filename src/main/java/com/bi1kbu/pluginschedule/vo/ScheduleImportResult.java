@@ -0,0 +1,13 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "iCalendar 导入结果")
+public record ScheduleImportResult(
+    @Schema(description = "新建的事件数") long created,
+    @Schema(description = "按 UID 更新的事件数") long updated,
+    @Schema(description = "内容未变化的事件数") long unchanged,
+    @Schema(description = "缺少 UID/DTSTART、日期无法解析或重复规则不受支持而跳过的 VEVENT 数")
+    long skipped,
+    @Schema(description = "写入失败的事件数") long failed) {
+}
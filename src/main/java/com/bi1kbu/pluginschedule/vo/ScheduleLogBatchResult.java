@@ -0,0 +1,28 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "批量写入日志结果")
+public record ScheduleLogBatchResult(
+    @Schema(description = "已写入或已入队的条数") int accepted,
+    @Schema(description = "校验失败或写入失败的条数") int rejected,
+    @Schema(description = "按请求顺序排列的逐条结果") List<Item> items) {
+
+    @Schema(name = "ScheduleLogBatchResultItem", description = "单条日志的写入结果")
+    public record Item(
+        @Schema(description = "在请求数组中的下标") int index,
+        @Schema(description = "结果：created、queued、invalid 或 failed") String status,
+        @Schema(description = "已创建日志的 metadata.name") String name,
+        @Schema(description = "失败原因") String message) {
+
+        public boolean accepted() {
+            return "created".equals(status) || "queued".equals(status);
+        }
+    }
+
+    public static ScheduleLogBatchResult of(List<Item> items) {
+        int accepted = (int) items.stream().filter(Item::accepted).count();
+        return new ScheduleLogBatchResult(accepted, items.size() - accepted, items);
+    }
+}
@@ -0,0 +1,24 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.lang.Nullable;
+
+@Schema(description = "游标分页结果")
+public record ScheduleScrollResult<T>(
+    @Schema(description = "本页记录") List<T> items,
+    @Schema(description = "下一页的 cursor 参数，没有更多记录时为空") @Nullable String nextCursor) {
+
+    /**
+     * 由多取一条的查询结果构造：超过 size 条说明还有下一页，游标取本页最后一条。
+     */
+    public static <T> ScheduleScrollResult<T> of(List<T> fetched, int size,
+        Function<T, String> cursorOf) {
+        if (fetched.size() <= size) {
+            return new ScheduleScrollResult<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new ScheduleScrollResult<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.bi1kbu.pluginschedule.vo;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "前台日历组件首屏所需的数据")
+public record ScheduleViewBundle(
+    @Schema(description = "日历") ScheduleCalendar calendar,
+    @Schema(description = "日历网格窗口内的事件") List<ScheduleEvent> windowEvents,
+    @Schema(description = "Upcoming 范围内的事件") List<ScheduleEvent> upcomingEvents,
+    @Schema(description = "实际使用的 Upcoming 开始时间（ISO-8601）") String upcomingFrom,
+    @Schema(description = "实际使用的 Upcoming 结束时间（ISO-8601）") String upcomingTo) {
+}
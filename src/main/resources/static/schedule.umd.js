@@ -20,7 +20,7 @@
         monthPanelOpen: false,
         monthRangeMin: '',
         monthRangeMax: '',
-        postPermalinkCache: {},
+        nonEmptyMonths: null,
       };
       this.onWheel = this.onWheel.bind(this);
       this.onDocumentClick = this.onDocumentClick.bind(this);
@@ -172,10 +172,6 @@
       return raw.startsWith('/') ? raw : `/${raw}`;
     }
 
-    hasPermalinkCache(name) {
-      return Object.prototype.hasOwnProperty.call(this.state.postPermalinkCache, name);
-    }
-
     parseMonthKey(monthKey) {
       if (typeof monthKey !== 'string') {
         return null;
@@ -337,6 +333,13 @@
       return next;
     }
 
+    resolveGridWindow() {
+      const windowStart = this.getWeekStart(this.state.current);
+      const windowEnd = this.addDays(windowStart, 41);
+      windowEnd.setHours(23, 59, 59, 999);
+      return { from: windowStart.toISOString(), to: windowEnd.toISOString() };
+    }
+
     getWeekStart(date) {
       const start = new Date(date.getFullYear(), date.getMonth(), date.getDate());
       const weekday = (start.getDay() + 6) % 7;
@@ -379,53 +382,24 @@
       return (json.items || []).map((item) => this.mapEvent(item));
     }
 
-    sortEvents(events) {
-      return events.slice().sort((a, b) => (a.startAt || '').localeCompare(b.startAt || ''));
-    }
-
-    async hydrateEventPermalinks(events) {
-      if (!Array.isArray(events) || events.length === 0) {
-        return;
-      }
-
-      const missingNames = [];
-      for (const ev of events) {
-        if (!ev || !ev.relatedPostName || ev.relatedPostPermalinkSnapshot) {
-          continue;
-        }
-        const cached = this.state.postPermalinkCache[ev.relatedPostName];
-        if (this.hasPermalinkCache(ev.relatedPostName)) {
-          ev.relatedPostPermalinkSnapshot = this.normalizePermalink(cached);
-          continue;
-        }
-        if (!missingNames.includes(ev.relatedPostName)) {
-          missingNames.push(ev.relatedPostName);
+    async fetchNonEmptyMonths(calendarName) {
+      try {
+        const densityUrl =
+          `/apis/api.schedule.bi1kbu.com/v1alpha1/schedulecalendars/${encodeURIComponent(calendarName)}/density`;
+        const resp = await fetch(densityUrl);
+        if (!resp.ok) {
+          return null;
         }
+        const json = await resp.json();
+        return (json.months || []).map((item) => item.month);
+      } catch (e) {
+        console.error(e);
+        return null;
       }
+    }
 
-      if (missingNames.length > 0) {
-        await Promise.all(missingNames.map(async (postName) => {
-          try {
-            const resp = await fetch(`/apis/content.halo.run/v1alpha1/posts/${encodeURIComponent(postName)}`);
-            if (!resp.ok) {
-              this.state.postPermalinkCache[postName] = '';
-              return;
-            }
-            const post = await resp.json();
-            this.state.postPermalinkCache[postName] = this.normalizePermalink(post?.status?.permalink || '');
-          } catch (e) {
-            console.error(e);
-            this.state.postPermalinkCache[postName] = '';
-          }
-        }));
-      }
-
-      for (const ev of events) {
-        if (!ev || ev.relatedPostPermalinkSnapshot || !ev.relatedPostName) {
-          continue;
-        }
-        ev.relatedPostPermalinkSnapshot = this.normalizePermalink(this.state.postPermalinkCache[ev.relatedPostName] || '');
-      }
+    sortEvents(events) {
+      return events.slice().sort((a, b) => (a.startAt || '').localeCompare(b.startAt || ''));
     }
 
     async loadData() {
@@ -444,6 +418,7 @@
         this.state.loadedCalendarName = '';
         this.state.monthRangeMin = currentMonth;
         this.state.monthRangeMax = currentMonth;
+        this.state.nonEmptyMonths = null;
         this.state.monthPanelOpen = false;
         this.render();
         return;
@@ -456,73 +431,65 @@
 
       try {
         const shouldReloadCalendarMeta = this.state.loadedCalendarName !== calendarName;
+        let gridWindow = this.resolveGridWindow();
+        let windowEvents = null;
         if (shouldReloadCalendarMeta) {
-          const calendarsUrl = `/apis/api.schedule.bi1kbu.com/v1alpha1/schedulecalendars?page=1&size=300`;
-          const calendarsResp = await fetch(calendarsUrl);
+          const upcomingStart = new Date();
+          upcomingStart.setHours(0, 0, 0, 0);
+          const fallbackUpcomingEnd = this.resolveUpcomingRange(null, upcomingStart).endDate;
+          const nonEmptyMonthsPromise = this.fetchNonEmptyMonths(calendarName);
+          const viewUrl =
+            `/apis/api.schedule.bi1kbu.com/v1alpha1/scheduleviews/${encodeURIComponent(calendarName)}` +
+            `?from=${encodeURIComponent(gridWindow.from)}` +
+            `&to=${encodeURIComponent(gridWindow.to)}` +
+            `&upcomingFrom=${encodeURIComponent(upcomingStart.toISOString())}` +
+            `&upcomingTo=${encodeURIComponent(fallbackUpcomingEnd.toISOString())}`;
+          const viewResp = await fetch(viewUrl);
           if (loadToken !== this.state.loadToken) {
             return;
           }
-          if (!calendarsResp.ok) {
-            throw new Error(`加载日历失败: ${calendarsResp.status}`);
+          if (!viewResp.ok && viewResp.status !== 404) {
+            throw new Error(`加载日历失败: ${viewResp.status}`);
           }
-          const calendarsJson = await calendarsResp.json();
+          const view = viewResp.ok ? await viewResp.json() : null;
           if (loadToken !== this.state.loadToken) {
             return;
           }
 
-          const calendars = calendarsJson.items || [];
-          const matched = calendars.find((c) => c?.metadata?.name === calendarName);
+          const matched = view?.calendar || null;
+          const nonEmptyMonths = await nonEmptyMonthsPromise;
+          if (loadToken !== this.state.loadToken) {
+            return;
+          }
+          this.state.nonEmptyMonths = nonEmptyMonths;
           this.state.calendarTitle = matched?.spec?.displayName || calendarName;
           const monthRange = this.resolveMonthRangeFromCalendar(matched);
           this.state.monthRangeMin = monthRange.min;
           this.state.monthRangeMax = monthRange.max;
           this.clampCurrentToMonthRange();
 
-          const upcomingStart = new Date();
-          upcomingStart.setHours(0, 0, 0, 0);
           const upcomingRange = this.resolveUpcomingRange(matched, upcomingStart);
-          const upcomingEnd = upcomingRange.endDate;
-          const upcomingEventsUrl =
-            `/apis/api.schedule.bi1kbu.com/v1alpha1/scheduleevents` +
-            `?calendar=${encodeURIComponent(calendarName)}` +
-            `&from=${encodeURIComponent(upcomingStart.toISOString())}` +
-            `&to=${encodeURIComponent(upcomingEnd.toISOString())}` +
-            `&size=1200`;
-          const upcomingResp = await fetch(upcomingEventsUrl);
-          if (loadToken !== this.state.loadToken) {
-            return;
-          }
-          if (!upcomingResp.ok) {
-            throw new Error(`加载 Upcoming 失败: ${upcomingResp.status}`);
-          }
-          const upcomingJson = await upcomingResp.json();
-          if (loadToken !== this.state.loadToken) {
-            return;
-          }
-          const mappedUpcoming = (upcomingJson.items || [])
+          const mappedUpcoming = (view?.upcomingEvents || [])
             .map((item) => this.mapEvent(item));
-          await this.hydrateEventPermalinks(mappedUpcoming);
-          if (loadToken !== this.state.loadToken) {
-            return;
-          }
           this.state.upcomingEvents = this.sortEvents(mappedUpcoming);
           this.state.loadedCalendarName = calendarName;
           this.state.selectedDay = null;
           this.state.panelEvents = this.state.upcomingEvents;
           this.state.upcomingRangeText = `${this.formatDateKey(upcomingStart)} 至 ${upcomingRange.endText}`;
+
+          const clampedWindow = this.resolveGridWindow();
+          if (clampedWindow.from === gridWindow.from && clampedWindow.to === gridWindow.to) {
+            windowEvents = (view?.windowEvents || []).map((item) => this.mapEvent(item));
+          }
+          gridWindow = clampedWindow;
         } else if (!this.state.monthRangeMin || !this.state.monthRangeMax) {
           const currentMonth = this.formatMonthKey(this.state.current);
           this.state.monthRangeMin = currentMonth;
           this.state.monthRangeMax = currentMonth;
         }
 
-        const windowStart = this.getWeekStart(this.state.current);
-        const windowEnd = this.addDays(windowStart, 41);
-        windowEnd.setHours(23, 59, 59, 999);
-        const from = windowStart.toISOString();
-        const to = windowEnd.toISOString();
-        const rangeEvents = await this.fetchEvents(calendarName, from, to, 600);
-        await this.hydrateEventPermalinks(rangeEvents);
+        const rangeEvents = windowEvents
+          || await this.fetchEvents(calendarName, gridWindow.from, gridWindow.to, 600);
         this.state.events = rangeEvents;
         if (loadToken !== this.state.loadToken) {
           return;
@@ -534,6 +501,7 @@
           this.state.upcomingEvents = [];
           this.state.panelEvents = [];
           this.state.upcomingRangeText = '';
+          this.state.nonEmptyMonths = null;
         }
         const currentMonth = this.formatMonthKey(this.state.current);
         this.state.monthRangeMin = currentMonth;
@@ -553,10 +521,26 @@
     }
 
     shiftMonth(step) {
-      this.state.current = new Date(this.state.current.getFullYear(), this.state.current.getMonth() + step, 1);
+      const target = this.findNonEmptyMonth(step);
+      this.state.current = target
+        ? new Date(target.year, target.month - 1, 1)
+        : new Date(this.state.current.getFullYear(), this.state.current.getMonth() + step, 1);
       this.loadData();
     }
 
+    // 按月份分布跳过没有事件的月份；分布未加载或该方向已没有事件时返回 null
+    findNonEmptyMonth(step) {
+      const months = this.state.nonEmptyMonths;
+      if (!Array.isArray(months) || months.length === 0) {
+        return null;
+      }
+      const currentKey = this.formatMonthKey(this.state.current);
+      const candidates = step > 0
+        ? months.filter((key) => key > currentKey)
+        : months.filter((key) => key < currentKey).reverse();
+      return candidates.length > 0 ? this.parseMonthKey(candidates[0]) : null;
+    }
+
     async jumpToMonth(monthValue) {
       if (!monthValue) {
         return;
@@ -674,7 +658,6 @@
       this.render();
       try {
         const events = await this.fetchEvents(calendarName, dayStart.toISOString(), dayEnd.toISOString(), 200);
-        await this.hydrateEventPermalinks(events);
         if (panelLoadToken !== this.state.panelLoadToken) {
           return;
         }
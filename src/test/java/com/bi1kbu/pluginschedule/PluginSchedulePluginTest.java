@@ -1,5 +1,10 @@
 package com.bi1kbu.pluginschedule;
 
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.index.ScheduleLogKeywordIndex;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleLogRetentionJob;
+import com.bi1kbu.pluginschedule.service.impl.ScheduleLogWriteBuffer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,6 +22,21 @@ class PluginSchedulePluginTest {
     @Mock
     SchemeManager schemeManager;
 
+    @Mock
+    ScheduleEventIndex scheduleEventIndex;
+
+    @Mock
+    ScheduleLogKeywordIndex scheduleLogKeywordIndex;
+
+    @Mock
+    ScheduleLogWriteBuffer scheduleLogWriteBuffer;
+
+    @Mock
+    ScheduleLogRetentionJob scheduleLogRetentionJob;
+
+    @Mock
+    ScheduleMetrics scheduleMetrics;
+
     @InjectMocks
     PluginSchedulePlugin plugin;
 
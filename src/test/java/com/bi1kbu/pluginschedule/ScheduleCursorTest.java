@@ -0,0 +1,44 @@
+package com.bi1kbu.pluginschedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ServerWebInputException;
+
+class ScheduleCursorTest {
+
+    @Test
+    void roundTripsKeyAndName() {
+        var cursor = new ScheduleCursor("1741168800000", "review-周会");
+
+        assertEquals(cursor, ScheduleCursor.decode(cursor.encode()));
+        assertEquals(1741168800000L, ScheduleCursor.decode(cursor.encode()).longKey());
+    }
+
+    @Test
+    void blankTokenStartsFromFirstPage() {
+        assertNull(ScheduleCursor.decode(null));
+        assertNull(ScheduleCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsMalformedTokensWithBadRequest() {
+        String noSeparator = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("123".getBytes(StandardCharsets.UTF_8));
+        for (String token : new String[] {"!!!", noSeparator}) {
+            var error = assertThrows(ServerWebInputException.class,
+                () -> ScheduleCursor.decode(token));
+            assertEquals(400, error.getStatusCode().value());
+        }
+    }
+
+    @Test
+    void clampsPageSize() {
+        assertEquals(ScheduleCursor.DEFAULT_SIZE, ScheduleCursor.sizeOf(0));
+        assertEquals(ScheduleCursor.MAX_SIZE, ScheduleCursor.sizeOf(10_000));
+    }
+}
@@ -0,0 +1,87 @@
+package com.bi1kbu.pluginschedule.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bi1kbu.pluginschedule.ScheduleLogQuery;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+class ArchiveFilterTest {
+
+    @Test
+    void dateRangeIncludesWholeToDate() {
+        var filter = ArchiveFilter.of(query("fromDate=2025-03-01&toDate=2025-03-03"));
+
+        assertEquals("2025-03-01", filter.fromActionAt());
+        assertEquals("2025-03-04", filter.toActionAtExclusive());
+        assertFalse(filter.matches(log("2025-02-28T23:59:59.999Z", "create")));
+        assertTrue(filter.matches(log("2025-03-01T00:00:00Z", "create")));
+        assertTrue(filter.matches(log("2025-03-03T23:59:59.999Z", "create")));
+        assertFalse(filter.matches(log("2025-03-04T00:00:00Z", "create")));
+    }
+
+    @Test
+    void openEndedRangesOnlyBoundOneSide() {
+        var from = ArchiveFilter.of(query("fromDate=2025-03-01"));
+        assertNull(from.toActionAtExclusive());
+        assertTrue(from.matches(log("2030-01-01T00:00:00Z", "create")));
+        assertFalse(from.matches(log("2025-02-28T12:00:00Z", "create")));
+
+        var to = ArchiveFilter.of(query("toDate=2025-03-01"));
+        assertNull(to.fromActionAt());
+        assertTrue(to.matches(log("2020-01-01T00:00:00Z", "create")));
+        assertFalse(to.matches(log("2025-03-02T00:00:00Z", "create")));
+    }
+
+    @Test
+    void blockPredicatesFollowTheSameBounds() {
+        var filter = ArchiveFilter.of(query("fromDate=2025-03-01&toDate=2025-03-03"));
+
+        assertFalse(filter.mayContain("2025-02-01T00:00:00Z", "2025-02-28T23:59:59Z"));
+        assertFalse(filter.mayContain("2025-03-04T00:00:00Z", "2025-03-10T00:00:00Z"));
+        assertTrue(filter.mayContain("2025-02-27T00:00:00Z", "2025-03-01T00:00:00Z"));
+        assertTrue(filter.mayContain("2025-03-03T23:00:00Z", "2025-03-05T00:00:00Z"));
+
+        assertTrue(filter.covers("2025-03-01T00:00:00Z", "2025-03-03T23:59:59Z"));
+        assertFalse(filter.covers("2025-02-28T23:00:00Z", "2025-03-02T00:00:00Z"));
+        assertFalse(filter.covers("2025-03-02T00:00:00Z", "2025-03-04T00:00:00Z"));
+    }
+
+    @Test
+    void otherConditionsNeverCoverWholeBlocks() {
+        var filter = ArchiveFilter.of(
+            query("fromDate=2025-03-01&toDate=2025-03-03&actionType=create"));
+
+        assertFalse(filter.covers("2025-03-01T00:00:00Z", "2025-03-02T00:00:00Z"));
+        assertTrue(filter.matches(log("2025-03-02T00:00:00Z", "create")));
+        assertFalse(filter.matches(log("2025-03-02T00:00:00Z", "delete")));
+    }
+
+    @Test
+    void malformedDateIsRejectedBeforeQuerying() {
+        var query = query("fromDate=2025-3-1");
+
+        assertThrows(ServerWebInputException.class, query::toListOptions);
+    }
+
+    private static ScheduleLogQuery query(String queryString) {
+        return new ScheduleLogQuery(MockServerWebExchange.from(
+            MockServerHttpRequest.get("/schedulelogs?" + queryString)));
+    }
+
+    private static ScheduleLog log(String actionAt, String actionType) {
+        var spec = new ScheduleLog.Spec();
+        spec.setActionAt(actionAt);
+        spec.setActionType(actionType);
+        var log = new ScheduleLog();
+        log.setSpec(spec);
+        return log;
+    }
+}
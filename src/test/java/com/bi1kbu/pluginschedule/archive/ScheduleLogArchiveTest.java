@@ -0,0 +1,145 @@
+package com.bi1kbu.pluginschedule.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import run.halo.app.extension.Metadata;
+
+class ScheduleLogArchiveTest {
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void findPagesNewestFirstAcrossMonthsAndBlocks() {
+        var archive = newArchive();
+        assertTrue(archive.isEmpty().block());
+
+        List<ScheduleLog> logs = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            String month = i < 300 ? "2025-01" : "2025-02";
+            int day = 1 + (i % 300) / 12;
+            logs.add(log("log-" + i, i % 2 == 0 ? "create" : "delete",
+                "%s-%02dT%02d:00:00Z".formatted(month, day, i % 12)));
+        }
+        archive.append(logs).block();
+        assertFalse(archive.isEmpty().block());
+
+        var all = new ArchiveFilter(null, null, null, null, null);
+        var firstPage = archive.find(all, 0, 10).block();
+        assertEquals(600, firstPage.total());
+        assertEquals("log-599", firstPage.items().get(0).getMetadata().getName());
+
+        var creates = new ArchiveFilter("create", null, null, "2025-02-01", "2025-02-02");
+        var page = archive.find(creates, 2, 3).block();
+        assertEquals(6, page.total());
+        assertEquals(List.of("log-306", "log-304", "log-302"), page.items().stream()
+            .map(item -> item.getMetadata().getName())
+            .toList());
+    }
+
+    @Test
+    void reappendingAfterFailedDeleteDoesNotDuplicate() {
+        List<ScheduleLog> logs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            logs.add(log("log-" + i, "update", "2025-05-01T%02d:00:00Z".formatted(i)));
+        }
+        var all = new ArchiveFilter(null, null, null, null, null);
+        var archive = newArchive();
+        archive.append(logs.subList(0, 10)).block();
+
+        // 上一批只删掉了前 5 条，重跑时剩下的 5 条与新的 5 条一起再写一次
+        archive.append(logs.subList(5, 15)).block();
+        assertEquals(15, archive.count(all).block());
+
+        // 重启后仍记得最近一批
+        var reloaded = newArchive();
+        reloaded.append(logs.subList(10, 20)).block();
+        assertEquals(20, reloaded.count(all).block());
+        assertEquals("log-19", reloaded.find(all, 0, 1).block().items().get(0)
+            .getMetadata().getName());
+    }
+
+    @Test
+    void countMatchesFindTotal() {
+        var archive = newArchive();
+        List<ScheduleLog> logs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            logs.add(log("log-" + i, i % 3 == 0 ? "create" : "update",
+                "2025-04-%02dT%02d:%02d:00Z".formatted(1 + i / 40, (i / 2) % 20, i % 60)));
+        }
+        archive.append(logs).block();
+
+        for (var filter : List.of(
+            new ArchiveFilter(null, null, null, null, null),
+            new ArchiveFilter(null, null, null, "2025-04-05", "2025-04-12"),
+            new ArchiveFilter("create", null, null, "2025-04-05", null),
+            new ArchiveFilter(null, null, "upd", null, "2025-04-20"))) {
+            assertEquals(archive.find(filter, 0, 0).block().total(),
+                archive.count(filter).block());
+        }
+    }
+
+    @Test
+    void pagesThroughCoveredBlocksByHeaderCounts() {
+        var archive = newArchive();
+        List<ScheduleLog> logs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            logs.add(log("log-" + i, "update",
+                "2025-04-%02dT%02d:%02d:00Z".formatted(1 + i / 40, (i / 2) % 20, i % 60)));
+        }
+        archive.append(logs).block();
+        var filter = new ArchiveFilter(null, null, null, "2025-04-05", "2025-04-20");
+        List<String> expected = logs.stream()
+            .filter(filter::matches)
+            .sorted(Comparator.comparing((ScheduleLog item) -> item.getSpec().getActionAt())
+                .reversed())
+            .map(item -> item.getMetadata().getName())
+            .toList();
+
+        for (int offset : new int[] {0, 255, 256, 300, expected.size() - 5}) {
+            var page = archive.find(filter, offset, 20).block();
+            assertEquals(expected.size(), page.total());
+            assertEquals(expected.subList(offset, Math.min(offset + 20, expected.size())),
+                page.items().stream().map(item -> item.getMetadata().getName()).toList());
+        }
+    }
+
+    @Test
+    void reloadsSegmentsFromDisk() {
+        newArchive().append(List.of(log("log-1", "create", "2025-03-04T05:06:07Z"))).block();
+
+        var reopened = newArchive();
+        var page = reopened.find(new ArchiveFilter(null, null, "crea", null, null), 0, 10).block();
+
+        assertEquals(1, page.total());
+        assertEquals("log-1", page.items().get(0).getMetadata().getName());
+    }
+
+    private ScheduleLogArchive newArchive() {
+        var environment = new MockEnvironment().withProperty("halo.work-dir", workDir.toString());
+        return new ScheduleLogArchive(environment);
+    }
+
+    private static ScheduleLog log(String name, String actionType, String actionAt) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleLog.Spec();
+        spec.setActionType(actionType);
+        spec.setOperator("admin");
+        spec.setActionAt(actionAt);
+        var log = new ScheduleLog();
+        log.setMetadata(metadata);
+        log.setSpec(spec);
+        return log;
+    }
+}
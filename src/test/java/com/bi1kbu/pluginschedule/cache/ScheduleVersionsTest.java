@@ -0,0 +1,55 @@
+package com.bi1kbu.pluginschedule.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import run.halo.app.extension.Metadata;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleVersionsTest {
+
+    @Mock
+    ScheduleEventIndex index;
+
+    @Test
+    void lastModifiedIsStableUntilCalendarChanges() throws InterruptedException {
+        when(index.isReady()).thenReturn(true);
+        Instant started = Instant.now();
+        var versions = new ScheduleVersions(index);
+        versions.onEventChanged(null, event("team", "a", 1L));
+        String etag = versions.eventsEtag("team", "feed").orElseThrow();
+        Instant modified = versions.lastModified("team");
+
+        assertFalse(modified.isBefore(started.minusSeconds(1)));
+        Thread.sleep(1100);
+        versions.onEventChanged(null, event("other", "b", 1L));
+        assertEquals(modified, versions.lastModified("team"));
+        assertEquals(etag, versions.eventsEtag("team", "feed").orElseThrow());
+
+        versions.onEventChanged(event("team", "a", 1L), event("team", "a", 2L));
+        assertTrue(versions.lastModified("team").isAfter(modified));
+        assertNotEquals(etag, versions.eventsEtag("team", "feed").orElseThrow());
+    }
+
+    private static ScheduleEvent event(String calendar, String name, long version) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        metadata.setVersion(version);
+        var spec = new ScheduleEvent.Spec();
+        spec.setCalendarName(calendar);
+        var event = new ScheduleEvent();
+        event.setMetadata(metadata);
+        event.setSpec(spec);
+        return event;
+    }
+}
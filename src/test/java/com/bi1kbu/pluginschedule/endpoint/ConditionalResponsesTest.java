@@ -0,0 +1,137 @@
+package com.bi1kbu.pluginschedule.endpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+class ConditionalResponsesTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    private final AtomicInteger bodyCalls = new AtomicInteger();
+
+    @Test
+    void respondWithoutEtagReturnsBody() {
+        ServerResponse response = ConditionalResponses.respond(request(null), Optional.empty(),
+            this::body).block();
+
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertNull(response.headers().getETag());
+        assertEquals(1, bodyCalls.get());
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModifiedWithoutLoadingBody() {
+        ServerResponse response = ConditionalResponses.respond(request("\"other\", W/" + ETAG),
+            Optional.of(ETAG), this::body).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.statusCode());
+        assertEquals(ETAG, response.headers().getETag());
+        assertEquals(ConditionalResponses.REVALIDATE.getHeaderValue(),
+            response.headers().getCacheControl());
+        assertEquals(0, bodyCalls.get());
+    }
+
+    @Test
+    void staleIfNoneMatchReturnsBodyWithCurrentEtag() {
+        ServerResponse response = ConditionalResponses.respond(request("\"stale\""),
+            Optional.of(ETAG), this::body).block();
+
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(ETAG, response.headers().getETag());
+        assertEquals(ConditionalResponses.REVALIDATE.getHeaderValue(),
+            response.headers().getCacheControl());
+        assertEquals(1, bodyCalls.get());
+    }
+
+    @Test
+    void wildcardIfNoneMatchAlwaysMatches() {
+        ServerResponse response = ConditionalResponses.respond(request("*"),
+            Optional.of(ETAG), this::body).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.statusCode());
+    }
+
+    @Test
+    void notModifiedPrefersIfNoneMatchOverIfModifiedSince() {
+        Instant lastModified = Instant.parse("2025-03-11T10:00:00Z");
+        var request = MockServerRequest.builder()
+            .uri(URI.create("/feed"))
+            .header(HttpHeaders.IF_NONE_MATCH, "\"stale\"")
+            .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(lastModified))
+            .build();
+
+        assertFalse(ConditionalResponses.notModified(request, ETAG, lastModified));
+    }
+
+    @Test
+    void notModifiedComparesIfModifiedSinceInSeconds() {
+        Instant lastModified = Instant.parse("2025-03-11T10:00:00.750Z");
+
+        assertTrue(ConditionalResponses.notModified(
+            modifiedSince(Instant.parse("2025-03-11T10:00:00Z")), ETAG, lastModified));
+        assertFalse(ConditionalResponses.notModified(
+            modifiedSince(Instant.parse("2025-03-11T09:59:59Z")), ETAG, lastModified));
+        assertFalse(ConditionalResponses.notModified(request(null), ETAG, lastModified));
+    }
+
+    @Test
+    void discriminatorIgnoresQueryParameterOrder() {
+        var first = MockServerRequest.builder()
+            .uri(URI.create("/events?calendar=team&size=20"))
+            .queryParam("calendar", "team")
+            .queryParam("size", "20")
+            .build();
+        var second = MockServerRequest.builder()
+            .uri(URI.create("/events?size=20&calendar=team"))
+            .queryParam("size", "20")
+            .queryParam("calendar", "team")
+            .build();
+
+        assertEquals(ConditionalResponses.discriminator(first),
+            ConditionalResponses.discriminator(second));
+    }
+
+    private Mono<String> body() {
+        return Mono.fromSupplier(() -> {
+            bodyCalls.incrementAndGet();
+            return "body";
+        });
+    }
+
+    private static ServerRequest request(String ifNoneMatch) {
+        var builder = MockServerRequest.builder().uri(URI.create("/events"));
+        if (ifNoneMatch != null) {
+            builder.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return builder.build();
+    }
+
+    private static ServerRequest modifiedSince(Instant since) {
+        return MockServerRequest.builder()
+            .uri(URI.create("/feed"))
+            .header(HttpHeaders.IF_MODIFIED_SINCE, httpDate(since))
+            .build();
+    }
+
+    private static String httpDate(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
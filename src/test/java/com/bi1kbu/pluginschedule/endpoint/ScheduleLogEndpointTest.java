@@ -0,0 +1,125 @@
+package com.bi1kbu.pluginschedule.endpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import com.bi1kbu.pluginschedule.service.ScheduleLogService;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.Metadata;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleLogEndpointTest {
+
+    @Mock
+    ScheduleLogService scheduleLogService;
+
+    @Mock
+    ScheduleMetrics scheduleMetrics;
+
+    WebTestClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        when(scheduleMetrics.requestTimer()).thenReturn((request, next) -> next.handle(request));
+        var endpoint = new ScheduleLogEndpoint(scheduleLogService, scheduleMetrics);
+        webClient = WebTestClient.bindToRouterFunction(endpoint.endpoint()).build();
+    }
+
+    @Test
+    void batchReportsEachItemInRequestOrder() {
+        when(scheduleLogService.submitLog(any(ScheduleLog.class))).thenAnswer(invocation -> {
+            ScheduleLog log = invocation.getArgument(0);
+            return switch (log.getSpec().getActionType()) {
+                case "create" -> Mono.just(named(log, "schedule-log-abc"));
+                case "update" -> Mono.empty();
+                default -> Mono.error(new IllegalStateException("store unavailable"));
+            };
+        });
+
+        webClient.post().uri("/schedulelogs/batch")
+            .bodyValue(List.of(
+                Map.of("actionType", "create", "summary", " 新建日程 "),
+                Map.of("actionType", " "),
+                Map.of("actionType", "update"),
+                Map.of("actionType", "delete")))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.accepted").isEqualTo(2)
+            .jsonPath("$.rejected").isEqualTo(2)
+            .jsonPath("$.items[0].index").isEqualTo(0)
+            .jsonPath("$.items[0].status").isEqualTo("created")
+            .jsonPath("$.items[0].name").isEqualTo("schedule-log-abc")
+            .jsonPath("$.items[1].status").isEqualTo("invalid")
+            .jsonPath("$.items[1].message").isEqualTo("actionType must not be blank")
+            .jsonPath("$.items[2].status").isEqualTo("queued")
+            .jsonPath("$.items[3].index").isEqualTo(3)
+            .jsonPath("$.items[3].status").isEqualTo("failed")
+            .jsonPath("$.items[3].message").isEqualTo("store unavailable");
+
+        var submitted = ArgumentCaptor.forClass(ScheduleLog.class);
+        verify(scheduleLogService, times(3)).submitLog(submitted.capture());
+        var created = submitted.getAllValues().stream()
+            .filter(log -> "create".equals(log.getSpec().getActionType()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("unknown", created.getSpec().getOperator());
+        assertEquals("新建日程", created.getSpec().getSummary());
+    }
+
+    @Test
+    void batchOverTheCapIsRejectedWithoutWriting() {
+        webClient.post().uri("/schedulelogs/batch")
+            .bodyValue(Collections.nCopies(501, Map.of("actionType", "create")))
+            .exchange()
+            .expectStatus().isBadRequest();
+
+        verify(scheduleLogService, never()).submitLog(any(ScheduleLog.class));
+    }
+
+    @Test
+    void batchAtTheCapIsAccepted() {
+        when(scheduleLogService.submitLog(any(ScheduleLog.class))).thenReturn(Mono.empty());
+
+        webClient.post().uri("/schedulelogs/batch")
+            .bodyValue(Collections.nCopies(500, Map.of("actionType", "create")))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.accepted").isEqualTo(500)
+            .jsonPath("$.items.length()").isEqualTo(500);
+    }
+
+    @Test
+    void emptyBatchIsRejected() {
+        webClient.post().uri("/schedulelogs/batch")
+            .bodyValue(List.of())
+            .exchange()
+            .expectStatus().isBadRequest();
+
+        verify(scheduleLogService, never()).submitLog(any(ScheduleLog.class));
+    }
+
+    private static ScheduleLog named(ScheduleLog log, String name) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        log.setMetadata(metadata);
+        return log;
+    }
+}
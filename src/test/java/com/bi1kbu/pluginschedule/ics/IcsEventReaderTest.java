@@ -0,0 +1,141 @@
+package com.bi1kbu.pluginschedule.ics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class IcsEventReaderTest {
+
+    @Test
+    void readsFoldedEventsAndSkipsInvalidOnes() {
+        var lines = Flux.just(
+            "BEGIN:VCALENDAR\r",
+            "X-WR-TIMEZONE:Asia/Shanghai",
+            "BEGIN:VEVENT",
+            "UID:meeting-1",
+            "SUMMARY:Weekly\\, sync",
+            "DESCRIPTION:first line",
+            " continued",
+            "DTSTART:20250101T090000",
+            "DTEND;TZID=UTC:20250101T020000",
+            "BEGIN:VALARM",
+            "SUMMARY:alarm",
+            "END:VALARM",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:holiday",
+            "DTSTART;VALUE=DATE:20250101",
+            "DTEND;VALUE=DATE:20250103",
+            "STATUS:CANCELLED",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "SUMMARY:no uid",
+            "DTSTART:20250101T000000Z",
+            "END:VEVENT",
+            "END:VCALENDAR");
+        var skipped = new AtomicInteger();
+
+        List<IcsEvent> events = IcsEventReader.read(lines, skipped::incrementAndGet)
+            .collectList()
+            .block();
+
+        assertEquals(2, events.size());
+        assertEquals(1, skipped.get());
+
+        IcsEvent meeting = events.get(0);
+        assertEquals("Weekly, sync", meeting.title());
+        assertEquals("first linecontinued", meeting.description());
+        assertEquals(Instant.parse("2025-01-01T01:00:00Z"), meeting.start());
+        assertEquals(Instant.parse("2025-01-01T02:00:00Z"), meeting.end());
+
+        IcsEvent holiday = events.get(1);
+        assertTrue(holiday.allDay());
+        assertEquals("CANCELLED", holiday.status());
+        assertEquals(Instant.parse("2025-01-02T00:00:00Z"), holiday.end());
+        assertNull(holiday.recurrenceId());
+    }
+
+    @Test
+    void mapsRruleAndExdatesOntoRecurrence() {
+        var lines = Flux.just(
+            "BEGIN:VCALENDAR",
+            "X-WR-TIMEZONE:Europe/Berlin",
+            "BEGIN:VEVENT",
+            "UID:standup",
+            "DTSTART:20250303T093000",
+            "RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;UNTIL=20250430;WKST=MO",
+            "EXDATE:20250305T093000,20250317T093000",
+            "EXDATE;TZID=UTC:20250402T073000",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:standup",
+            "RECURRENCE-ID:20250310T093000",
+            "DTSTART:20250310T110000",
+            "RRULE:FREQ=WEEKLY",
+            "END:VEVENT",
+            "END:VCALENDAR");
+
+        List<IcsEvent> events = IcsEventReader.read(lines, () -> {
+        }).collectList().block();
+
+        IcsEvent series = events.get(0);
+        assertEquals("Europe/Berlin", series.timezone());
+        var recurrence = series.recurrence();
+        assertEquals("weekly", recurrence.getFrequency());
+        assertEquals(2, recurrence.getInterval());
+        assertEquals(List.of("MO", "WE"), recurrence.getByDay());
+        assertEquals("2025-04-30T21:59:59.999Z", recurrence.getUntil());
+        assertEquals(List.of("2025-03-05T08:30:00.000Z", "2025-03-17T08:30:00.000Z",
+            "2025-04-02T07:30:00.000Z"), recurrence.getExceptDates());
+        assertNull(series.overriddenStart());
+
+        IcsEvent moved = events.get(1);
+        assertNull(moved.recurrence());
+        assertEquals(Instant.parse("2025-03-10T08:30:00Z"), moved.overriddenStart());
+    }
+
+    @Test
+    void skipsRecurringEventsThatCannotBeRepresented() {
+        var lines = Flux.just(
+            "BEGIN:VCALENDAR",
+            "BEGIN:VEVENT",
+            "UID:last-friday",
+            "DTSTART:20250131T090000Z",
+            "RRULE:FREQ=MONTHLY;BYDAY=-1FR",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:month-end",
+            "DTSTART:20250131T090000Z",
+            "RRULE:FREQ=MONTHLY;BYMONTHDAY=-1",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:hourly",
+            "DTSTART:20250131T090000Z",
+            "RRULE:FREQ=HOURLY",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:daily",
+            "DTSTART;VALUE=DATE:20250101",
+            "RRULE:FREQ=DAILY;COUNT=3",
+            "EXDATE;VALUE=DATE:20250102",
+            "END:VEVENT",
+            "END:VCALENDAR");
+        var skipped = new AtomicInteger();
+
+        List<IcsEvent> events = IcsEventReader.read(lines, skipped::incrementAndGet)
+            .collectList()
+            .block();
+
+        assertEquals(3, skipped.get());
+        assertEquals(1, events.size());
+        var daily = events.get(0).recurrence();
+        assertEquals(3, daily.getCount());
+        assertEquals(List.of("2025-01-02T00:00:00.000Z"), daily.getExceptDates());
+    }
+}
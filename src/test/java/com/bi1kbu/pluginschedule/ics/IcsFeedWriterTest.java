@@ -0,0 +1,114 @@
+package com.bi1kbu.pluginschedule.ics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import run.halo.app.extension.Metadata;
+
+class IcsFeedWriterTest {
+
+    @Test
+    void renderedFeedCanBeReadBack() {
+        var calendar = new ScheduleCalendar();
+        calendar.setMetadata(new Metadata());
+        calendar.setSpec(new ScheduleCalendar.Spec());
+        calendar.getSpec().setDisplayName("活动日历");
+
+        String longTitle = "很长的标题，".repeat(20);
+        String text = IcsFeedWriter.header(calendar)
+            + IcsFeedWriter.event(event("talk", longTitle, "2025-01-01T01:00:00.000Z",
+            "2025-01-01T02:00:00.000Z", false), Instant.EPOCH)
+            + IcsFeedWriter.event(event("holiday", "假期", "2025-01-01T16:00:00.000Z",
+            "2025-01-02T16:00:00.000Z", true), Instant.EPOCH)
+            + IcsFeedWriter.footer();
+
+        for (String line : text.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+
+        List<IcsEvent> events = IcsEventReader.read(Flux.fromIterable(
+                Arrays.asList(text.split("\r\n"))), () -> { })
+            .collectList()
+            .block();
+
+        assertEquals(2, events.size());
+        assertEquals(longTitle, events.get(0).title());
+        assertEquals(Instant.parse("2025-01-01T02:00:00Z"), events.get(0).end());
+        assertTrue(events.get(1).allDay());
+        assertEquals(Instant.parse("2025-01-02T00:00:00Z"), events.get(1).start());
+        assertEquals(Instant.parse("2025-01-03T00:00:00Z"), events.get(1).end());
+    }
+
+    @Test
+    void zonedSeriesReferencesADefinedTimezone() {
+        var standup = event("standup", "周会", "2025-03-03T08:30:00.000Z",
+            "2025-03-03T09:00:00.000Z", false);
+        standup.getSpec().setTimezone("Europe/Berlin");
+        var recurrence = new ScheduleEvent.Recurrence();
+        recurrence.setFrequency("weekly");
+        standup.getSpec().setRecurrence(recurrence);
+        var single = event("talk", "分享", "2025-03-03T08:30:00.000Z",
+            "2025-03-03T09:00:00.000Z", false);
+        single.getSpec().setTimezone("Europe/Berlin");
+
+        ZoneId zone = IcsFeedWriter.zoneOf(standup);
+        assertEquals(ZoneId.of("Europe/Berlin"), zone);
+        assertNull(IcsFeedWriter.zoneOf(single));
+        assertTrue(IcsFeedWriter.event(standup, Instant.EPOCH)
+            .contains("DTSTART;TZID=Europe/Berlin:20250303T093000\r\n"));
+
+        List<String> lines = Arrays.asList(IcsFeedWriter.timezone(zone).split("\r\n"));
+        assertEquals("TZID:Europe/Berlin", lines.get(1));
+        int daylight = lines.indexOf("BEGIN:DAYLIGHT");
+        assertTrue(lines.get(daylight + 1).matches("DTSTART:\\d{4}03\\d{2}T020000"));
+        assertEquals("TZOFFSETFROM:+0100", lines.get(daylight + 2));
+        assertEquals("TZOFFSETTO:+0200", lines.get(daylight + 3));
+        assertEquals("RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU", lines.get(daylight + 4));
+        int standard = lines.indexOf("BEGIN:STANDARD");
+        assertEquals("TZOFFSETTO:+0100", lines.get(standard + 3));
+        assertEquals("RRULE:FREQ=YEARLY;BYMONTH=10;BYDAY=-1SU", lines.get(standard + 4));
+    }
+
+    @Test
+    void timezoneRulesFollowTzdb() {
+        String newYork = IcsFeedWriter.timezone(ZoneId.of("America/New_York"));
+        assertTrue(newYork.contains("RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=2SU\r\n"));
+        assertTrue(newYork.contains("RRULE:FREQ=YEARLY;BYMONTH=11;BYDAY=1SU\r\n"));
+
+        // 已不再切换的时区只保留当前偏移
+        String shanghai = IcsFeedWriter.timezone(ZoneId.of("Asia/Shanghai"));
+        assertTrue(shanghai.contains("TZOFFSETFROM:+0800\r\nTZOFFSETTO:+0800\r\n"));
+        assertFalse(shanghai.contains("DAYLIGHT"));
+
+        for (String line : IcsFeedWriter.timezone(ZoneId.of("Africa/Cairo")).split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+    }
+
+    private static ScheduleEvent event(String name, String title, String startAt, String endAt,
+        boolean allDay) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleEvent.Spec();
+        spec.setTitle(title);
+        spec.setStartAt(startAt);
+        spec.setEndAt(endAt);
+        spec.setAllDay(allDay);
+        spec.setTimezone("Asia/Shanghai");
+        var event = new ScheduleEvent();
+        event.setMetadata(metadata);
+        event.setSpec(spec);
+        return event;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bi1kbu.pluginschedule.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import run.halo.app.extension.Metadata;
+
+class EventIntervalTreeTest {
+
+    @Test
+    void overlappingMatchesLinearScan() {
+        var events = new ArrayList<ScheduleEvent>();
+        for (int i = 0; i < 200; i++) {
+            int day = 1 + (i * 7) % 28;
+            int span = i % 5;
+            String endAt = span == 0 ? null : date(Math.min(28, day + span));
+            events.add(event("event-" + i, date(day), endAt));
+        }
+        var tree = EventIntervalTree.build(events);
+
+        for (int from = 1; from <= 28; from += 3) {
+            for (int to = from; to <= 28; to += 4) {
+                long fromMillis = epochMillis(date(from));
+                long toMillis = epochMillis(date(to));
+                List<String> expected = events.stream()
+                    .filter(event -> overlaps(event, fromMillis, toMillis))
+                    .map(event -> event.getMetadata().getName())
+                    .sorted()
+                    .toList();
+                List<String> actual = tree.overlapping(fromMillis, toMillis).stream()
+                    .map(event -> event.getMetadata().getName())
+                    .sorted()
+                    .toList();
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void overlappingIsSortedByStartAndSupportsOpenBounds() {
+        var tree = EventIntervalTree.build(List.of(
+            event("c", date(20), null),
+            event("a", date(1), date(3)),
+            event("b", date(10), date(12)),
+            event("no-start", null, date(5))));
+
+        assertEquals(3, tree.size());
+        assertEquals(List.of("a", "b", "c"), names(tree.overlapping(null, null)));
+        assertEquals(List.of("b", "c"), names(tree.overlapping(epochMillis(date(11)), null)));
+        assertEquals(List.of("a"), names(tree.overlapping(null, epochMillis(date(2)))));
+        assertTrue(tree.overlapping(epochMillis(date(13)), epochMillis(date(19))).isEmpty());
+    }
+
+    @Test
+    void comparesInstantsRegardlessOfOffsetOrPrecision() {
+        // 按字符串比较时 "2026-03-10T15:00:00+08:00" 会排在 "2026-03-10T08:00:00.000Z" 之后
+        var tree = EventIntervalTree.build(List.of(
+            event("utc", "2026-03-10T08:00:00.000Z", "2026-03-10T09:00:00Z"),
+            event("shanghai", "2026-03-10T15:00:00+08:00", "2026-03-10T15:30+08:00")));
+
+        assertEquals(List.of("shanghai", "utc"), names(tree.overlapping(null, null)));
+        assertEquals(List.of("shanghai", "utc"),
+            names(tree.overlapping(epochMillis("2026-03-10T07:10:00Z"), null)));
+        assertEquals(List.of("utc"),
+            names(tree.overlapping(epochMillis("2026-03-10T07:40:00Z"), null)));
+    }
+
+    private static boolean overlaps(ScheduleEvent event, long from, long to) {
+        long startAt = EventTimes.startOf(event.getSpec());
+        long endAt = EventTimes.effectiveEndOf(event.getSpec());
+        return endAt >= from && startAt <= to;
+    }
+
+    private static long epochMillis(String value) {
+        return EventTimes.toEpochMillis(value, null);
+    }
+
+    private static List<String> names(List<ScheduleEvent> events) {
+        return events.stream().map(event -> event.getMetadata().getName()).toList();
+    }
+
+    private static String date(int day) {
+        return String.format("2026-03-%02dT08:00:00Z", day);
+    }
+
+    private static ScheduleEvent event(String name, String startAt, String endAt) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleEvent.Spec();
+        spec.setCalendarName("calendar");
+        spec.setStartAt(startAt);
+        spec.setEndAt(endAt);
+        var event = new ScheduleEvent();
+        event.setMetadata(metadata);
+        event.setSpec(spec);
+        return event;
+    }
+}
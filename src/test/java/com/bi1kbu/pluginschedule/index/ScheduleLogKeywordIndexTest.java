@@ -0,0 +1,72 @@
+package com.bi1kbu.pluginschedule.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleLogKeywordIndexTest {
+
+    @Mock
+    ReactiveExtensionClient client;
+
+    ScheduleLogKeywordIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(client.listAll(eq(ScheduleLog.class), any(ListOptions.class), any(Sort.class)))
+            .thenReturn(Flux.just(log("log-1", "create", "Alice", "周例会", null)));
+        index = new ScheduleLogKeywordIndex(client);
+    }
+
+    @Test
+    void searchMatchesSubstringsAcrossFieldsIgnoringCase() {
+        index.upsert(log("log-2", "update", "bob", "Sprint Review", "例会"));
+
+        assertEquals(Set.of("log-1", "log-2"), index.search("例会").block());
+        assertEquals(Set.of("log-2"), index.search("REVIEW").block());
+        assertEquals(Set.of("log-1"), index.search("c").block());
+        assertEquals(Set.of(), index.search("review sprint").block());
+    }
+
+    @Test
+    void upsertAndRemoveKeepPostingsInSync() {
+        index.upsert(log("log-1", "delete", "Alice", "月度总结", null));
+
+        assertEquals(Set.of(), index.search("周例会").block());
+        assertEquals(Set.of("log-1"), index.search("月度").block());
+
+        index.remove("log-1");
+
+        assertEquals(Set.of(), index.search("月度").block());
+    }
+
+    private static ScheduleLog log(String name, String actionType, String operator,
+        String eventTitle, String keyword) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleLog.Spec();
+        spec.setActionType(actionType);
+        spec.setOperator(operator);
+        spec.setEventTitle(eventTitle);
+        spec.setKeyword(keyword);
+        var log = new ScheduleLog();
+        log.setMetadata(metadata);
+        log.setSpec(spec);
+        return log;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bi1kbu.pluginschedule.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.service.impl.ScheduleEventQueryCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleMetricsTest {
+
+    @Mock
+    ObjectProvider<MeterRegistry> registryProvider;
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+    ScheduleMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        when(registryProvider.getIfAvailable(any())).thenReturn(registry);
+        metrics = new ScheduleMetrics(registryProvider, new ScheduleEventQueryCache());
+    }
+
+    @Test
+    void reusesMeterForSameTags() {
+        metrics.recordQuery("events", "store", 120, 20);
+        var first = registry.get(ScheduleMetrics.QUERY_FETCHED).tag("source", "store").summary();
+        metrics.recordQuery("events", "store", 80, 20);
+        metrics.recordQuery("events", "index", 5, 5);
+
+        assertSame(first,
+            registry.get(ScheduleMetrics.QUERY_FETCHED).tag("source", "store").summary());
+        assertEquals(2, first.count());
+        assertEquals(200, first.totalAmount());
+    }
+
+    @Test
+    void closeRemovesCachedMeters() {
+        metrics.recordConflict("update");
+        metrics.close();
+
+        assertNull(registry.find(ScheduleMetrics.OPTIMISTIC_LOCK_CONFLICTS).counter());
+
+        metrics.recordConflict("update");
+        assertEquals(1, registry.get(ScheduleMetrics.OPTIMISTIC_LOCK_CONFLICTS).counter().count());
+    }
+}
@@ -0,0 +1,75 @@
+package com.bi1kbu.pluginschedule.recurrence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.EventTimes;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import run.halo.app.extension.Metadata;
+
+class RecurrencesTest {
+
+    @Test
+    void expandsWeeklySeriesOnlyInsideWindow() {
+        var recurrence = recurrence("weekly");
+        recurrence.setByDay(List.of("WE", "MO"));
+        recurrence.setExceptDates(List.of("2025-03-05T11:00:00.000Z"));
+        var series = series("2025-01-06T11:00:00.000Z", "2025-01-06T12:00:00.000Z", recurrence);
+
+        List<ScheduleEvent> occurrences = Recurrences.expand(series,
+            Instant.parse("2025-03-01T00:00:00Z").toEpochMilli(),
+            Instant.parse("2025-03-11T00:00:00Z").toEpochMilli());
+
+        assertEquals(List.of("2025-03-03T11:00:00.000Z", "2025-03-10T11:00:00.000Z"),
+            startsOf(occurrences));
+        assertEquals("2025-03-03T12:00:00.000Z", occurrences.get(0).getSpec().getEndAt());
+        assertEquals("club-1740999600", occurrences.get(0).getMetadata().getName());
+        assertEquals("club", occurrences.get(0).getMetadata().getAnnotations()
+            .get(Recurrences.SERIES_ANNOTATION));
+        assertEquals(EventTimes.OPEN_END, EventTimes.effectiveEndOf(series.getSpec()));
+    }
+
+    @Test
+    void keepsLocalTimeAcrossDaylightSavingAndSkipsMissingDays() {
+        var monthly = recurrence("monthly");
+        monthly.setCount(4);
+        var series = series("2025-01-31T14:00:00.000Z", null, monthly);
+        series.getSpec().setTimezone("America/New_York");
+
+        // 1 月 31 日之后只有 3 月 31 日存在，count 只统计真实存在的日期
+        assertEquals(List.of("2025-01-31T14:00:00.000Z", "2025-03-31T13:00:00.000Z",
+                "2025-05-31T13:00:00.000Z", "2025-07-31T13:00:00.000Z"),
+            startsOf(Recurrences.expand(series, null, null)));
+        assertEquals(Instant.parse("2025-07-31T13:00:00Z").toEpochMilli(),
+            EventTimes.effectiveEndOf(series.getSpec()));
+        assertEquals("FREQ=MONTHLY;COUNT=4", Recurrences.rruleOf(series.getSpec()));
+    }
+
+    private static List<String> startsOf(List<ScheduleEvent> events) {
+        return events.stream().map(event -> event.getSpec().getStartAt()).toList();
+    }
+
+    private static ScheduleEvent.Recurrence recurrence(String frequency) {
+        var recurrence = new ScheduleEvent.Recurrence();
+        recurrence.setFrequency(frequency);
+        return recurrence;
+    }
+
+    private static ScheduleEvent series(String startAt, String endAt,
+        ScheduleEvent.Recurrence recurrence) {
+        var metadata = new Metadata();
+        metadata.setName("club");
+        var spec = new ScheduleEvent.Spec();
+        spec.setCalendarName("calendar");
+        spec.setTitle("Club");
+        spec.setStartAt(startAt);
+        spec.setEndAt(endAt);
+        spec.setRecurrence(recurrence);
+        var event = new ScheduleEvent();
+        event.setMetadata(metadata);
+        event.setSpec(spec);
+        return event;
+    }
+}
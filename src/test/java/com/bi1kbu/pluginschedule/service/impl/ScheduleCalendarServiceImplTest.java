@@ -0,0 +1,120 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import com.bi1kbu.pluginschedule.stats.MonthDensityTracker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.RetryBackoffSpec;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleCalendarServiceImplTest {
+
+    @Mock
+    ReactiveExtensionClient client;
+
+    @Mock
+    ScheduleCalendarCatalog catalog;
+
+    @Mock
+    ScheduleEventIndex index;
+
+    @Mock
+    MonthDensityTracker densityTracker;
+
+    @Mock
+    ScheduleMetrics metrics;
+
+    ScheduleCalendarServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        var metadata = new Metadata();
+        metadata.setName("team");
+        var calendar = new ScheduleCalendar();
+        calendar.setMetadata(metadata);
+        when(client.fetch(ScheduleCalendar.class, "team")).thenReturn(Mono.just(calendar));
+        when(client.update(any(ScheduleCalendar.class)))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(metrics.countRetries(anyString(), any(RetryBackoffSpec.class)))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        service = new ScheduleCalendarServiceImpl(client, catalog, index, densityTracker, metrics);
+    }
+
+    @Test
+    void concurrentCallsWithinDebounceShareOneScan() throws Exception {
+        when(client.listAll(eq(ScheduleEvent.class), any(ListOptions.class), any(Sort.class)))
+            .thenReturn(Flux.empty());
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            var start = new CountDownLatch(1);
+            List<Future<Mono<ScheduleCalendar>>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return service.refreshCalendarStats("team");
+                }));
+            }
+            start.countDown();
+            Mono<ScheduleCalendar> shared = futures.get(0).get();
+            for (Future<Mono<ScheduleCalendar>> future : futures) {
+                assertSame(shared, future.get());
+            }
+            shared.block();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(client, times(1)).listAll(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(Sort.class));
+    }
+
+    @Test
+    void callAfterScanStartsGetsNextRound() {
+        Sinks.Many<ScheduleEvent> firstScan = Sinks.many().unicast().onBackpressureBuffer();
+        when(client.listAll(eq(ScheduleEvent.class), any(ListOptions.class), any(Sort.class)))
+            .thenReturn(firstScan.asFlux(), Flux.empty());
+
+        Mono<ScheduleCalendar> first = service.refreshCalendarStats("team");
+        verify(client, timeout(2000)).listAll(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(Sort.class));
+
+        Mono<ScheduleCalendar> second = service.refreshCalendarStats("team");
+        assertNotSame(first, second);
+
+        firstScan.tryEmitComplete();
+        first.block();
+        second.block();
+        verify(client, times(2)).listAll(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(Sort.class));
+    }
+}
@@ -0,0 +1,98 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.bi1kbu.pluginschedule.ScheduleEventQuery;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import run.halo.app.extension.ListResult;
+
+class ScheduleEventQueryCacheTest {
+
+    private final ScheduleEventQueryCache cache = new ScheduleEventQueryCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void equivalentTimeSpellingsShareEntry() {
+        load("calendar=team&from=2025-03-01&to=2025-03-31T00:00:00Z", 1);
+        load("calendar=team&from=2025-02-28T19:00:00-05:00&to=2025-03-31", 1);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        for (int page = 1; page <= ScheduleEventQueryCache.MAX_ENTRIES; page++) {
+            load("calendar=team&page=" + page, 0);
+        }
+        load("calendar=team&page=1", 0);
+        load("calendar=team&page=" + (ScheduleEventQueryCache.MAX_ENTRIES + 1), 0);
+        int loaded = loads.get();
+
+        load("calendar=team&page=1", 0);
+        assertEquals(loaded, loads.get());
+        load("calendar=team&page=2", 0);
+        assertEquals(loaded + 1, loads.get());
+        assertEquals(ScheduleEventQueryCache.MAX_ENTRIES, cache.stats().entries());
+    }
+
+    @Test
+    void evictsByWeightAndSkipsOversizedResults() {
+        int half = (int) (ScheduleEventQueryCache.MAX_WEIGHT / 2);
+        load("calendar=team&page=1", half);
+        load("calendar=team&page=2", half);
+
+        assertEquals(1, cache.stats().entries());
+        assertEquals(1, cache.stats().evictions());
+
+        load("calendar=team&page=3", (int) ScheduleEventQueryCache.MAX_WEIGHT);
+        assertEquals(1, cache.stats().entries());
+        assertEquals(half + 1L, cache.stats().weight());
+    }
+
+    @Test
+    void invalidationDuringLoadDropsStaleResult() {
+        Sinks.One<ListResult<ScheduleEvent>> pending = Sinks.one();
+        var result = cache.get(query("calendar=team"), pending::asMono).toFuture();
+
+        cache.invalidate("team");
+        pending.tryEmitValue(new ListResult<>(1, 0, 0, List.of()));
+        result.join();
+
+        load("calendar=team", 0);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateOnlyDropsThatCalendar() {
+        load("calendar=team", 0);
+        load("calendar=other", 0);
+
+        cache.invalidate("team");
+        load("calendar=team", 0);
+        load("calendar=other", 0);
+
+        assertEquals(3, loads.get());
+    }
+
+    private void load(String queryString, int items) {
+        List<ScheduleEvent> events = Collections.nCopies(items, new ScheduleEvent());
+        cache.get(query(queryString), () -> {
+            loads.incrementAndGet();
+            return Mono.just(new ListResult<>(1, 0, items, events));
+        }).block();
+    }
+
+    private static ScheduleEventQuery query(String queryString) {
+        return new ScheduleEventQuery(MockServerWebExchange.from(
+            MockServerHttpRequest.get("/scheduleevents?" + queryString)));
+    }
+}
@@ -0,0 +1,216 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.ScheduleCursor;
+import com.bi1kbu.pluginschedule.ScheduleEventQuery;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.index.ScheduleEventCounts;
+import com.bi1kbu.pluginschedule.index.ScheduleEventIndex;
+import com.bi1kbu.pluginschedule.index.ScheduleEventListener;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.PageRequest;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleEventServiceImplTest {
+
+    private static final String WINDOW =
+        "calendar=team&from=2025-03-01T00:00:00Z&to=2025-03-31T00:00:00Z&size=20";
+
+    @Mock
+    ReactiveExtensionClient client;
+
+    @Mock
+    ObjectProvider<ScheduleEventListener> listeners;
+
+    @Mock
+    ScheduleMetrics metrics;
+
+    ScheduleEventIndex index;
+    ScheduleEventServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        var counts = new ScheduleEventCounts();
+        var cache = new ScheduleEventQueryCache();
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(counts, cache));
+        when(client.listAll(eq(ScheduleEvent.class), any(ListOptions.class), any(Sort.class)))
+            .thenReturn(Flux.empty());
+        index = new ScheduleEventIndex(client, listeners);
+        index.awaitReady().block();
+        service = new ScheduleEventServiceImpl(client, index, counts, cache, metrics);
+
+        var series = event("standup", "2025-03-03T10:00:00Z");
+        var recurrence = new ScheduleEvent.Recurrence();
+        recurrence.setFrequency("weekly");
+        recurrence.setCount(3);
+        series.getSpec().setRecurrence(recurrence);
+        index.upsert(series);
+        index.upsert(event("review", "2025-03-05T10:00:00Z"));
+    }
+
+    @Test
+    void windowedQueryReturnsSameOccurrencesForEverySort() {
+        var byStart = names(service.listEvents(query(WINDOW + "&sort=spec.startAt,asc")).block());
+        var byName = names(service.listEvents(query(WINDOW + "&sort=metadata.name,desc")).block());
+
+        assertEquals(4, byStart.size());
+        assertEquals(Set.copyOf(byStart), Set.copyOf(byName));
+        assertFalse(byStart.contains("standup"));
+        assertEquals(byName.stream().sorted((a, b) -> b.compareTo(a)).toList(), byName);
+        verify(client, never()).listBy(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(PageRequest.class));
+    }
+
+    @Test
+    void staleStoredStatusIsRecomputedFromSpec() {
+        var stale = event("review", "2025-03-05T10:00:00Z");
+        stale.getStatusOrDefault().setStartAtEpochMillis(0L);
+        stale.getStatusOrDefault().setEffectiveEndAtEpochMillis(0L);
+        index.upsert(stale);
+
+        var review = service.listEvents(query(WINDOW)).block().getItems().stream()
+            .filter(event -> "review".equals(event.getMetadata().getName()))
+            .findFirst()
+            .orElseThrow();
+
+        long start = Instant.parse("2025-03-05T10:00:00Z").toEpochMilli();
+        assertEquals(start, review.getStatus().getStartAtEpochMillis());
+        assertEquals(start, review.getStatus().getEffectiveEndAtEpochMillis());
+    }
+
+    @Test
+    void paddedCalendarNameMatchesTheSameEvents() {
+        var padded = names(service.listEvents(query(WINDOW.replace("team", "team%20"))).block());
+
+        assertEquals(names(service.listEvents(query(WINDOW)).block()), padded);
+        assertEquals(4, padded.size());
+        assertEquals(2L, service.countEvents(query("calendar=%20team")).block());
+    }
+
+    @Test
+    void selectorQueryFallsBackToStore() {
+        when(client.listBy(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(PageRequest.class)))
+            .thenReturn(Mono.just(new ListResult<>(1, 20, 0, List.of())));
+
+        service.listEvents(query(WINDOW + "&labelSelector=team=core")).block();
+
+        verify(client).listBy(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(PageRequest.class));
+    }
+
+    @Test
+    void windowedCountCountsSeriesOnce() {
+        assertEquals(2L, service.countEvents(query(WINDOW)).block());
+        assertEquals(1L, service.countEvents(query(
+            "calendar=team&from=2025-03-10T00:00:00Z&to=2025-03-31T00:00:00Z")).block());
+    }
+
+    @Test
+    void calendarCountReadsCounters() {
+        assertEquals(2L, service.countEvents(query("calendar=team")).block());
+        assertEquals(0L, service.countEvents(query("calendar=team&status=done")).block());
+        verify(client, never()).listBy(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(PageRequest.class));
+    }
+
+    @Test
+    void selectorCountUsesStoreTotal() {
+        when(client.listBy(eq(ScheduleEvent.class), any(ListOptions.class),
+            any(PageRequest.class)))
+            .thenReturn(Mono.just(new ListResult<>(1, 1, 7, List.of())));
+
+        assertEquals(7L, service.countEvents(query("calendar=team&fieldSelector=a=b")).block());
+    }
+
+    @Test
+    void scrollWalksAllPagesInStartThenNameOrder() {
+        index.upsert(event("alpha", "2025-03-05T10:00:00Z"));
+        var expected = names(service.listEvents(query(WINDOW)).block());
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            var page = service.scrollEvents(query(WINDOW.replace("size=20", "size=2")
+                + (cursor == null ? "" : "&cursor=" + cursor))).block();
+            page.items().forEach(event -> walked.add(event.getMetadata().getName()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+        assertEquals(5, walked.size());
+        assertTrue(walked.indexOf("alpha") + 1 == walked.indexOf("review"));
+    }
+
+    @Test
+    void scrollLastPageHasNoCursor() {
+        var page = service.scrollEvents(query(WINDOW)).block();
+
+        assertEquals(4, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void scrollRejectsMalformedCursor() {
+        var error = assertThrows(ServerWebInputException.class,
+            () -> service.scrollEvents(query(WINDOW + "&cursor=!!!")));
+        assertEquals(400, error.getStatusCode().value());
+        assertThrows(ServerWebInputException.class, () -> service.scrollEvents(
+            query(WINDOW + "&cursor=" + new ScheduleCursor("soon", "review").encode())));
+    }
+
+    static ScheduleEventQuery query(String queryString) {
+        return new ScheduleEventQuery(MockServerWebExchange.from(
+            MockServerHttpRequest.get("/scheduleevents?" + queryString)));
+    }
+
+    static List<String> names(ListResult<ScheduleEvent> result) {
+        return result.getItems().stream()
+            .map(event -> event.getMetadata().getName())
+            .collect(Collectors.toList());
+    }
+
+    static ScheduleEvent event(String name, String startAt) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleEvent.Spec();
+        spec.setCalendarName("team");
+        spec.setStartAt(startAt);
+        var event = new ScheduleEvent();
+        event.setMetadata(metadata);
+        event.setSpec(spec);
+        return event;
+    }
+}
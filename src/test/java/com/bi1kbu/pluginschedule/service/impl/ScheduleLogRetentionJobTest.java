@@ -0,0 +1,172 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.archive.ScheduleLogArchive;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.setting.LogSetting;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.PageRequest;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.plugin.ReactiveSettingFetcher;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleLogRetentionJobTest {
+
+    @Mock
+    ReactiveExtensionClient client;
+
+    @Mock
+    ReactiveSettingFetcher settingFetcher;
+
+    @Mock
+    ScheduleLogArchive archive;
+
+    ScheduleLogRetentionJob job;
+
+    /**
+     * 按 (actionAt, name) 升序保存的线上日志，listBy 忽略查询条件，总是返回最早的一页。
+     */
+    final List<ScheduleLog> live = new ArrayList<>();
+    final Map<String, ScheduleLog> rollups = new TreeMap<>();
+    final Set<String> failingDeletes = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        job = new ScheduleLogRetentionJob(client, settingFetcher, archive);
+        when(settingFetcher.fetch(LogSetting.GROUP, LogSetting.class))
+            .thenReturn(Mono.just(new LogSetting(false, 30, 0, true, false)));
+        when(client.listBy(eq(ScheduleLog.class), any(ListOptions.class), any(PageRequest.class)))
+            .thenAnswer(invocation -> {
+                PageRequest page = invocation.getArgument(2);
+                List<ScheduleLog> items = live.stream()
+                    .sorted(Comparator.comparing((ScheduleLog log) -> log.getSpec().getActionAt())
+                        .thenComparing(log -> log.getMetadata().getName()))
+                    .limit(page.getPageSize())
+                    .toList();
+                return Mono.just(new ListResult<>(1, page.getPageSize(), live.size(), items));
+            });
+        lenient().when(client.delete(any(ScheduleLog.class))).thenAnswer(invocation -> {
+            ScheduleLog log = invocation.getArgument(0);
+            if (failingDeletes.remove(log.getMetadata().getName())) {
+                return Mono.error(new IllegalStateException("delete failed"));
+            }
+            live.remove(log);
+            return Mono.just(log);
+        });
+        lenient().when(client.fetch(eq(ScheduleLog.class), anyString()))
+            .thenAnswer(invocation -> Mono.justOrEmpty(rollups.get(invocation.getArgument(1))));
+        lenient().when(client.create(any(ScheduleLog.class))).thenAnswer(invocation -> {
+            ScheduleLog rollup = invocation.getArgument(0);
+            rollups.put(rollup.getMetadata().getName(), rollup);
+            return Mono.just(rollup);
+        });
+        lenient().when(client.update(any(ScheduleLog.class))).thenAnswer(invocation -> {
+            ScheduleLog rollup = invocation.getArgument(0);
+            rollups.put(rollup.getMetadata().getName(), rollup);
+            return Mono.just(rollup);
+        });
+    }
+
+    @Test
+    void rollsUpEachDayThenDeletes() {
+        live.add(log("log-a", "2025-01-01T08:00:00Z", "create", "alice"));
+        live.add(log("log-b", "2025-01-01T09:00:00Z", "update", "alice"));
+        live.add(log("log-c", "2025-01-02T10:00:00Z", "create", "bob"));
+
+        assertEquals(3L, job.runOnce().block());
+
+        assertTrue(live.isEmpty());
+        var first = rollups.get("schedule-log-rollup-2025-01-01");
+        assertEquals(ScheduleLogRetentionJob.ROLLUP_ACTION_TYPE, first.getSpec().getActionType());
+        assertEquals(1L, count(first, "actionType:create"));
+        assertEquals(1L, count(first, "actionType:update"));
+        assertEquals(2L, count(first, "operator:alice"));
+        assertEquals("2025-01-01 共清理 2 条日志", first.getSpec().getSummary());
+        var second = rollups.get("schedule-log-rollup-2025-01-02");
+        assertEquals(1L, count(second, "operator:bob"));
+    }
+
+    @Test
+    void rerunAfterFailedDeleteDoesNotCountAgain() {
+        live.add(log("log-a", "2025-01-01T08:00:00Z", "create", "alice"));
+        live.add(log("log-b", "2025-01-01T09:00:00Z", "create", "alice"));
+        live.add(log("log-c", "2025-01-01T10:00:00Z", "create", "alice"));
+        failingDeletes.add("log-b");
+
+        assertThrows(IllegalStateException.class, () -> job.runOnce().block());
+        assertTrue(live.stream().anyMatch(log -> "log-b".equals(log.getMetadata().getName())));
+
+        job.runOnce().block();
+        assertTrue(live.isEmpty());
+        var rollup = rollups.get("schedule-log-rollup-2025-01-01");
+        assertEquals(3L, count(rollup, "actionType:create"));
+
+        // 之后同一天新清理的日志照常累加
+        live.add(log("log-d", "2025-01-01T11:00:00Z", "delete", "bob"));
+        assertEquals(1L, job.runOnce().block());
+        assertEquals(3L, count(rollup, "actionType:create"));
+        assertEquals(1L, count(rollup, "actionType:delete"));
+        assertEquals("2025-01-01 共清理 4 条日志", rollup.getSpec().getSummary());
+        assertEquals("2025-01-01T11:00:00.000Z/log-d", rollup.getMetadata().getAnnotations()
+            .get(ScheduleLogRetentionJob.ROLLED_UP_THROUGH_ANNOTATION));
+    }
+
+    @Test
+    void subSecondActionAtIsOrderedByTimeNotText() {
+        live.add(log("log-a", "2025-01-01T10:00:00Z", "create", "alice"));
+        job.runOnce().block();
+
+        // 按原文比较时 "10:00:00.5Z" 小于 "10:00:00Z"，会被误判为已汇总
+        live.add(log("log-b", "2025-01-01T10:00:00.5Z", "create", "alice"));
+        job.runOnce().block();
+
+        var rollup = rollups.get("schedule-log-rollup-2025-01-01");
+        assertEquals(2L, count(rollup, "actionType:create"));
+        assertEquals("2025-01-01T10:00:00.500Z/log-b", rollup.getMetadata().getAnnotations()
+            .get(ScheduleLogRetentionJob.ROLLED_UP_THROUGH_ANNOTATION));
+    }
+
+    private static long count(ScheduleLog rollup, String field) {
+        return rollup.getSpec().getDetails().stream()
+            .filter(detail -> field.equals(detail.getField()))
+            .mapToLong(detail -> Long.parseLong(detail.getNewValue()))
+            .sum();
+    }
+
+    private static ScheduleLog log(String name, String actionAt, String actionType,
+        String operator) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleLog.Spec();
+        spec.setActionAt(actionAt);
+        spec.setActionType(actionType);
+        spec.setOperator(operator);
+        var log = new ScheduleLog();
+        log.setMetadata(metadata);
+        log.setSpec(spec);
+        return log;
+    }
+}
@@ -0,0 +1,104 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.ScheduleLogQuery;
+import com.bi1kbu.pluginschedule.archive.ScheduleLogArchive;
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.index.ScheduleLogKeywordIndex;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.PageRequest;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.plugin.ReactiveSettingFetcher;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleLogServiceImplTest {
+
+    @Mock
+    ReactiveExtensionClient client;
+
+    @Mock
+    ScheduleLogKeywordIndex keywordIndex;
+
+    @Mock
+    ScheduleLogWriteBuffer writeBuffer;
+
+    @Mock
+    ReactiveSettingFetcher settingFetcher;
+
+    @Mock
+    ScheduleLogArchive archive;
+
+    @Mock
+    ScheduleMetrics metrics;
+
+    ScheduleLogServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(archive.isEmpty()).thenReturn(Mono.just(true));
+        service = new ScheduleLogServiceImpl(client, keywordIndex, writeBuffer, settingFetcher,
+            archive, metrics);
+    }
+
+    @Test
+    void tooManyKeywordCandidatesScanStoreInsteadOfInQuery() {
+        int candidates = ScheduleLogServiceImpl.MAX_KEYWORD_CANDIDATES + 1;
+        Set<String> names = IntStream.range(0, candidates)
+            .mapToObj(i -> "log-" + i)
+            .collect(Collectors.toSet());
+        when(keywordIndex.search("会")).thenReturn(Mono.just(names));
+        when(client.listAll(eq(ScheduleLog.class), any(ListOptions.class), any(Sort.class)))
+            .thenAnswer(invocation -> Flux.range(0, candidates + 500)
+                .map(i -> log("log-" + (candidates + 500 - 1 - i))));
+
+        var page = service.listLogs(query("keyword=会&page=2&size=10")).block();
+
+        assertEquals(candidates, page.getTotal());
+        assertEquals(IntStream.range(0, 10)
+                .mapToObj(i -> "log-" + (candidates - 11 - i))
+                .toList(),
+            page.getItems().stream().map(item -> item.getMetadata().getName()).toList());
+        assertEquals(candidates, service.countLogs(query("keyword=会&operator=admin")).block());
+        verify(client, never()).listBy(eq(ScheduleLog.class), any(ListOptions.class),
+            any(PageRequest.class));
+    }
+
+    private static ScheduleLogQuery query(String queryString) {
+        return new ScheduleLogQuery(MockServerWebExchange.from(
+            MockServerHttpRequest.get("/schedulelogs?" + queryString)));
+    }
+
+    private static ScheduleLog log(String name) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleLog.Spec();
+        spec.setOperator("admin");
+        var log = new ScheduleLog();
+        log.setMetadata(metadata);
+        log.setSpec(spec);
+        return log;
+    }
+}
@@ -0,0 +1,125 @@
+package com.bi1kbu.pluginschedule.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleLog;
+import com.bi1kbu.pluginschedule.index.ScheduleLogKeywordIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleLogWriteBufferTest {
+
+    @Mock
+    ReactiveExtensionClient client;
+
+    @Mock
+    ScheduleLogKeywordIndex keywordIndex;
+
+    ScheduleLogWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(client.create(any(ScheduleLog.class)))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        buffer = new ScheduleLogWriteBuffer(client, keywordIndex);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.flush();
+    }
+
+    @Test
+    void fullBatchIsWrittenBeforeTheWindowCloses() {
+        for (int i = 0; i < ScheduleLogWriteBuffer.MAX_BATCH_SIZE; i++) {
+            assertTrue(buffer.offer(log("log-" + i)));
+        }
+
+        verify(client, timeout(ScheduleLogWriteBuffer.BATCH_WINDOW.toMillis() / 2)
+            .times(ScheduleLogWriteBuffer.MAX_BATCH_SIZE)).create(any(ScheduleLog.class));
+        verify(keywordIndex, times(ScheduleLogWriteBuffer.MAX_BATCH_SIZE))
+            .upsert(any(ScheduleLog.class));
+    }
+
+    @Test
+    void partialBatchIsWrittenWhenTheWindowCloses() {
+        assertTrue(buffer.offer(log("log-a")));
+        assertTrue(buffer.offer(log("log-b")));
+
+        verify(client, after(ScheduleLogWriteBuffer.BATCH_WINDOW.toMillis() / 5).never())
+            .create(any(ScheduleLog.class));
+        verify(client, timeout(ScheduleLogWriteBuffer.BATCH_WINDOW.toMillis() * 4).times(2))
+            .create(any(ScheduleLog.class));
+    }
+
+    @Test
+    void flushOnStopWritesPendingLogsAndRejectsLaterOffers() {
+        assertTrue(buffer.offer(log("log-a")));
+        assertTrue(buffer.offer(log("log-b")));
+        assertTrue(buffer.offer(log("log-c")));
+
+        buffer.flush();
+
+        verify(client, times(3)).create(any(ScheduleLog.class));
+        assertFalse(buffer.offer(log("log-d")));
+        verify(client, times(3)).create(any(ScheduleLog.class));
+    }
+
+    @Test
+    void failedWriteDoesNotDropTheRestOfTheBatch() {
+        when(client.create(any(ScheduleLog.class)))
+            .thenReturn(Mono.error(new IllegalStateException("store unavailable")))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        assertTrue(buffer.offer(log("log-a")));
+        assertTrue(buffer.offer(log("log-b")));
+
+        buffer.flush();
+
+        verify(client, times(2)).create(any(ScheduleLog.class));
+        verify(keywordIndex, times(1)).upsert(any(ScheduleLog.class));
+    }
+
+    @Test
+    void drainRestartsAfterAnUnexpectedError() {
+        when(client.create(any(ScheduleLog.class)))
+            .thenThrow(new IllegalStateException("client bug"))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        assertTrue(buffer.offer(log("log-a")));
+        verify(client, after(ScheduleLogWriteBuffer.BATCH_WINDOW.toMillis() * 2).times(1))
+            .create(any(ScheduleLog.class));
+
+        assertTrue(buffer.offer(log("log-b")));
+        buffer.flush();
+
+        verify(client, times(2)).create(any(ScheduleLog.class));
+        verify(keywordIndex, times(1)).upsert(any(ScheduleLog.class));
+    }
+
+    private static ScheduleLog log(String name) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleLog.Spec();
+        spec.setActionType("create");
+        var log = new ScheduleLog();
+        log.setMetadata(metadata);
+        log.setSpec(spec);
+        return log;
+    }
+}
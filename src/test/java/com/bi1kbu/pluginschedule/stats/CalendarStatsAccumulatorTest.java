@@ -0,0 +1,45 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import org.junit.jupiter.api.Test;
+
+class CalendarStatsAccumulatorTest {
+
+    @Test
+    void foldsEventsIntoRangeStats() {
+        var accumulator = new CalendarStatsAccumulator();
+        accumulator.accept(event("2026-03-10T08:00:00Z", "2026-03-12T08:00:00Z"));
+        accumulator.accept(event("2025-11-30", null));
+        accumulator.accept(event(null, "2026-07-01T00:00:00+08:00"));
+        accumulator.accept(event("not-a-date", "2026/08/01"));
+        accumulator.accept(event("2026-05-01T08:00:00Z", "bad"));
+
+        assertEquals(new CalendarStats(5, "2025-11", "2026-07", "2026-07-01"),
+            accumulator.toStats());
+    }
+
+    @Test
+    void emptyCalendarHasNoRange() {
+        assertEquals(new CalendarStats(0, null, null, null),
+            new CalendarStatsAccumulator().toStats());
+    }
+
+    @Test
+    void eventDateRangeUsesSameFallbacks() {
+        assertEquals(new EventDateRange("2026-05", "2026-05", "2026-05-01"),
+            EventDateRange.of(event("2026-05-01T08:00:00Z", "bad")));
+        assertEquals(new EventDateRange(null, null, null),
+            EventDateRange.of(event("2026-5-01", null)));
+    }
+
+    private static ScheduleEvent event(String startAt, String endAt) {
+        var spec = new ScheduleEvent.Spec();
+        spec.setStartAt(startAt);
+        spec.setEndAt(endAt);
+        var event = new ScheduleEvent();
+        event.setSpec(spec);
+        return event;
+    }
+}
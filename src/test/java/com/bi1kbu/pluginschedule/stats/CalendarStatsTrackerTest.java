@@ -0,0 +1,140 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleCalendar;
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.metrics.ScheduleMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.RetryBackoffSpec;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarStatsTrackerTest {
+
+    @Mock
+    ReactiveExtensionClient client;
+
+    @Mock
+    ScheduleMetrics metrics;
+
+    CalendarStatsTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(metrics.countRetries(anyString(), any(RetryBackoffSpec.class)))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        lenient().when(client.update(any(ScheduleCalendar.class)))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        tracker = new CalendarStatsTracker(client, metrics);
+    }
+
+    @Test
+    void deletingRangeHoldersNarrowsRange() {
+        when(client.fetch(ScheduleCalendar.class, "team")).thenReturn(Mono.empty());
+        var first = event("first", "2025-01-10T09:00:00Z", null);
+        var middle = event("middle", "2025-03-05T09:00:00Z", null);
+        var last = event("last", "2025-06-20T09:00:00Z", "2025-07-02T18:00:00Z");
+        tracker.onEventChanged(null, first);
+        tracker.onEventChanged(null, middle);
+        tracker.onEventChanged(null, last);
+        tracker.onIndexLoaded();
+
+        assertEquals(new CalendarStats(3, "2025-01", "2025-07", "2025-07-02"),
+            tracker.statsOf("team").orElseThrow());
+
+        tracker.onEventChanged(first, null);
+        assertEquals(new CalendarStats(2, "2025-03", "2025-07", "2025-07-02"),
+            tracker.statsOf("team").orElseThrow());
+
+        tracker.onEventChanged(last, null);
+        assertEquals(new CalendarStats(1, "2025-03", "2025-03", "2025-03-05"),
+            tracker.statsOf("team").orElseThrow());
+
+        tracker.onEventChanged(middle, null);
+        assertEquals(new CalendarStats(0, null, null, null),
+            tracker.statsOf("team").orElseThrow());
+    }
+
+    @Test
+    void coalescesChangesIntoOneDebouncedWrite() {
+        when(client.fetch(ScheduleCalendar.class, "team"))
+            .thenAnswer(invocation -> Mono.just(calendar()));
+        tracker.onIndexLoaded();
+
+        tracker.onEventChanged(null, event("a", "2025-01-10T09:00:00Z", null));
+        tracker.onEventChanged(null, event("b", "2025-02-10T09:00:00Z", null));
+        tracker.onEventChanged(null, event("c", "2025-03-10T09:00:00Z", null));
+
+        verify(client, after(1500).times(1)).update(any(ScheduleCalendar.class));
+        verify(client).update(argThat((ScheduleCalendar calendar) ->
+            calendar.getStatus().getEventCount() == 3
+                && "2025-03-10".equals(calendar.getStatus().getRangeEndDate())));
+    }
+
+    @Test
+    void nextChangeFlushesAgainAfterFailure() {
+        when(client.fetch(ScheduleCalendar.class, "team"))
+            .thenReturn(Mono.error(new IllegalStateException("store unavailable")))
+            .thenAnswer(invocation -> Mono.just(calendar()));
+        tracker.onIndexLoaded();
+
+        tracker.onEventChanged(null, event("a", "2025-01-10T09:00:00Z", null));
+        verify(client, timeout(1500)).fetch(ScheduleCalendar.class, "team");
+
+        tracker.onEventChanged(null, event("b", "2025-02-10T09:00:00Z", null));
+        verify(client, timeout(1500)).update(argThat((ScheduleCalendar calendar) ->
+            calendar.getStatus().getEventCount() == 2));
+    }
+
+    @Test
+    void retriesWriteOnOptimisticLockConflict() {
+        when(client.fetch(ScheduleCalendar.class, "team"))
+            .thenAnswer(invocation -> Mono.just(calendar()));
+        when(client.update(any(ScheduleCalendar.class)))
+            .thenReturn(Mono.error(new OptimisticLockingFailureException("conflict")))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        tracker.onIndexLoaded();
+
+        tracker.onEventChanged(null, event("a", "2025-01-10T09:00:00Z", null));
+
+        verify(client, timeout(2000).times(2)).update(any(ScheduleCalendar.class));
+        verify(metrics).recordConflict("stats-flush");
+    }
+
+    private static ScheduleCalendar calendar() {
+        var metadata = new Metadata();
+        metadata.setName("team");
+        var calendar = new ScheduleCalendar();
+        calendar.setMetadata(metadata);
+        return calendar;
+    }
+
+    private static ScheduleEvent event(String name, String startAt, String endAt) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleEvent.Spec();
+        spec.setCalendarName("team");
+        spec.setStartAt(startAt);
+        spec.setEndAt(endAt);
+        var event = new ScheduleEvent();
+        event.setMetadata(metadata);
+        event.setSpec(spec);
+        return event;
+    }
+}
@@ -0,0 +1,89 @@
+package com.bi1kbu.pluginschedule.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bi1kbu.pluginschedule.extension.ScheduleEvent;
+import com.bi1kbu.pluginschedule.vo.CalendarMonthDensity.MonthDensity;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import run.halo.app.extension.Metadata;
+
+class MonthDensityTrackerTest {
+
+    @Test
+    void countsEveryMonthAndDayAnEventTouches() {
+        var tracker = new MonthDensityTracker();
+        tracker.onEventChanged(null, event("a", "2025-01-30T10:00:00Z", "2025-02-02T10:00:00Z"));
+        tracker.onEventChanged(null, event("b", "2025-02-01T23:30:00-05:00", null));
+        tracker.onEventChanged(null, event("c", "2025-06-15", null));
+
+        var density = tracker.densityOf("calendar", null, null, true);
+        assertEquals(List.of(
+                new MonthDensity("2025-01", 1, (1 << 29) | (1 << 30)),
+                new MonthDensity("2025-02", 2, 0b11),
+                new MonthDensity("2025-06", 1, 1 << 14)),
+            density.months());
+    }
+
+    @Test
+    void findsNearestNonEmptyMonthsAroundRange() {
+        var tracker = new MonthDensityTracker();
+        tracker.onEventChanged(null, event("a", "2025-01-10T10:00:00Z", null));
+        tracker.onEventChanged(null, event("b", "2025-06-10T10:00:00Z", null));
+
+        var density = tracker.densityOf("calendar", YearMonth.of(2025, 3),
+            YearMonth.of(2025, 3), false);
+        assertTrue(density.months().isEmpty());
+        assertEquals("2025-01", density.previousMonth());
+        assertEquals("2025-06", density.nextMonth());
+    }
+
+    @Test
+    void movesContributionWhenEventChanges() {
+        var tracker = new MonthDensityTracker();
+        var before = event("a", "2025-01-10T10:00:00Z", null);
+        var after = event("a", "2025-04-10T10:00:00Z", null);
+        tracker.onEventChanged(null, before);
+        tracker.onEventChanged(before, after);
+
+        assertEquals(List.of(new MonthDensity("2025-04", 1, null)),
+            tracker.densityOf("calendar", null, null, false).months());
+
+        tracker.onEventChanged(after, null);
+        var density = tracker.densityOf("calendar", YearMonth.of(2025, 1), null, false);
+        assertTrue(density.months().isEmpty());
+        assertNull(density.previousMonth());
+    }
+
+    @Test
+    void countsRecurringOccurrences() {
+        var recurrence = new ScheduleEvent.Recurrence();
+        recurrence.setFrequency("weekly");
+        recurrence.setCount(5);
+        var series = event("club", "2025-03-24T10:00:00Z", null);
+        series.getSpec().setRecurrence(recurrence);
+        var tracker = new MonthDensityTracker();
+        tracker.onEventChanged(null, series);
+
+        assertEquals(List.of(
+                new MonthDensity("2025-03", 2, (1 << 23) | (1 << 30)),
+                new MonthDensity("2025-04", 3, (1 << 6) | (1 << 13) | (1 << 20))),
+            tracker.densityOf("calendar", null, null, true).months());
+    }
+
+    private static ScheduleEvent event(String name, String startAt, String endAt) {
+        var metadata = new Metadata();
+        metadata.setName(name);
+        var spec = new ScheduleEvent.Spec();
+        spec.setCalendarName("calendar");
+        spec.setStartAt(startAt);
+        spec.setEndAt(endAt);
+        var event = new ScheduleEvent();
+        event.setMetadata(metadata);
+        event.setSpec(spec);
+        return event;
+    }
+}
@@ -1,5 +1,12 @@
 import { axiosInstance } from '@halo-dev/api-client'
-import type { ListResult, Post, ScheduleCalendar, ScheduleEvent, ScheduleLog } from '@/types'
+import type {
+  ListResult,
+  Post,
+  ScheduleCalendar,
+  ScheduleCount,
+  ScheduleEvent,
+  ScheduleLog,
+} from '@/types'
 
 const CALENDAR_API = '/apis/schedule.bi1kbu.com/v1alpha1/schedulecalendars'
 const EVENT_API = '/apis/schedule.bi1kbu.com/v1alpha1/scheduleevents'
@@ -36,6 +43,11 @@ export async function listEvents(params: Record<string, any>) {
   return data
 }
 
+export async function countEvents(params: Record<string, any>) {
+  const { data } = await axiosInstance.get<ScheduleCount>(`${PUBLIC_API}/scheduleevents/-/count`, { params })
+  return data.total
+}
+
 export async function createEvent(payload: Partial<ScheduleEvent>) {
   const { data } = await axiosInstance.post<ScheduleEvent>(EVENT_API, payload)
   return data
@@ -72,7 +84,12 @@ export async function listScheduleLogs(params: Record<string, any>) {
   return data
 }
 
-export async function recordScheduleLog(payload: {
+export async function countScheduleLogs(params: Record<string, any>) {
+  const { data } = await axiosInstance.get<ScheduleCount>(`${PUBLIC_API}/schedulelogs/-/count`, { params })
+  return data.total
+}
+
+export interface RecordScheduleLogPayload {
   actionType: string
   calendarName?: string
   eventName?: string
@@ -85,7 +102,9 @@ export async function recordScheduleLog(payload: {
     oldValue?: string
     newValue?: string
   }>
-}) {
+}
+
+export async function recordScheduleLog(payload: RecordScheduleLogPayload) {
   const { data } = await axiosInstance.post<ScheduleLog>(`${PUBLIC_API}/schedulelogs`, payload)
   return data
 }
@@ -42,7 +42,21 @@ export interface ScheduleEvent {
     relatedPostPinnedSnapshot?: boolean
     forceHighlight?: boolean
     forceHideHighlight?: boolean
+    recurrence?: ScheduleEventRecurrence
   }
+  status?: {
+    startAtEpochMillis?: number
+    effectiveEndAtEpochMillis?: number
+  }
+}
+
+export interface ScheduleEventRecurrence {
+  frequency: 'daily' | 'weekly' | 'monthly' | 'yearly'
+  interval?: number
+  byDay?: Array<'MO' | 'TU' | 'WE' | 'TH' | 'FR' | 'SA' | 'SU'>
+  count?: number
+  until?: string
+  exceptDates?: string[]
 }
 
 export interface ScheduleLog {
@@ -74,6 +88,10 @@ export interface ListResult<T> {
   items: T[]
 }
 
+export interface ScheduleCount {
+  total: number
+}
+
 export interface Post {
   metadata: { name: string }
   spec?: { title?: string; pinned?: boolean; topPriority?: number }